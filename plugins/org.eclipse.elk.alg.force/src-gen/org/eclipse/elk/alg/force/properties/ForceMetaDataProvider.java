@@ -114,6 +114,44 @@ public class ForceMetaDataProvider implements ILayoutMetaDataProvider {
             REPULSION_LOWER_BOUND,
             null);
   
+  /**
+   * Default value for {@link #BARNES_HUT}.
+   */
+  private final static boolean BARNES_HUT_DEFAULT = false;
+  
+  /**
+   * Whether repulsive forces are approximated with a quadtree as proposed by Barnes and Hut.
+   * This reduces the time per iteration from quadratic to roughly n log n in the number of
+   * particles, which makes large graphs feasible. Attractive forces are then only computed
+   * along edges, and connected nodes repel each other as well.
+   */
+  public final static IProperty<Boolean> BARNES_HUT = new Property<Boolean>(
+            "org.eclipse.elk.force.barnesHut",
+            BARNES_HUT_DEFAULT,
+            null,
+            null);
+  
+  /**
+   * Default value for {@link #BARNES_HUT_THETA}.
+   */
+  private final static float BARNES_HUT_THETA_DEFAULT = 0.8f;
+  
+  /**
+   * Lower bound value for {@link #BARNES_HUT_THETA}.
+   */
+  private final static Comparable<? super Float> BARNES_HUT_THETA_LOWER_BOUND = Float.valueOf(0f);
+  
+  /**
+   * Accuracy of the Barnes-Hut approximation. A group of particles acts as a single particle
+   * on a node if the group's extent is less than theta times its distance to the node. Zero
+   * computes all repulsive forces exactly; greater values are faster, but less accurate.
+   */
+  public final static IProperty<Float> BARNES_HUT_THETA = new Property<Float>(
+            "org.eclipse.elk.force.barnesHutTheta",
+            BARNES_HUT_THETA_DEFAULT,
+            BARNES_HUT_THETA_LOWER_BOUND,
+            null);
+  
   /**
    * Required value for dependency between {@link #TEMPERATURE} and {@link #MODEL}.
    */
@@ -124,6 +162,11 @@ public class ForceMetaDataProvider implements ILayoutMetaDataProvider {
    */
   private final static ForceModelStrategy REPULSION_DEP_MODEL = ForceModelStrategy.EADES;
   
+  /**
+   * Required value for dependency between {@link #BARNES_HUT_THETA} and {@link #BARNES_HUT}.
+   */
+  private final static boolean BARNES_HUT_THETA_DEP_BARNES_HUT = true;
+  
   public void apply(final ILayoutMetaDataProvider.Registry registry) {
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.force.model",
@@ -200,6 +243,37 @@ public class ForceMetaDataProvider implements ILayoutMetaDataProvider {
         "org.eclipse.elk.force.model",
         REPULSION_DEP_MODEL
     );
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.force.barnesHut",
+        "",
+        "Barnes-Hut Approximation",
+        "Whether repulsive forces are approximated with a quadtree as proposed by Barnes and Hut. This reduces the time per iteration from quadratic to roughly n log n in the number of particles, which makes large graphs feasible. Attractive forces are then only computed along edges, and connected nodes repel each other as well.",
+        BARNES_HUT_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.VISIBLE
+    ));
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.force.barnesHutTheta",
+        "",
+        "Barnes-Hut Theta",
+        "Accuracy of the Barnes-Hut approximation. A group of particles acts as a single particle on a node if the group\'s extent is less than theta times its distance to the node. Zero computes all repulsive forces exactly; greater values are faster, but less accurate.",
+        BARNES_HUT_THETA_DEFAULT,
+        BARNES_HUT_THETA_LOWER_BOUND,
+        null,
+        LayoutOptionData.Type.FLOAT,
+        Float.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.VISIBLE
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.force.barnesHutTheta",
+        "org.eclipse.elk.force.barnesHut",
+        BARNES_HUT_THETA_DEP_BARNES_HUT
+    );
     new org.eclipse.elk.alg.force.properties.ForceOptions().apply(registry);
   }
 }
@@ -137,6 +137,16 @@ public class ForceOptions implements ILayoutMetaDataProvider {
    */
   public final static IProperty<Integer> REPULSIVE_POWER = ForceMetaDataProvider.REPULSIVE_POWER;
   
+  /**
+   * Property constant to access Barnes-Hut Approximation from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> BARNES_HUT = ForceMetaDataProvider.BARNES_HUT;
+  
+  /**
+   * Property constant to access Barnes-Hut Theta from within the layout algorithm code.
+   */
+  public final static IProperty<Float> BARNES_HUT_THETA = ForceMetaDataProvider.BARNES_HUT_THETA;
+  
   public void apply(final ILayoutMetaDataProvider.Registry registry) {
     registry.register(new LayoutAlgorithmData(
         "org.eclipse.elk.force",
@@ -218,5 +228,15 @@ public class ForceOptions implements ILayoutMetaDataProvider {
         "org.eclipse.elk.force.repulsivePower",
         REPULSIVE_POWER.getDefault()
     );
+    registry.addOptionSupport(
+        "org.eclipse.elk.force",
+        "org.eclipse.elk.force.barnesHut",
+        BARNES_HUT.getDefault()
+    );
+    registry.addOptionSupport(
+        "org.eclipse.elk.force",
+        "org.eclipse.elk.force.barnesHutTheta",
+        BARNES_HUT_THETA.getDefault()
+    );
   }
 }
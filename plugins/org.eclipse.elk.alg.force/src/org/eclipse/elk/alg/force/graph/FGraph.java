@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.force.graph;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -31,6 +32,12 @@ public final class FGraph extends MapPropertyHolder {
     /** the serial version UID. */
     private static final long serialVersionUID = -2396315570561498425L;
     
+    /**
+     * the adjacency matrix is used if it has at most this many entries per node and edge; sparser
+     * graphs use sorted neighbor arrays.
+     */
+    private static final int DENSE_FACTOR = 16;
+    
     /** All nodes of this graph. */
     private LinkedList<FNode> nodes = new LinkedList<FNode>();
     /** All edges of this graph. */
@@ -39,8 +46,14 @@ public final class FGraph extends MapPropertyHolder {
     private LinkedList<FLabel> labels = new LinkedList<FLabel>();
     /** All bend points of this graph. */
     private LinkedList<FBendpoint> bendPoints = new LinkedList<FBendpoint>();
-    /** adjacency matrix of the graph. */
+    /** adjacency matrix of the graph, or {@code null} if the graph is sparse. */
     private int[][] adjacency;
+    /** for each node id the start of its range in the neighbor arrays; {@code null} if the graph is dense. */
+    private int[] neighborStart;
+    /** ids of the adjacent nodes of all nodes, sorted ascending within each node's range. */
+    private int[] neighborIds;
+    /** the amount of connection between each node and each of its adjacent nodes. */
+    private int[] neighborConnections;
 
     /**
      * Returns the list of edges for this graph.
@@ -98,7 +111,13 @@ public final class FGraph extends MapPropertyHolder {
     public int getConnection(final FParticle particle1, final FParticle particle2) {
         if (particle1 instanceof FNode && particle2 instanceof FNode) {
             FNode node1 = (FNode) particle1, node2 = (FNode) particle2;
-            return adjacency[node1.id][node2.id] + adjacency[node2.id][node1.id];
+            if (adjacency != null) {
+                return adjacency[node1.id][node2.id] + adjacency[node2.id][node1.id];
+            } else {
+                int index = Arrays.binarySearch(neighborIds, neighborStart[node1.id],
+                        neighborStart[node1.id + 1], node2.id);
+                return index >= 0 ? neighborConnections[index] : 0;
+            }
         } else if (particle1 instanceof FBendpoint && particle2 instanceof FBendpoint) {
             FBendpoint bpoint1 = (FBendpoint) particle1, bpoint2 = (FBendpoint) particle2;
             if (bpoint1.getEdge() == bpoint2.getEdge()) {
@@ -109,14 +128,84 @@ public final class FGraph extends MapPropertyHolder {
     }
     
     /**
-     * Calculate the adjacency matrix of the graph.
+     * Calculate the adjacency information of the graph. Small or dense graphs get an adjacency
+     * matrix; for sparse graphs, the matrix would waste quadratic space, so each node gets a sorted
+     * array of its neighbors instead, in which connections are found by binary search. Node ids
+     * must be the indices of the nodes in the node list.
      */
     public void calcAdjacency() {
         int n = nodes.size();
-        adjacency = new int[n][n];
+        if ((long) n * n <= (long) DENSE_FACTOR * (n + edges.size())) {
+            adjacency = new int[n][n];
+            for (FEdge edge : edges) {
+                adjacency[edge.getSource().id][edge.getTarget().id] += edge.getProperty(ForceOptions.PRIORITY);
+            }
+            neighborStart = null;
+            neighborIds = null;
+            neighborConnections = null;
+            
+        } else {
+            adjacency = null;
+            calcNeighbors(n);
+        }
+    }
+    
+    /**
+     * Calculate the sorted neighbor arrays of the graph. Each edge adds its priority to the
+     * connection in both directions; multiple edges between the same nodes are merged.
+     * 
+     * @param n the number of nodes
+     */
+    private void calcNeighbors(final int n) {
+        // count the entries of each node, ignoring self-loops
+        int[] start = new int[n + 1];
         for (FEdge edge : edges) {
-            adjacency[edge.getSource().id][edge.getTarget().id] += edge.getProperty(ForceOptions.PRIORITY);
+            int source = edge.getSource().id, target = edge.getTarget().id;
+            if (source != target) {
+                start[source + 1]++;
+                start[target + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
+        }
+        
+        // fill in the entries; they are sorted by neighbor id and edge order by a combined key
+        long[] keys = new long[start[n]];
+        int[] priorities = new int[edges.size()];
+        int[] next = Arrays.copyOf(start, n);
+        int edgeIndex = 0;
+        for (FEdge edge : edges) {
+            int source = edge.getSource().id, target = edge.getTarget().id;
+            if (source != target) {
+                priorities[edgeIndex] = edge.getProperty(ForceOptions.PRIORITY);
+                keys[next[source]++] = ((long) target << Integer.SIZE) | edgeIndex;
+                keys[next[target]++] = ((long) source << Integer.SIZE) | edgeIndex;
+            }
+            edgeIndex++;
+        }
+        
+        // sort each node's entries and merge those referring to the same neighbor
+        neighborStart = new int[n + 1];
+        neighborIds = new int[keys.length];
+        neighborConnections = new int[keys.length];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            neighborStart[i] = size;
+            Arrays.sort(keys, start[i], start[i + 1]);
+            for (int k = start[i]; k < start[i + 1]; k++) {
+                int neighbor = (int) (keys[k] >>> Integer.SIZE);
+                int priority = priorities[(int) keys[k]];
+                if (size > neighborStart[i] && neighborIds[size - 1] == neighbor) {
+                    neighborConnections[size - 1] += priority;
+                } else {
+                    neighborIds[size] = neighbor;
+                    neighborConnections[size] = priority;
+                    size++;
+                }
+            }
         }
+        neighborStart[n] = size;
     }
 
 }
@@ -39,6 +39,10 @@ public abstract class AbstractForceModel {
     private FGraph graph;
     /** upper bound for particle coordinates. */
     private double dispBound;
+    /** the tree for approximating repulsive forces, or {@code null} if forces are computed exactly. */
+    private BarnesHutTree barnesHutTree;
+    /** the priority of each edge of the graph, used for attractive forces in approximation mode. */
+    private double[] edgePriorities;
     
     /** factor by which nodes influence the displacement bound. */
     private static final double DISP_BOUND_FACTOR = 16;
@@ -53,8 +57,11 @@ public abstract class AbstractForceModel {
         this.graph = fgraph;
         this.random = fgraph.getProperty(InternalProperties.RANDOM);
         
-        // calculate the adjacency matrix for the graph
-        fgraph.calcAdjacency();
+        // the adjacency matrix is only needed if forces are computed exactly for all pairs of particles
+        boolean barnesHut = fgraph.getProperty(ForceOptions.BARNES_HUT);
+        if (!barnesHut) {
+            fgraph.calcAdjacency();
+        }
         
         // calculate an upper bound for particle displacement
         dispBound = Math.max(fgraph.getNodes().size() * DISP_BOUND_FACTOR + fgraph.getEdges().size(),
@@ -81,6 +88,19 @@ public abstract class AbstractForceModel {
                 edge.distributeBendpoints();
             }
         }
+        
+        // prepare the approximation of repulsive forces once all particles exist
+        if (barnesHut) {
+            barnesHutTree = new BarnesHutTree(fgraph, fgraph.getProperty(ForceOptions.BARNES_HUT_THETA));
+            edgePriorities = new double[fgraph.getEdges().size()];
+            int index = 0;
+            for (FEdge edge : fgraph.getEdges()) {
+                edgePriorities[index++] = edge.getProperty(ForceOptions.PRIORITY);
+            }
+        } else {
+            barnesHutTree = null;
+            edgePriorities = null;
+        }
     }
     
     /**
@@ -115,12 +135,16 @@ public abstract class AbstractForceModel {
         while (moreIterations(iterations) && !monitor.isCanceled()) {
             
             // calculate attractive and repulsive forces
-            for (FNode v : fgraph.getNodes()) {
-                for (FParticle u : fgraph.getParticles()) {
-                    if (u != v) {
-                        KVector displacement = calcDisplacement(u, v);
-                        if (displacement != null) {
-                            v.getDisplacement().add(displacement);
+            if (barnesHutTree != null) {
+                calcApproximateDisplacements(fgraph);
+            } else {
+                for (FNode v : fgraph.getNodes()) {
+                    for (FParticle u : fgraph.getParticles()) {
+                        if (u != v) {
+                            KVector displacement = calcDisplacement(u, v);
+                            if (displacement != null) {
+                                v.getDisplacement().add(displacement);
+                            }
                         }
                     }
                 }
@@ -137,9 +161,51 @@ public abstract class AbstractForceModel {
             iterationDone();
             iterations++;
         }
+        barnesHutTree = null;
+        edgePriorities = null;
         monitor.done();
     }
     
+    /**
+     * Calculate the displacement of all nodes with repulsive forces approximated by a Barnes-Hut
+     * tree and attractive forces computed along the edges only. Unlike the exact computation,
+     * connected nodes repel each other as well.
+     * 
+     * @param fgraph a force graph
+     */
+    private void calcApproximateDisplacements(final FGraph fgraph) {
+        // repulsive forces between all particles
+        barnesHutTree.rebuild();
+        int nodeCount = fgraph.getNodes().size();
+        for (int i = 0; i < nodeCount; i++) {
+            barnesHutTree.addRepulsion(i, this, random);
+        }
+        
+        // attractive forces along the edges
+        int index = 0;
+        for (FEdge edge : fgraph.getEdges()) {
+            double priority = edgePriorities[index++];
+            FNode source = edge.getSource();
+            FNode target = edge.getTarget();
+            if (source == target) {
+                continue;
+            }
+            
+            avoidSamePosition(random, source, target);
+            KVector sourcePos = source.getPosition();
+            KVector targetPos = target.getPosition();
+            double dx = targetPos.x - sourcePos.x;
+            double dy = targetPos.y - sourcePos.y;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            double d = Math.max(0, length - source.getRadius() - target.getRadius());
+            double scale = attractiveForce(d) * priority / length;
+            source.getDisplacement().x += dx * scale;
+            source.getDisplacement().y += dy * scale;
+            target.getDisplacement().x -= dx * scale;
+            target.getDisplacement().y -= dy * scale;
+        }
+    }
+    
     /**
      * Perform all necessary calculations after a full iteration. Subclasses must call
      * the superclass method first.
@@ -173,6 +239,24 @@ public abstract class AbstractForceModel {
      */
     protected abstract KVector calcDisplacement(FParticle forcer, FParticle forcee);
     
+    /**
+     * Calculate the amount of repulsive force exerted by a particle of unit priority. This is used
+     * instead of {@link #calcDisplacement(FParticle, FParticle)} if repulsive forces are approximated.
+     * 
+     * @param d the distance between the borders of the two particles
+     * @return the amount of force pushing the particles apart
+     */
+    protected abstract double repulsiveForce(double d);
+    
+    /**
+     * Calculate the amount of attractive force exerted along an edge of unit priority. This is used
+     * instead of {@link #calcDisplacement(FParticle, FParticle)} if repulsive forces are approximated.
+     * 
+     * @param d the distance between the borders of the two connected nodes
+     * @return the amount of force pulling the nodes together
+     */
+    protected abstract double attractiveForce(double d);
+    
     /**
      * Avoid having nodes on the same position by moving them a little.
      * 
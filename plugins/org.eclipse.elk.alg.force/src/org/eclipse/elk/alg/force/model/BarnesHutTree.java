@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.elk.alg.force.graph.FGraph;
+import org.eclipse.elk.alg.force.graph.FNode;
+import org.eclipse.elk.alg.force.graph.FParticle;
+import org.eclipse.elk.alg.force.properties.ForceOptions;
+import org.eclipse.elk.core.math.KVector;
+
+/**
+ * A quadtree over the particles of a force graph that is used to approximate repulsive forces as
+ * proposed in
+ * <ul>
+ *   <li>Josh Barnes and Piet Hut, A hierarchical O(N log N) force-calculation algorithm.
+ *     <i>Nature</i> 324, pp. 446-449, 1986.</li>
+ * </ul>
+ * The tree is rebuilt before each iteration. A cell whose extent is small compared to its distance
+ * to a node acts on the node as a single particle located at the cell's center of charge, carrying
+ * the summed priorities of the cell's particles.
+ *
+ * <p>The nodes of the graph are the first particles of the tree, so the particle index of a node is
+ * its index in {@link FGraph#getNodes()}.</p>
+ *
+ * @author agent
+ */
+final class BarnesHutTree {
+
+    /** maximal depth of the tree; particles at (nearly) the same position share a leaf below that. */
+    private static final int MAX_DEPTH = 24;
+    /** number of children of each cell. */
+    private static final int CHILDREN = 4;
+    /** initial number of cells for which space is allocated. */
+    private static final int INITIAL_CELLS = 64;
+
+    /** the accuracy parameter; cells are only approximated if their size is below theta times their distance. */
+    private final double theta;
+    /** all particles of the graph: nodes, labels, and bend points. */
+    private final FParticle[] particles;
+    /** the priority of each particle, which acts as its charge. */
+    private final double[] charges;
+    /** the radius of each particle. */
+    private final double[] radii;
+    /** the x coordinate of each particle at the time the tree was built. */
+    private final double[] xs;
+    /** the y coordinate of each particle at the time the tree was built. */
+    private final double[] ys;
+    /** particle indices, ordered such that the particles of each cell form a contiguous range. */
+    private final int[] order;
+    /** buffer used for partitioning particle ranges. */
+    private final int[] buffer;
+    /** stack of cells used for traversing the tree. */
+    private int[] stack;
+
+    /** the number of cells currently in the tree; cell 0 is the root. */
+    private int cellCount;
+    /** left border of each cell. */
+    private double[] cellMinX;
+    /** top border of each cell. */
+    private double[] cellMinY;
+    /** width and height of each cell. */
+    private double[] cellSize;
+    /** x coordinate of the center of charge of each cell. */
+    private double[] cellX;
+    /** y coordinate of the center of charge of each cell. */
+    private double[] cellY;
+    /** total charge of each cell. */
+    private double[] cellCharge;
+    /** average radius of the particles in each cell. */
+    private double[] cellRadius;
+    /** start of the range of each cell in {@link #order}. */
+    private int[] cellStart;
+    /** end (exclusive) of the range of each cell in {@link #order}. */
+    private int[] cellEnd;
+    /** the children of each cell, {@link #CHILDREN} entries per cell; {@code -1} for absent children. */
+    private int[] cellChildren;
+
+    /**
+     * Creates a tree for the particles of the given graph.
+     *
+     * @param graph a force graph whose particles are not going to change anymore
+     * @param theta the accuracy parameter
+     */
+    BarnesHutTree(final FGraph graph, final double theta) {
+        this.theta = theta;
+
+        int count = graph.getNodes().size() + graph.getLabels().size() + graph.getBendpoints().size();
+        particles = new FParticle[count];
+        charges = new double[count];
+        radii = new double[count];
+        int index = 0;
+        for (FParticle particle : graph.getParticles()) {
+            particles[index] = particle;
+            charges[index] = particle.getProperty(ForceOptions.PRIORITY);
+            radii[index] = particle.getRadius();
+            index++;
+        }
+
+        xs = new double[count];
+        ys = new double[count];
+        order = new int[count];
+        buffer = new int[count];
+        stack = new int[MAX_DEPTH * (CHILDREN - 1) + 1];
+        allocateCells(INITIAL_CELLS);
+    }
+
+    /**
+     * Rebuilds the tree from the current particle positions.
+     */
+    void rebuild() {
+        int count = particles.length;
+        cellCount = 0;
+        if (count == 0) {
+            return;
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            KVector pos = particles[i].getPosition();
+            xs[i] = pos.x;
+            ys[i] = pos.y;
+            order[i] = i;
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            maxX = Math.max(maxX, pos.x);
+            maxY = Math.max(maxY, pos.y);
+        }
+
+        // the root is a square that contains all particles
+        double size = Math.max(maxX - minX, maxY - minY);
+        buildCell(0, count, minX, minY, size, 0);
+    }
+
+    /**
+     * Creates a cell for the given range of {@link #order} and, recursively, its children.
+     *
+     * @param start start of the cell's particle range
+     * @param end end (exclusive) of the cell's particle range
+     * @param minX left border of the cell
+     * @param minY top border of the cell
+     * @param size width and height of the cell
+     * @param depth depth of the cell in the tree
+     * @return the index of the new cell
+     */
+    private int buildCell(final int start, final int end, final double minX, final double minY,
+            final double size, final int depth) {
+
+        if (cellCount == cellStart.length) {
+            allocateCells(2 * cellCount);
+        }
+        int cell = cellCount++;
+        cellMinX[cell] = minX;
+        cellMinY[cell] = minY;
+        cellSize[cell] = size;
+        cellStart[cell] = start;
+        cellEnd[cell] = end;
+
+        // compute the cell's total charge, center of charge, and average radius
+        double charge = 0, weightedX = 0, weightedY = 0, plainX = 0, plainY = 0, radius = 0;
+        for (int i = start; i < end; i++) {
+            int p = order[i];
+            charge += charges[p];
+            weightedX += charges[p] * xs[p];
+            weightedY += charges[p] * ys[p];
+            plainX += xs[p];
+            plainY += ys[p];
+            radius += radii[p];
+        }
+        int count = end - start;
+        cellCharge[cell] = charge;
+        if (charge > 0) {
+            cellX[cell] = weightedX / charge;
+            cellY[cell] = weightedY / charge;
+        } else {
+            cellX[cell] = plainX / count;
+            cellY[cell] = plainY / count;
+        }
+        cellRadius[cell] = radius / count;
+
+        Arrays.fill(cellChildren, CHILDREN * cell, CHILDREN * cell + CHILDREN, -1);
+        if (count > 1 && depth < MAX_DEPTH) {
+            // partition the particle range into the four quadrants of the cell
+            double half = size / 2;
+            double midX = minX + half, midY = minY + half;
+            int[] quadrantEnd = new int[CHILDREN];
+            for (int i = start; i < end; i++) {
+                quadrantEnd[quadrant(order[i], midX, midY)]++;
+            }
+            int[] quadrantStart = new int[CHILDREN];
+            int next = start;
+            for (int q = 0; q < CHILDREN; q++) {
+                quadrantStart[q] = next;
+                next += quadrantEnd[q];
+                quadrantEnd[q] = quadrantStart[q];
+            }
+            for (int i = start; i < end; i++) {
+                int p = order[i];
+                buffer[quadrantEnd[quadrant(p, midX, midY)]++] = p;
+            }
+            System.arraycopy(buffer, start, order, start, count);
+
+            for (int q = 0; q < CHILDREN; q++) {
+                if (quadrantEnd[q] > quadrantStart[q]) {
+                    int child = buildCell(quadrantStart[q], quadrantEnd[q],
+                            (q & 1) == 0 ? minX : midX, (q & 2) == 0 ? minY : midY, half, depth + 1);
+                    cellChildren[CHILDREN * cell + q] = child;
+                }
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Determines the quadrant of a cell the given particle lies in.
+     *
+     * @param p a particle index
+     * @param midX horizontal center of the cell
+     * @param midY vertical center of the cell
+     * @return the quadrant index; bit 0 is set for the right half, bit 1 for the bottom half
+     */
+    private int quadrant(final int p, final double midX, final double midY) {
+        return (xs[p] < midX ? 0 : 1) | (ys[p] < midY ? 0 : 2);
+    }
+
+    /**
+     * Adds the repulsive forces exerted by all other particles on the given node to the node's
+     * displacement.
+     *
+     * @param nodeIndex the particle index of a node
+     * @param model the force model that determines the amount of repulsive force
+     * @param random the random number generator used to separate particles at the same position
+     */
+    void addRepulsion(final int nodeIndex, final AbstractForceModel model, final Random random) {
+        if (cellCount == 0) {
+            return;
+        }
+        FNode node = (FNode) particles[nodeIndex];
+        KVector nodePos = node.getPosition();
+        KVector displacement = node.getDisplacement();
+        double nodeRadius = radii[nodeIndex];
+
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            int cell = stack[--stackSize];
+
+            double dx = nodePos.x - cellX[cell];
+            double dy = nodePos.y - cellY[cell];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            boolean inside = nodePos.x >= cellMinX[cell] && nodePos.x <= cellMinX[cell] + cellSize[cell]
+                    && nodePos.y >= cellMinY[cell] && nodePos.y <= cellMinY[cell] + cellSize[cell];
+
+            if (!inside && length > 0 && cellSize[cell] < theta * length) {
+                // the cell is far enough away to act as a single particle
+                double d = Math.max(0, length - nodeRadius - cellRadius[cell]);
+                double force = model.repulsiveForce(d) * cellCharge[cell];
+                displacement.x += dx * force / length;
+                displacement.y += dy * force / length;
+
+            } else if (cellChildren[CHILDREN * cell] < 0 && cellChildren[CHILDREN * cell + 1] < 0
+                    && cellChildren[CHILDREN * cell + 2] < 0 && cellChildren[CHILDREN * cell + 3] < 0) {
+                // a leaf: compute the forces of its particles exactly
+                for (int i = cellStart[cell]; i < cellEnd[cell]; i++) {
+                    int p = order[i];
+                    if (p != nodeIndex) {
+                        addExactRepulsion(node, particles[p], nodeRadius + radii[p], charges[p], model, random);
+                    }
+                }
+
+            } else {
+                for (int q = CHILDREN - 1; q >= 0; q--) {
+                    int child = cellChildren[CHILDREN * cell + q];
+                    if (child >= 0) {
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, 2 * stack.length);
+                        }
+                        stack[stackSize++] = child;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the repulsive force exerted by the given particle on the given node to the node's
+     * displacement.
+     *
+     * @param node the node
+     * @param forcer the particle exerting the force
+     * @param radiusSum the sum of the radii of both particles
+     * @param charge the charge of the forcer
+     * @param model the force model that determines the amount of repulsive force
+     * @param random the random number generator used to separate particles at the same position
+     */
+    private static void addExactRepulsion(final FNode node, final FParticle forcer, final double radiusSum,
+            final double charge, final AbstractForceModel model, final Random random) {
+
+        AbstractForceModel.avoidSamePosition(random, forcer, node);
+        KVector nodePos = node.getPosition();
+        KVector forcerPos = forcer.getPosition();
+        double dx = nodePos.x - forcerPos.x;
+        double dy = nodePos.y - forcerPos.y;
+        double length = Math.sqrt(dx * dx + dy * dy);
+        double d = Math.max(0, length - radiusSum);
+        double force = model.repulsiveForce(d) * charge;
+        KVector displacement = node.getDisplacement();
+        displacement.x += dx * force / length;
+        displacement.y += dy * force / length;
+    }
+
+    /**
+     * Allocates space for the given number of cells, keeping the existing cells.
+     *
+     * @param capacity the new capacity
+     */
+    private void allocateCells(final int capacity) {
+        if (cellStart == null) {
+            cellMinX = new double[capacity];
+            cellMinY = new double[capacity];
+            cellSize = new double[capacity];
+            cellX = new double[capacity];
+            cellY = new double[capacity];
+            cellCharge = new double[capacity];
+            cellRadius = new double[capacity];
+            cellStart = new int[capacity];
+            cellEnd = new int[capacity];
+            cellChildren = new int[CHILDREN * capacity];
+        } else {
+            cellMinX = Arrays.copyOf(cellMinX, capacity);
+            cellMinY = Arrays.copyOf(cellMinY, capacity);
+            cellSize = Arrays.copyOf(cellSize, capacity);
+            cellX = Arrays.copyOf(cellX, capacity);
+            cellY = Arrays.copyOf(cellY, capacity);
+            cellCharge = Arrays.copyOf(cellCharge, capacity);
+            cellRadius = Arrays.copyOf(cellRadius, capacity);
+            cellStart = Arrays.copyOf(cellStart, capacity);
+            cellEnd = Arrays.copyOf(cellEnd, capacity);
+            cellChildren = Arrays.copyOf(cellChildren, CHILDREN * capacity);
+        }
+    }
+
+}
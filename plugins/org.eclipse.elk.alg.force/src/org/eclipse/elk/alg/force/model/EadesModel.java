@@ -80,6 +80,22 @@ public final class EadesModel extends AbstractForceModel {
         return displacement;
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double repulsiveForce(final double d) {
+        return repulsive(d, repulsionFactor);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double attractiveForce(final double d) {
+        return attractive(d, springLength);
+    }
+    
     /**
      * Compute repulsion force between the forcee and the forcer.
      *
@@ -96,6 +96,22 @@ public final class FruchtermanReingoldModel extends AbstractForceModel {
         return displacement;
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double repulsiveForce(final double d) {
+        return repulsive(d, k) * temperature;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double attractiveForce(final double d) {
+        return attractive(d, k) * temperature;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -67,7 +67,7 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     /** command passed to the layouter. */
     private Command command = Command.INVALID;
     /** the Graphviz process pool. */
-    private GraphvizTool graphvizTool;
+    private GraphvizToolPool toolPool;
     /** the Graphviz Dot format handler. */
     private DotResourceSetProvider dotResourceSetProvider;
     /** the call number for the current execution. */
@@ -81,7 +81,7 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     @Override
     public void initialize(final String parameter) {
         command = Command.valueOf(parameter);
-        graphvizTool = new GraphvizTool(command);
+        toolPool = GraphvizToolPool.getShared(command);
         
         // the dot format handler is indirectly fetched in order to ensure proper injection (if we're
         // inside Eclipse, use the GraphFormatsService to retrieve the handler; otherwise, use an
@@ -94,7 +94,8 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
      */
     @Override
     public void dispose() {
-        graphvizTool.cleanup(Cleanup.STOP);
+        // the Graphviz processes are shared with other provider instances and stopped through
+        // GraphvizToolPool.stopShared()
     }
     
     /**
@@ -127,9 +128,30 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
         boolean debugMode = parentNode.getData(KShapeLayout.class).getProperty(CoreOptions.DEBUG_MODE);
         myCallNo = ++serialCallNo;
 
-        // start the graphviz process, or retrieve the previously used process
-        graphvizTool.initialize();
+        // retrieve a running Graphviz process from the pool, starting a new one if necessary
+        GraphvizTool graphvizTool = toolPool.acquire();
+        boolean reuseProcess =
+                GraphvizLayouterPreferenceStoreAccess.getUISaveBoolean(
+                        PREF_GRAPHVIZ_REUSE_PROCESS, REUSE_PROCESS_DEFAULT);
+        try {
+            layout(parentNode, graphvizTool, debugMode, progressMonitor);
+        } finally {
+            toolPool.release(graphvizTool, reuseProcess);
+            progressMonitor.done();
+        }
+    }
 
+    /**
+     * Performs the layout of the given node's content with the given Graphviz tool.
+     * 
+     * @param parentNode the parent node whose content shall be laid out
+     * @param graphvizTool the initialized Graphviz tool to use
+     * @param debugMode whether debug mode is active
+     * @param progressMonitor a monitor to which progress is reported
+     */
+    private void layout(final KNode parentNode, final GraphvizTool graphvizTool,
+            final boolean debugMode, final IElkProgressMonitor progressMonitor) {
+        
         // create an Xtext resource set for parsing and serialization
         XtextResourceSet resourceSet = (XtextResourceSet) dotResourceSetProvider.createResourceSet();
         
@@ -144,26 +166,21 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
         
         dotExporter.transform(transData);
         GraphvizModel graphvizInput = transData.getTargetGraphs().get(0);
-        writeDotGraph(graphvizInput, progressMonitor.subTask(1), debugMode, resourceSet);
+        writeDotGraph(graphvizTool, graphvizInput, progressMonitor.subTask(1), debugMode,
+                resourceSet);
 
-        try {
-            // read Graphviz output and apply layout information to the KGraph
-            GraphvizModel graphvizOutput = readDotGraph(progressMonitor.subTask(1),
-                    debugMode, resourceSet);
-            transData.getTargetGraphs().set(0, graphvizOutput);
-            dotExporter.transferLayout(transData);
-        } finally {
-            boolean reuseProcess =
-                    GraphvizLayouterPreferenceStoreAccess.getUISaveBoolean(
-                            PREF_GRAPHVIZ_REUSE_PROCESS, REUSE_PROCESS_DEFAULT);
-            graphvizTool.cleanup(reuseProcess ? Cleanup.NORMAL : Cleanup.STOP);
-            progressMonitor.done();
-        }
+        // read Graphviz output and apply layout information to the KGraph
+        GraphvizModel graphvizOutput = readDotGraph(graphvizTool, progressMonitor.subTask(1),
+                debugMode, resourceSet);
+        transData.getTargetGraphs().set(0, graphvizOutput);
+        dotExporter.transferLayout(transData);
     }
 
     /**
      * Writes a serialized version of the Graphviz model to the given output stream.
      * 
+     * @param graphvizTool
+     *            the Graphviz tool to write to
      * @param graphvizModel
      *            Graphviz model to serialize
      * @param monitor
@@ -173,7 +190,7 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
      * @param resourceSet
      *            the resource set for serialization
      */
-    private void writeDotGraph(final GraphvizModel graphvizModel,
+    private void writeDotGraph(final GraphvizTool graphvizTool, final GraphvizModel graphvizModel,
             final IElkProgressMonitor monitor, final boolean debugMode,
             final XtextResourceSet resourceSet) {
         monitor.begin("Serialize model", 1);
@@ -231,6 +248,8 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     /**
      * Reads and parses a serialized Graphviz model.
      * 
+     * @param graphvizTool
+     *            the Graphviz tool to read from
      * @param monitor
      *            a monitor to which progress is reported
      * @param debugMode
@@ -239,7 +258,8 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
      *            the resoure set for parsing
      * @return an instance of the parsed graphviz model
      */
-    private GraphvizModel readDotGraph(final IElkProgressMonitor monitor,
+    private GraphvizModel readDotGraph(final GraphvizTool graphvizTool,
+            final IElkProgressMonitor monitor,
             final boolean debugMode, final XtextResourceSet resourceSet) {
         monitor.begin("Parse output", 1);
         InputStream inputStream = graphvizTool.output();
@@ -18,6 +18,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.elk.alg.graphviz.dot.transform.Command;
 import org.eclipse.elk.alg.graphviz.layouter.preferences.GraphvizLayouterPreferenceStoreAccess;
@@ -82,6 +83,10 @@ public class GraphvizTool {
     private Process process;
     /** the command that is used to create the process. */
     private Command command;
+    /** the executable to start, or {@code null} if the dot executable shall be looked up. */
+    private final String executable;
+    /** the timeout in milliseconds, or a negative value if the configured timeout shall be used. */
+    private final int timeout;
     /** the watcher thread used to cancel a blocked read operation. */
     private Watchdog watchdog;
     /** the input stream given by the Graphviz process. */
@@ -154,10 +159,26 @@ public class GraphvizTool {
      * @param thecommand a Graphviz command
      */
     public GraphvizTool(final Command thecommand) {
+        this(thecommand, null, -1);
+    }
+
+    /**
+     * Create a Graphviz tool instance for the given command that runs the given executable. This
+     * allows to run a specific Graphviz installation, or a stub for testing purposes.
+     * 
+     * @param thecommand a Graphviz command
+     * @param theexecutable path of the executable to start, or {@code null} if the dot executable
+     *          shall be looked up as usual
+     * @param thetimeout timeout for waiting for Graphviz to give some output, in milliseconds, or a
+     *          negative value if the configured timeout shall be used
+     */
+    public GraphvizTool(final Command thecommand, final String theexecutable, final int thetimeout) {
         if (thecommand == Command.INVALID) {
             throw new IllegalArgumentException("Invalid Graphviz command.");
         }
         this.command = thecommand;
+        this.executable = theexecutable;
+        this.timeout = thetimeout;
     }
 
     /**
@@ -184,8 +205,13 @@ public class GraphvizTool {
             watchdog.start();
         }
 
+        if (process != null && !process.isAlive()) {
+            // the process has crashed or was killed after a timeout, so start a new one
+            process = null;
+        }
+
         if (process == null) {
-            String dotExecutable = getDotExecutable();
+            String dotExecutable = executable != null ? executable : getDotExecutable();
             
             // assemble the final list of command-line arguments
             List<String> args = Lists.newArrayList(
@@ -208,6 +234,15 @@ public class GraphvizTool {
         }
     }
 
+    /**
+     * Checks whether the Graphviz process has been started and is still running.
+     * 
+     * @return {@code true} if the process can take further graphs
+     */
+    public synchronized boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
     /**
      * Returns the dot executable path. If it is not found, the user is asked to provide it. Calling
      * this method is equivalent to calling {@code GraphvizTool.getDotExecutable(true)}.
@@ -341,8 +376,10 @@ public class GraphvizTool {
     
     /** maximal number of characters to read from error stream. */
     private static final int MAX_ERROR_OUTPUT = 512;
-    /** time to wait before checking process errors. */
+    /** maximal time to wait for the process to terminate before checking process errors. */
     private static final int PROC_ERROR_TIME = 500;
+    /** size of the buffer used to read the error stream. */
+    private static final int ERROR_BUFFER_SIZE = 256;
     
     /**
      * Clean up, optionally preparing the tool for the next use.
@@ -354,19 +391,25 @@ public class GraphvizTool {
         if (process != null) {
             InputStream errorStream = process.getErrorStream();
             try {
+                byte[] buffer = new byte[ERROR_BUFFER_SIZE];
                 if (c == Cleanup.ERROR && graphvizStream != null) {
-                    // wait a bit so the process can either terminate or generate error
-                    Thread.sleep(PROC_ERROR_TIME);
-                    // read the error stream to display a meaningful error message
+                    // wait until the process terminates, but not longer than necessary
+                    boolean terminated = process.waitFor(PROC_ERROR_TIME, TimeUnit.MILLISECONDS);
+                    // read the error stream to display a meaningful error message; unless the
+                    // process has terminated, only read what is there to avoid blocking
                     error = new StringBuilder();
-                    int ch;
-                    do {
-                        ch = errorStream.read();
-                        if (ch >= 0) {
-                            error.append((char) ch);
+                    while (error.length() < MAX_ERROR_OUTPUT
+                            && (terminated || errorStream.available() > 0)) {
+                        int count = errorStream.read(buffer, 0,
+                                Math.min(buffer.length, MAX_ERROR_OUTPUT - error.length()));
+                        if (count < 0) {
+                            break;
+                        }
+                        for (int i = 0; i < count; i++) {
+                            error.append((char) buffer[i]);
                         }
-                    } while (error.length() < MAX_ERROR_OUTPUT && ch >= 0);
-                    if (error.length() == 0) {
+                    }
+                    if (error.length() == 0 && terminated) {
                         // no error message -- check for exit value
                         int exitValue = process.exitValue();
                         if (exitValue != 0) {
@@ -375,8 +418,10 @@ public class GraphvizTool {
                     }
                 }
                 // if error stream is not empty, the process may not terminate
-                while (errorStream.available() > 0) {
-                    errorStream.read();
+                int available = errorStream.available();
+                while (available > 0) {
+                    errorStream.read(buffer, 0, Math.min(buffer.length, available));
+                    available = errorStream.available();
                 }
             } catch (Exception ex) {
                 // ignore exception
@@ -558,18 +603,20 @@ public class GraphvizTool {
                 }
                 
                 // retrieve the current timeout value
-                int timeout = PROCESS_DEF_TIMEOUT;
-                if (EclipseRuntimeDetector.isEclipseRunning()) {
+                int currentTimeout = PROCESS_DEF_TIMEOUT;
+                if (timeout >= 0) {
+                    currentTimeout = timeout;
+                } else if (EclipseRuntimeDetector.isEclipseRunning()) {
                     int timeoutPreference =
                             GraphvizLayouterPreferenceStoreAccess.getUISaveInt(PREF_TIMEOUT);
                     if (timeoutPreference >= PROCESS_MIN_TIMEOUT) {
-                        timeout = timeoutPreference;
+                        currentTimeout = timeoutPreference;
                     }
                 }
                 
                 boolean interrupted = false;
                 try {
-                    Thread.sleep(timeout);
+                    Thread.sleep(currentTimeout);
                 }  catch (InterruptedException ex) {
                     // this means the main thread has done a cleanup before the timeout occurred
                     interrupted = true;
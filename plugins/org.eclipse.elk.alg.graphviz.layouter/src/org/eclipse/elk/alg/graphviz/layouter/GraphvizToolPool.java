@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.layouter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.elk.alg.graphviz.dot.transform.Command;
+import org.eclipse.elk.alg.graphviz.layouter.GraphvizTool.Cleanup;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A pool of Graphviz tools whose processes are kept running between layout runs. Each process
+ * handles one graph at a time, but can handle any number of graphs one after another, so the cost
+ * of starting processes is only paid once per process. The number of tools that are in use at the
+ * same time is bounded; {@link #acquire()} blocks until a tool becomes available. Processes that
+ * have crashed or were killed after a timeout are replaced by new ones.
+ *
+ * <p>All of the instance methods in this class are thread-safe.</p>
+ *
+ * @author agent
+ */
+public final class GraphvizToolPool {
+
+    /** the pools shared by all Graphviz layout providers, one for each command. */
+    private static final Map<Command, GraphvizToolPool> SHARED_POOLS = Maps.newEnumMap(Command.class);
+
+    /** the command of the pooled tools. */
+    private final Command command;
+    /** the executable to start, or {@code null} if the dot executable shall be looked up. */
+    private final String executable;
+    /** the timeout in milliseconds, or a negative value if the configured timeout shall be used. */
+    private final int timeout;
+    /** permits for tools in use, which bound the number of concurrently running layouts. */
+    private final Semaphore permits;
+    /** tools whose processes are waiting for the next graph. */
+    private final ConcurrentLinkedDeque<GraphvizTool> idleTools = new ConcurrentLinkedDeque<GraphvizTool>();
+    /** whether the pool has been stopped. */
+    private volatile boolean stopped = false;
+
+    /**
+     * Create a pool of Graphviz tools.
+     *
+     * @param thecommand the Graphviz command of the tools
+     * @param theexecutable path of the executable to start, or {@code null} if the dot executable
+     *          shall be looked up as usual
+     * @param maxProcesses the maximal number of tools that may be in use at the same time
+     * @param thetimeout timeout for waiting for Graphviz to give some output, in milliseconds, or a
+     *          negative value if the configured timeout shall be used
+     */
+    public GraphvizToolPool(final Command thecommand, final String theexecutable,
+            final int maxProcesses, final int thetimeout) {
+
+        if (maxProcesses <= 0) {
+            throw new IllegalArgumentException("The number of processes must be positive.");
+        }
+        this.command = thecommand;
+        this.executable = theexecutable;
+        this.timeout = thetimeout;
+        this.permits = new Semaphore(maxProcesses, true);
+    }
+
+    /**
+     * Returns the pool shared by all Graphviz layout providers for the given command. The pool
+     * allows one process per available processor.
+     *
+     * @param command a Graphviz command
+     * @return the shared pool for that command
+     */
+    public static GraphvizToolPool getShared(final Command command) {
+        synchronized (SHARED_POOLS) {
+            GraphvizToolPool pool = SHARED_POOLS.get(command);
+            if (pool == null) {
+                pool = new GraphvizToolPool(command, null,
+                        Runtime.getRuntime().availableProcessors(), -1);
+                SHARED_POOLS.put(command, pool);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Stop all shared pools, terminating their idle processes. Tools that are currently in use are
+     * stopped when they are released. Subsequent calls of {@link #getShared(Command)} return new
+     * pools, which is necessary for changes of the Graphviz configuration to take effect.
+     */
+    public static void stopShared() {
+        synchronized (SHARED_POOLS) {
+            for (GraphvizToolPool pool : SHARED_POOLS.values()) {
+                pool.stop();
+            }
+            SHARED_POOLS.clear();
+        }
+    }
+
+    /**
+     * Fetch a tool with a running process, waiting until the number of tools in use permits
+     * another one. Every tool fetched from this pool must be handed back with
+     * {@link #release(GraphvizTool, boolean)}.
+     *
+     * @return an initialized Graphviz tool
+     */
+    public GraphvizTool acquire() {
+        permits.acquireUninterruptibly();
+        try {
+            GraphvizTool tool = idleTools.pollLast();
+            while (tool != null && !tool.isAlive()) {
+                // the process has died while waiting, so get rid of the tool
+                tool.cleanup(Cleanup.STOP);
+                tool = idleTools.pollLast();
+            }
+            if (tool == null) {
+                tool = new GraphvizTool(command, executable, timeout);
+            }
+            tool.initialize();
+            return tool;
+        } catch (RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Hand back a tool fetched from this pool. If the tool's process is still running and the
+     * pool has not been stopped, the process is kept for the next graph; otherwise it is
+     * terminated.
+     *
+     * @param tool a tool previously returned by {@link #acquire()}
+     * @param reuse whether the tool's process may be reused
+     */
+    public void release(final GraphvizTool tool, final boolean reuse) {
+        try {
+            if (reuse && !stopped && tool.isAlive()) {
+                tool.cleanup(Cleanup.NORMAL);
+                idleTools.addLast(tool);
+                if (stopped && idleTools.remove(tool)) {
+                    // the pool was stopped concurrently
+                    tool.cleanup(Cleanup.STOP);
+                }
+            } else {
+                tool.cleanup(Cleanup.STOP);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the number of tools whose processes are waiting for the next graph.
+     *
+     * @return the number of idle tools
+     */
+    public int getIdleCount() {
+        return idleTools.size();
+    }
+
+    /**
+     * Stop the pool, terminating all idle processes. Tools that are currently in use are stopped
+     * when they are released.
+     */
+    public void stop() {
+        stopped = true;
+        GraphvizTool tool = idleTools.pollLast();
+        while (tool != null) {
+            tool.cleanup(Cleanup.STOP);
+            tool = idleTools.pollLast();
+        }
+    }
+
+}
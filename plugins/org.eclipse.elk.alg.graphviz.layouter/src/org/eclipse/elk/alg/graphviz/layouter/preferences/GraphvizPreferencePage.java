@@ -12,6 +12,7 @@ package org.eclipse.elk.alg.graphviz.layouter.preferences;
 
 import org.eclipse.elk.alg.graphviz.layouter.GraphvizLayoutProvider;
 import org.eclipse.elk.alg.graphviz.layouter.GraphvizTool;
+import org.eclipse.elk.alg.graphviz.layouter.GraphvizToolPool;
 import org.eclipse.elk.core.data.LayoutAlgorithmData;
 import org.eclipse.elk.core.data.LayoutMetaDataService;
 import org.eclipse.jface.preference.BooleanFieldEditor;
@@ -84,7 +85,8 @@ public class GraphvizPreferencePage extends FieldEditorPreferencePage implements
      */
     @Override
     public boolean performOk() {
-        // dispose all cached Graphviz instances to ensure creation of new processes
+        // dispose all cached Graphviz instances and processes to ensure creation of new processes
+        GraphvizToolPool.stopShared();
         for (LayoutAlgorithmData data : LayoutMetaDataService.getInstance().getAlgorithmData()) {
             if ("Graphviz".equals(data.getBundleName())) {
                 data.getInstancePool().clear();
@@ -52,7 +52,8 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             "org.eclipse.elk.layered.contentAlignment",
             CONTENT_ALIGNMENT_DEFAULT,
             null,
-            null);
+            null,
+            EnumSet::copyOf);
   
   /**
    * Default value for {@link #EDGE_CENTER_LABEL_PLACEMENT_STRATEGY}.
@@ -210,6 +211,23 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             null,
             null);
   
+  /**
+   * Default value for {@link #PARALLEL_COMPONENTS}.
+   */
+  private final static boolean PARALLEL_COMPONENTS_DEFAULT = false;
+  
+  /**
+   * Whether the connected components of a graph are laid out in parallel. Each component is
+   * processed by its own set of phases and intermediate processors on a fork-join pool, and
+   * draws random numbers from its own generator seeded from the graph's random seed. The
+   * result is deterministic, but may differ from sequential component layout.
+   */
+  public final static IProperty<Boolean> PARALLEL_COMPONENTS = new Property<Boolean>(
+            "org.eclipse.elk.layered.parallelComponents",
+            PARALLEL_COMPONENTS_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #CYCLE_BREAKING_STRATEGY}.
    */
@@ -323,6 +341,22 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR_LOWER_BOUND,
             null);
   
+  /**
+   * Default value for {@link #LAYERING_MIN_WIDTH_PARALLEL}.
+   */
+  private final static boolean LAYERING_MIN_WIDTH_PARALLEL_DEFAULT = false;
+  
+  /**
+   * Whether the layerings that MinWidth computes for different parameter values are computed
+   * concurrently. This only has an effect if several parameter values are tried. The result is
+   * the same as with sequential computation.
+   */
+  public final static IProperty<Boolean> LAYERING_MIN_WIDTH_PARALLEL = new Property<Boolean>(
+            "org.eclipse.elk.layered.layering.minWidth.parallel",
+            LAYERING_MIN_WIDTH_PARALLEL_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #LAYERING_NODE_PROMOTION_STRATEGY}.
    */
@@ -415,6 +449,22 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             null,
             null);
   
+  /**
+   * Default value for {@link #CROSSING_MINIMIZATION_PARALLEL}.
+   */
+  private final static boolean CROSSING_MINIMIZATION_PARALLEL_DEFAULT = false;
+  
+  /**
+   * Whether the runs of the layer sweep crossing minimizer are executed concurrently. Each
+   * run then uses its own randomizer and starts from the initial node order, so the result
+   * does not depend on the number of threads, but may differ from sequential execution.
+   */
+  public final static IProperty<Boolean> CROSSING_MINIMIZATION_PARALLEL = new Property<Boolean>(
+            "org.eclipse.elk.layered.crossingMinimization.parallel",
+            CROSSING_MINIMIZATION_PARALLEL_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #NODE_PLACEMENT_STRATEGY}.
    */
@@ -458,6 +508,21 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             null,
             null);
   
+  /**
+   * Default value for {@link #NODE_PLACEMENT_BK_PARALLEL}.
+   */
+  private final static boolean NODE_PLACEMENT_BK_PARALLEL_DEFAULT = false;
+  
+  /**
+   * Whether the Brandes Koepf node placer computes its alignments concurrently. The result is
+   * the same as with sequential computation.
+   */
+  public final static IProperty<Boolean> NODE_PLACEMENT_BK_PARALLEL = new Property<Boolean>(
+            "org.eclipse.elk.layered.nodePlacement.bk.parallel",
+            NODE_PLACEMENT_BK_PARALLEL_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #NODE_PLACEMENT_LINEAR_SEGMENTS_DEFLECTION_DAMPENING}.
    */
@@ -502,6 +567,23 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
             null,
             null);
   
+  /**
+   * Default value for {@link #EDGE_ROUTING_PARALLEL}.
+   */
+  private final static boolean EDGE_ROUTING_PARALLEL_DEFAULT = false;
+  
+  /**
+   * Whether the orthogonal edge router assigns routing slots to the edges between different
+   * pairs of layers concurrently. Each pair of layers then uses its own randomizer to break
+   * cycles, so the result does not depend on the number of threads, but may differ from
+   * sequential execution.
+   */
+  public final static IProperty<Boolean> EDGE_ROUTING_PARALLEL = new Property<Boolean>(
+            "org.eclipse.elk.layered.edgeRouting.parallel",
+            EDGE_ROUTING_PARALLEL_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #SPACING_EDGE_NODE_SPACING_FACTOR}.
    */
@@ -676,6 +758,11 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
    */
   private final static LayeringStrategy SAUSAGE_FOLDING_DEP_LAYERING_STRATEGY = LayeringStrategy.LONGEST_PATH;
   
+  /**
+   * Required value for dependency between {@link #PARALLEL_COMPONENTS} and {@link #SEPARATE_CONNECTED_COMPONENTS}.
+   */
+  private final static boolean PARALLEL_COMPONENTS_DEP_SEPARATE_CONNECTED_COMPONENTS = true;
+  
   /**
    * Required value for dependency between {@link #LAYERING_MIN_WIDTH_UPPER_BOUND_ON_WIDTH} and {@link #LAYERING_STRATEGY}.
    */
@@ -686,11 +773,21 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
    */
   private final static LayeringStrategy LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR_DEP_LAYERING_STRATEGY = LayeringStrategy.EXP_MIN_WIDTH;
   
+  /**
+   * Required value for dependency between {@link #LAYERING_MIN_WIDTH_PARALLEL} and {@link #LAYERING_STRATEGY}.
+   */
+  private final static LayeringStrategy LAYERING_MIN_WIDTH_PARALLEL_DEP_LAYERING_STRATEGY = LayeringStrategy.EXP_MIN_WIDTH;
+  
   /**
    * Required value for dependency between {@link #LAYERING_COFFMAN_GRAHAM_LAYER_BOUND} and {@link #LAYERING_STRATEGY}.
    */
   private final static LayeringStrategy LAYERING_COFFMAN_GRAHAM_LAYER_BOUND_DEP_LAYERING_STRATEGY = LayeringStrategy.COFFMAN_GRAHAM;
   
+  /**
+   * Required value for dependency between {@link #CROSSING_MINIMIZATION_PARALLEL} and {@link #CROSSING_MINIMIZATION_STRATEGY}.
+   */
+  private final static CrossingMinimizationStrategy CROSSING_MINIMIZATION_PARALLEL_DEP_CROSSING_MINIMIZATION_STRATEGY = CrossingMinimizationStrategy.LAYER_SWEEP;
+  
   /**
    * Required value for dependency between {@link #NODE_PLACEMENT_BK_EDGE_STRAIGHTENING} and {@link #NODE_PLACEMENT_STRATEGY}.
    */
@@ -701,6 +798,11 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
    */
   private final static NodePlacementStrategy NODE_PLACEMENT_BK_FIXED_ALIGNMENT_DEP_NODE_PLACEMENT_STRATEGY = NodePlacementStrategy.BRANDES_KOEPF;
   
+  /**
+   * Required value for dependency between {@link #NODE_PLACEMENT_BK_PARALLEL} and {@link #NODE_PLACEMENT_STRATEGY}.
+   */
+  private final static NodePlacementStrategy NODE_PLACEMENT_BK_PARALLEL_DEP_NODE_PLACEMENT_STRATEGY = NodePlacementStrategy.BRANDES_KOEPF;
+  
   /**
    * Required value for dependency between {@link #NODE_PLACEMENT_LINEAR_SEGMENTS_DEFLECTION_DAMPENING} and {@link #NODE_PLACEMENT_STRATEGY}.
    */
@@ -716,6 +818,11 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
    */
   private final static EdgeRouting EDGE_ROUTING_SLOPPY_SPLINE_ROUTING_DEP_EDGE_ROUTING = EdgeRouting.SPLINES;
   
+  /**
+   * Required value for dependency between {@link #EDGE_ROUTING_PARALLEL} and {@link #EDGE_ROUTING}.
+   */
+  private final static EdgeRouting EDGE_ROUTING_PARALLEL_DEP_EDGE_ROUTING = EdgeRouting.ORTHOGONAL;
+  
   /**
    * Required value for dependency between {@link #COMPACTION_CONNECTED_COMPONENTS} and {@link #SEPARATE_CONNECTED_COMPONENTS}.
    */
@@ -906,6 +1013,24 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
         LayoutOptionData.Visibility.ADVANCED
         , "de.cau.cs.kieler.klay.layered.northOrSouthPort"
     ));
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.layered.parallelComponents",
+        "",
+        "Parallel Component Layout",
+        "Whether the connected components of a graph are laid out in parallel. Each component is processed by its own set of phases and intermediate processors on a fork-join pool, and draws random numbers from its own generator seeded from the graph\'s random seed. The result is deterministic, but may differ from sequential component layout.",
+        PARALLEL_COMPONENTS_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.layered.parallelComponents",
+        "org.eclipse.elk.separateConnectedComponents",
+        PARALLEL_COMPONENTS_DEP_SEPARATE_CONNECTED_COMPONENTS
+    );
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layered.cycleBreaking.strategy",
         "cycleBreaking",
@@ -1014,6 +1139,24 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
         "org.eclipse.elk.layered.layering.strategy",
         LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR_DEP_LAYERING_STRATEGY
     );
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.layered.layering.minWidth.parallel",
+        "layering.minWidth",
+        "Parallel Layerings [MinWidth Layerer]",
+        "Whether the layerings that MinWidth computes for different parameter values are computed concurrently. This only has an effect if several parameter values are tried. The result is the same as with sequential computation.",
+        LAYERING_MIN_WIDTH_PARALLEL_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.layered.layering.minWidth.parallel",
+        "org.eclipse.elk.layered.layering.strategy",
+        LAYERING_MIN_WIDTH_PARALLEL_DEP_LAYERING_STRATEGY
+    );
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layered.layering.nodePromotion.strategy",
         "layering.nodePromotion",
@@ -1106,6 +1249,24 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
         EnumSet.of(LayoutOptionData.Target.PARENTS),
         LayoutOptionData.Visibility.ADVANCED
     ));
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.layered.crossingMinimization.parallel",
+        "crossingMinimization",
+        "Parallel Crossing Minimization Runs",
+        "Whether the runs of the layer sweep crossing minimizer are executed concurrently. Each run then uses its own randomizer and starts from the initial node order, so the result does not depend on the number of threads, but may differ from sequential execution.",
+        CROSSING_MINIMIZATION_PARALLEL_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.layered.crossingMinimization.parallel",
+        "org.eclipse.elk.layered.crossingMinimization.strategy",
+        CROSSING_MINIMIZATION_PARALLEL_DEP_CROSSING_MINIMIZATION_STRATEGY
+    );
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layered.nodePlacement.strategy",
         "nodePlacement",
@@ -1158,6 +1319,24 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
         "org.eclipse.elk.layered.nodePlacement.strategy",
         NODE_PLACEMENT_BK_FIXED_ALIGNMENT_DEP_NODE_PLACEMENT_STRATEGY
     );
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.layered.nodePlacement.bk.parallel",
+        "nodePlacement.bk",
+        "Parallel Alignments",
+        "Whether the Brandes Koepf node placer computes its alignments concurrently. The result is the same as with sequential computation.",
+        NODE_PLACEMENT_BK_PARALLEL_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.layered.nodePlacement.bk.parallel",
+        "org.eclipse.elk.layered.nodePlacement.strategy",
+        NODE_PLACEMENT_BK_PARALLEL_DEP_NODE_PLACEMENT_STRATEGY
+    );
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layered.nodePlacement.linearSegments.deflectionDampening",
         "nodePlacement.linearSegments",
@@ -1214,6 +1393,24 @@ public class LayeredMetaDataProvider implements ILayoutMetaDataProvider {
         "org.eclipse.elk.edgeRouting",
         EDGE_ROUTING_SLOPPY_SPLINE_ROUTING_DEP_EDGE_ROUTING
     );
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.layered.edgeRouting.parallel",
+        "edgeRouting",
+        "Parallel Orthogonal Routing",
+        "Whether the orthogonal edge router assigns routing slots to the edges between different pairs of layers concurrently. Each pair of layers then uses its own randomizer to break cycles, so the result does not depend on the number of threads, but may differ from sequential execution.",
+        EDGE_ROUTING_PARALLEL_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
+    registry.addDependency(
+        "org.eclipse.elk.layered.edgeRouting.parallel",
+        "org.eclipse.elk.edgeRouting",
+        EDGE_ROUTING_PARALLEL_DEP_EDGE_ROUTING
+    );
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layered.spacing.edgeNodeSpacingFactor",
         "spacing",
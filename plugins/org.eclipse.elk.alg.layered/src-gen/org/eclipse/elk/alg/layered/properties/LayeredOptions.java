@@ -428,6 +428,11 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
    */
   public final static IProperty<Float> NODE_SIZE_MIN_HEIGHT = CoreOptions.NODE_SIZE_MIN_HEIGHT;
   
+  /**
+   * Property constant to access Parallel Node Sizing from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> NODE_SIZE_PARALLEL = CoreOptions.NODE_SIZE_PARALLEL;
+  
   /**
    * Property constant to access Junction Points from within the layout algorithm code.
    */
@@ -488,6 +493,11 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
    */
   public final static IProperty<Integer> LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR = LayeredMetaDataProvider.LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR;
   
+  /**
+   * Property constant to access Parallel Layerings [MinWidth Layerer] from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> LAYERING_MIN_WIDTH_PARALLEL = LayeredMetaDataProvider.LAYERING_MIN_WIDTH_PARALLEL;
+  
   /**
    * Property constant to access Sausage Folding from within the layout algorithm code.
    */
@@ -528,6 +538,26 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
    */
   public final static IProperty<Integer> LAYERING_COFFMAN_GRAHAM_LAYER_BOUND = LayeredMetaDataProvider.LAYERING_COFFMAN_GRAHAM_LAYER_BOUND;
   
+  /**
+   * Property constant to access Parallel Component Layout from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> PARALLEL_COMPONENTS = LayeredMetaDataProvider.PARALLEL_COMPONENTS;
+  
+  /**
+   * Property constant to access Parallel Crossing Minimization Runs from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> CROSSING_MINIMIZATION_PARALLEL = LayeredMetaDataProvider.CROSSING_MINIMIZATION_PARALLEL;
+  
+  /**
+   * Property constant to access Parallel Alignments from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> NODE_PLACEMENT_BK_PARALLEL = LayeredMetaDataProvider.NODE_PLACEMENT_BK_PARALLEL;
+  
+  /**
+   * Property constant to access Parallel Orthogonal Routing from within the layout algorithm code.
+   */
+  public final static IProperty<Boolean> EDGE_ROUTING_PARALLEL = LayeredMetaDataProvider.EDGE_ROUTING_PARALLEL;
+  
   public void apply(final ILayoutMetaDataProvider.Registry registry) {
     registry.register(new LayoutAlgorithmData(
         "org.eclipse.elk.layered",
@@ -849,6 +879,11 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
         "org.eclipse.elk.nodeSize.minHeight",
         NODE_SIZE_MIN_HEIGHT.getDefault()
     );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.nodeSize.parallel",
+        NODE_SIZE_PARALLEL.getDefault()
+    );
     registry.addOptionSupport(
         "org.eclipse.elk.layered",
         "org.eclipse.elk.junctionPoints",
@@ -909,6 +944,11 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
         "org.eclipse.elk.layered.layering.minWidth.upperLayerEstimationScalingFactor",
         LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR.getDefault()
     );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.layered.layering.minWidth.parallel",
+        LAYERING_MIN_WIDTH_PARALLEL.getDefault()
+    );
     registry.addOptionSupport(
         "org.eclipse.elk.layered",
         "org.eclipse.elk.layered.sausageFolding",
@@ -949,5 +989,25 @@ public class LayeredOptions implements ILayoutMetaDataProvider {
         "org.eclipse.elk.layered.layering.coffmanGraham.layerBound",
         LAYERING_COFFMAN_GRAHAM_LAYER_BOUND.getDefault()
     );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.layered.parallelComponents",
+        PARALLEL_COMPONENTS.getDefault()
+    );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.layered.crossingMinimization.parallel",
+        CROSSING_MINIMIZATION_PARALLEL.getDefault()
+    );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.layered.nodePlacement.bk.parallel",
+        NODE_PLACEMENT_BK_PARALLEL.getDefault()
+    );
+    registry.addOptionSupport(
+        "org.eclipse.elk.layered",
+        "org.eclipse.elk.layered.edgeRouting.parallel",
+        EDGE_ROUTING_PARALLEL.getDefault()
+    );
   }
 }
@@ -130,6 +130,20 @@ final class GraphConfigurator {
         // Make sure the graph properties are sensible
         configureGraphProperties(lgraph);
         
+        // Assemble the phases and processors
+        configureAlgorithm(lgraph);
+    }
+    
+    /**
+     * Rebuilds the list of processors required to layout the given graph without touching any of
+     * the graph's layout options. This assumes that the graph's properties have already been
+     * configured by {@link #prepareGraphForLayout(LGraph)}, possibly on the graph the given one was
+     * split from. Since phases and processors are cached per configurator, this can be used to give
+     * graphs that are laid out concurrently their own processor instances.
+     * 
+     * @param lgraph the graph to layout.
+     */
+    public void configureAlgorithm(final LGraph lgraph) {
         // get instances for the different phases of our algorithm
         ILayoutPhase cycleBreaker = cachedLayoutPhase(lgraph.getProperty(LayeredOptions.CYCLE_BREAKING_STRATEGY));
         ILayoutPhase layerer = cachedLayoutPhase(lgraph.getProperty(LayeredOptions.LAYERING_STRATEGY));
@@ -12,7 +12,10 @@ package org.eclipse.elk.alg.layered;
 
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.elk.alg.layered.components.ComponentsProcessor;
 import org.eclipse.elk.alg.layered.compound.CompoundGraphPostprocessor;
@@ -36,6 +39,10 @@ import org.eclipse.elk.core.options.SizeOptions;
 import org.eclipse.elk.core.util.BasicProgressMonitor;
 import org.eclipse.elk.core.util.ElkUtil;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
+import org.eclipse.elk.core.util.IFactory;
+import org.eclipse.elk.core.util.InstancePool;
+
+import com.google.common.collect.Lists;
 
 /**
  * The main entry point into KLay Layered. KLay Layered is a layout algorithm after the layered
@@ -106,6 +113,16 @@ public final class KlayLayered {
     private CompoundGraphPreprocessor compoundGraphPreprocessor = new CompoundGraphPreprocessor();
     /** compound graph postprocessor. */
     private CompoundGraphPostprocessor compoundGraphPostprocessor = new CompoundGraphPostprocessor();
+    /** configurators providing separate phase and processor instances for parallel component layout. */
+    private final InstancePool<GraphConfigurator> componentConfiguratorPool =
+            new InstancePool<GraphConfigurator>(new IFactory<GraphConfigurator>() {
+                public GraphConfigurator create() {
+                    return new GraphConfigurator();
+                }
+                public void destroy(final GraphConfigurator obj) {
+                    // nothing to free
+                }
+            });
     
 
     ////////////////////////////////////////////////////////////////////////////////
@@ -135,13 +152,27 @@ public final class KlayLayered {
             // Execute layout on the sole component using the top-level progress monitor
             layout(components.get(0), theMonitor);
         } else {
-            // Execute layout on each component using a progress monitor subtask
-            float compWork = 1.0f / components.size();
-            for (LGraph comp : components) {
-                if (monitor.isCanceled()) {
+            if (lgraph.getProperty(LayeredOptions.PARALLEL_COMPONENTS)) {
+                // Give each component its own random number generator so that its layout does not
+                // depend on the order in which the components are processed
+                Random random = lgraph.getProperty(InternalProperties.RANDOM);
+                for (LGraph comp : components) {
+                    comp.setProperty(InternalProperties.RANDOM, new Random(random.nextLong()));
+                }
+                
+                // Execute layout on all components concurrently
+                if (!layoutInParallel(components, theMonitor)) {
                     return;
                 }
-                layout(comp, theMonitor.subTask(compWork));
+            } else {
+                // Execute layout on each component using a progress monitor subtask
+                float compWork = 1.0f / components.size();
+                for (LGraph comp : components) {
+                    if (theMonitor.isCanceled()) {
+                        return;
+                    }
+                    layout(comp, theMonitor.subTask(compWork));
+                }
             }
         }
         componentsProcessor.combine(components, lgraph);
@@ -153,6 +184,57 @@ public final class KlayLayered {
     }
     
 
+    /**
+     * Lays out the given components concurrently on the common fork-join pool. Since phases and
+     * processors keep state while they execute, each component is laid out using the processors of a
+     * configurator fetched from {@link #componentConfiguratorPool} instead of the shared ones. Progress
+     * monitors are not thread-safe, so the components report to detached monitors and progress is
+     * reported to the given monitor from the calling thread once a component has finished.
+     * 
+     * @param components the components to lay out; each must already have its own random number
+     *                   generator
+     * @param monitor the progress monitor of the whole layout run
+     * @return {@code false} if the layout was canceled
+     */
+    private boolean layoutInParallel(final List<LGraph> components, final IElkProgressMonitor monitor) {
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(components.size());
+        for (final LGraph comp : components) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                if (!monitor.isCanceled()) {
+                    GraphConfigurator configurator = componentConfiguratorPool.fetch();
+                    try {
+                        configurator.configureAlgorithm(comp);
+                        layout(comp, new BasicProgressMonitor(0, false));
+                    } finally {
+                        componentConfiguratorPool.release(configurator);
+                    }
+                }
+            }));
+        }
+        
+        // Join in component order so that progress is reported deterministically; the first failure
+        // is only rethrown once all components are done, since they share the input graph
+        float compWork = 1.0f / components.size();
+        Throwable failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+                monitor.worked(compWork);
+            } catch (Throwable exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return !monitor.isCanceled();
+    }
+    
+
     ////////////////////////////////////////////////////////////////////////////////
     // Compound Graph Layout
 
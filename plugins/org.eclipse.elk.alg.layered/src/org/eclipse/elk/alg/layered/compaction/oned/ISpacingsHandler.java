@@ -16,7 +16,14 @@ package org.eclipse.elk.alg.layered.compaction.oned;
  * different special requirements. In such a case a special spacings handler should be implemented.
  * For a default implementation, use the {@link #DEFAULT_SPACING_HANDLER}. It returns for either spacing
  * the maximum of the two spacings returned by the nodes (e.g. {@link CNode#getVerticalSpacing()}).
-
+ * 
+ * <p>The spacing between two nodes in either direction must not exceed the larger of the spacings
+ * reported in that direction for each of the nodes paired with itself. This holds if the spacings of
+ * the nodes are combined by their minimum or maximum. Constraint calculations rely on this to only
+ * compare nodes that are close to each other (see
+ * {@link org.eclipse.elk.alg.layered.compaction.oned.algs.IntervalConstraintCalculation
+ * IntervalConstraintCalculation}).</p>
+ * 
  * @param <T> Some subclass of a {@link CNode}.
  */
 public interface ISpacingsHandler<T extends CNode> {
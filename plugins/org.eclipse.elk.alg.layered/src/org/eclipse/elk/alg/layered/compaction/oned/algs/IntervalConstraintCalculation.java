@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.compaction.oned.algs;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.elk.alg.layered.compaction.oned.CNode;
+import org.eclipse.elk.alg.layered.compaction.oned.OneDimensionalCompactor;
+
+/**
+ * Calculates the same constraints as {@link QuadraticConstraintCalculation}, but only compares nodes
+ * whose vertical extents, widened by the largest spacing, overlap. The extents are kept in primitive
+ * arrays sorted by their upper border, together with a tree of the maximal lower borders, so the
+ * candidates of each node are found in logarithmic time plus the number of candidates. The
+ * candidates are checked in the order of the compactor's nodes, so the constraint lists are equal to
+ * those of the pair-wise comparison, including their order.
+ *
+ * <p>The largest spacing is taken as the maximum of the spacings the nodes report themselves and the
+ * spacing the spacings handler reports for each node paired with itself. By the contract of
+ * {@link org.eclipse.elk.alg.layered.compaction.oned.ISpacingsHandler ISpacingsHandler}, this bounds
+ * the spacing between any two nodes.</p>
+ *
+ * @author agent
+ */
+public class IntervalConstraintCalculation implements IConstraintCalculationAlgorithm {
+
+    /**
+     * Added to the search window on both sides, so rounding errors and the tolerance of fuzzy
+     * comparisons never exclude a candidate; the candidates are checked exactly anyway.
+     */
+    private static final double WINDOW_MARGIN = 1.0;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void calculateConstraints(final OneDimensionalCompactor compactor) {
+        List<CNode> cNodes = compactor.cGraph.cNodes;
+        int n = cNodes.size();
+        CNode[] nodes = cNodes.toArray(new CNode[n]);
+        boolean horizontal = compactor.direction.isHorizontal();
+
+        // resetting constraints and gathering the vertical extents of the nodes
+        double[] starts = new double[n];
+        double[] ends = new double[n];
+        double maxSpacing = 0;
+        for (int i = 0; i < n; i++) {
+            CNode cNode = nodes[i];
+            cNode.constraints.clear();
+            starts[i] = cNode.hitbox.y;
+            ends[i] = cNode.hitbox.y + cNode.hitbox.height;
+            double spacing = horizontal ? cNode.getVerticalSpacing() : cNode.getHorizontalSpacing();
+            maxSpacing = Math.max(maxSpacing, Math.max(spacing,
+                    QuadraticConstraintCalculation.getSpacing(compactor, cNode, cNode)));
+            if (Double.isNaN(starts[i]) || Double.isNaN(ends[i])) {
+                maxSpacing = Double.NaN;
+            }
+        }
+        if (!(maxSpacing < Double.POSITIVE_INFINITY)) {
+            // the search window is unbounded, so every pair has to be compared
+            QuadraticConstraintCalculation.calculatePairwise(compactor);
+            return;
+        }
+        double widening = maxSpacing + WINDOW_MARGIN;
+
+        // node indices sorted by upper border
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sort(order, starts, new int[n], 0, n);
+        double[] sortedStarts = new double[n];
+        for (int p = 0; p < n; p++) {
+            sortedStarts[p] = starts[order[p]];
+        }
+
+        // complete binary tree holding the maximal lower border of the nodes below each tree node
+        int leaves = 1;
+        while (leaves < n) {
+            leaves <<= 1;
+        }
+        double[] maxEnds = new double[2 * leaves];
+        Arrays.fill(maxEnds, Double.NEGATIVE_INFINITY);
+        for (int p = 0; p < n; p++) {
+            maxEnds[leaves + p] = ends[order[p]];
+        }
+        for (int t = leaves - 1; t > 0; t--) {
+            maxEnds[t] = Math.max(maxEnds[2 * t], maxEnds[2 * t + 1]);
+        }
+
+        // inferring constraints from the candidates of each node
+        Candidates candidates = new Candidates();
+        for (int i = 0; i < n; i++) {
+            int limit = upperBound(sortedStarts, ends[i] + widening);
+            candidates.size = 0;
+            collect(maxEnds, order, 1, 0, leaves, limit, starts[i] - widening, candidates);
+            Arrays.sort(candidates.indices, 0, candidates.size);
+
+            CNode cNode1 = nodes[i];
+            for (int c = 0; c < candidates.size; c++) {
+                CNode cNode2 = nodes[candidates.indices[c]];
+                if (QuadraticConstraintCalculation.isConstrained(compactor, cNode1, cNode2)) {
+                    cNode1.constraints.add(cNode2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the indices of the nodes at sorted positions below {@code limit} whose lower border is
+     * at least {@code minEnd}.
+     *
+     * @param maxEnds the tree of maximal lower borders
+     * @param order the node indices sorted by upper border
+     * @param t the current tree node
+     * @param lo the first sorted position below the tree node
+     * @param hi the position after the last sorted position below the tree node
+     * @param limit the position after the last position to collect
+     * @param minEnd the smallest lower border to collect
+     * @param candidates the collected node indices
+     */
+    private static void collect(final double[] maxEnds, final int[] order, final int t, final int lo,
+            final int hi, final int limit, final double minEnd, final Candidates candidates) {
+
+        if (lo >= limit || maxEnds[t] < minEnd) {
+            return;
+        }
+        if (hi - lo == 1) {
+            candidates.add(order[lo]);
+        } else {
+            int mid = (lo + hi) >>> 1;
+            collect(maxEnds, order, 2 * t, lo, mid, limit, minEnd, candidates);
+            collect(maxEnds, order, 2 * t + 1, mid, hi, limit, minEnd, candidates);
+        }
+    }
+
+    /**
+     * Returns the number of values in the sorted array that are at most the given value.
+     *
+     * @param sorted an array sorted in ascending order
+     * @param value the value to look up
+     * @return the position after the last value that is at most the given one
+     */
+    private static int upperBound(final double[] sorted, final double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Sorts a range of indices by the keys they refer to using merge sort.
+     *
+     * @param indices the indices to sort
+     * @param keys the keys of the indices
+     * @param buffer an array at least as long as the indices
+     * @param from the first position of the range
+     * @param to the position after the last position of the range
+     */
+    private static void sort(final int[] indices, final double[] keys, final int[] buffer,
+            final int from, final int to) {
+
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(indices, keys, buffer, from, mid);
+        sort(indices, keys, buffer, mid, to);
+        if (keys[indices[mid - 1]] <= keys[indices[mid]]) {
+            return;
+        }
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int p = from; p < to; p++) {
+            if (right >= to || (left < mid && keys[buffer[left]] <= keys[buffer[right]])) {
+                indices[p] = buffer[left++];
+            } else {
+                indices[p] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * A growable array of node indices.
+     */
+    private static final class Candidates {
+        /** the initial capacity. */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /** the node indices. */
+        private int[] indices = new int[INITIAL_CAPACITY];
+        /** the number of node indices. */
+        private int size = 0;
+
+        /**
+         * Appends a node index.
+         *
+         * @param index the node index
+         */
+        void add(final int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, 2 * size);
+            }
+            indices[size++] = index;
+        }
+    }
+
+}
@@ -17,14 +17,65 @@ import org.eclipse.elk.alg.layered.compaction.oned.OneDimensionalCompactor;
 /**
  * Creates a constraint between CNodes A and B if B collides with the right shadow of A considering
  * vertical spacing.
+ * 
+ * <p>Comparing all pairs of nodes takes quadratic time. For graphs with at least
+ * {@link #INTERVAL_THRESHOLD} nodes, the calculation is therefore delegated to an
+ * {@link IntervalConstraintCalculation} by default, which only compares nodes that are close to
+ * each other vertically and yields the same constraints.</p>
  */
 public class QuadraticConstraintCalculation implements IConstraintCalculationAlgorithm {
 
+    /**
+     * The number of nodes from which on the constraints are calculated by an
+     * {@link IntervalConstraintCalculation}. Below, the pair-wise comparison is faster.
+     */
+    public static final int INTERVAL_THRESHOLD = 32;
+
+    /** the number of nodes from which on the interval calculation is used. */
+    private final int intervalThreshold;
+    /** the calculation used for large graphs. */
+    private final IConstraintCalculationAlgorithm intervalCalculation =
+            new IntervalConstraintCalculation();
+
+    /**
+     * Creates a constraint calculation that switches to the interval calculation at
+     * {@link #INTERVAL_THRESHOLD} nodes.
+     */
+    public QuadraticConstraintCalculation() {
+        this(INTERVAL_THRESHOLD);
+    }
+
+    /**
+     * Creates a constraint calculation that switches to the interval calculation at the given
+     * number of nodes.
+     * 
+     * @param threshold
+     *            the number of nodes from which on the interval calculation is used;
+     *            {@link Integer#MAX_VALUE} always compares all pairs of nodes
+     */
+    public QuadraticConstraintCalculation(final int threshold) {
+        this.intervalThreshold = threshold;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void calculateConstraints(final OneDimensionalCompactor compactor) {
+        if (compactor.cGraph.cNodes.size() >= intervalThreshold) {
+            intervalCalculation.calculateConstraints(compactor);
+        } else {
+            calculatePairwise(compactor);
+        }
+    }
+
+    /**
+     * Calculates the constraints by comparing all pairs of nodes.
+     * 
+     * @param compactor
+     *            the compactor whose nodes are constrained
+     */
+    static void calculatePairwise(final OneDimensionalCompactor compactor) {
 
         // resetting constraints
         for (CNode cNode : compactor.cGraph.cNodes) {
@@ -34,44 +85,76 @@ public class QuadraticConstraintCalculation implements IConstraintCalculationAlg
         // inferring constraints from hitbox intersections
         for (CNode cNode1 : compactor.cGraph.cNodes) {
             for (CNode cNode2 : compactor.cGraph.cNodes) {
-                // no self constraints
-                if (cNode1 == cNode2) {
-                    continue;
-                }
-                // no constraints between nodes of the same group
-                if (cNode1.cGroup != null && cNode1.cGroup == cNode2.cGroup) {
-                    continue;
-                }
-                
-                double spacing;
-                if (compactor.direction.isHorizontal()) {
-                    //spacing = Math.min(cNode1.getVerticalSpacing(), cNode2.getVerticalSpacing());
-                    spacing = compactor.spacingsHandler.getVerticalSpacing(cNode1, cNode2);
-                } else {
-                    //spacing = Math.min(cNode1.getHorizontalSpacing(), cNode2.getHorizontalSpacing());
-                    spacing = compactor.spacingsHandler.getHorizontalSpacing(cNode1, cNode2);
-                }
-                
-                // add constraint if cNode2 is to the right of cNode1 and could collide if moved
-                // horizontally
-                // exclude parentNodes because they don't constrain their north/south segments
-                if (cNode1 != cNode2.parentNode
-                        // '>' avoids simultaneous constraints A->B and B->A
-                        && (cNode2.hitbox.x > cNode1.hitbox.x 
-                                // 
-                                || (cNode1.hitbox.x == cNode2.hitbox.x 
-                                && cNode1.hitbox.width < cNode2.hitbox.width))
-                                
-                                && CompareFuzzy.gt(cNode2.hitbox.y + cNode2.hitbox.height + spacing,
-                                        cNode1.hitbox.y)
-                                        
-                                        && CompareFuzzy.lt(cNode2.hitbox.y, 
-                                                cNode1.hitbox.y + cNode1.hitbox.height + spacing)) {
-                    
+                if (isConstrained(compactor, cNode1, cNode2)) {
                     cNode1.constraints.add(cNode2);
                 }
             }
         }
     }
 
+    /**
+     * Determines whether the second node has to be constrained by the first one.
+     * 
+     * @param compactor
+     *            the compactor the nodes belong to
+     * @param cNode1
+     *            the node that would be constrained
+     * @param cNode2
+     *            the node that would constrain the first one
+     * @return {@code true} if {@code cNode2} collides with the right shadow of {@code cNode1}
+     */
+    static boolean isConstrained(final OneDimensionalCompactor compactor, final CNode cNode1,
+            final CNode cNode2) {
+
+        // no self constraints
+        if (cNode1 == cNode2) {
+            return false;
+        }
+        // no constraints between nodes of the same group
+        if (cNode1.cGroup != null && cNode1.cGroup == cNode2.cGroup) {
+            return false;
+        }
+        
+        double spacing = getSpacing(compactor, cNode1, cNode2);
+        
+        // add constraint if cNode2 is to the right of cNode1 and could collide if moved
+        // horizontally
+        // exclude parentNodes because they don't constrain their north/south segments
+        return cNode1 != cNode2.parentNode
+                // '>' avoids simultaneous constraints A->B and B->A
+                && (cNode2.hitbox.x > cNode1.hitbox.x 
+                        // 
+                        || (cNode1.hitbox.x == cNode2.hitbox.x 
+                        && cNode1.hitbox.width < cNode2.hitbox.width))
+                        
+                        && CompareFuzzy.gt(cNode2.hitbox.y + cNode2.hitbox.height + spacing,
+                                cNode1.hitbox.y)
+                                
+                                && CompareFuzzy.lt(cNode2.hitbox.y, 
+                                        cNode1.hitbox.y + cNode1.hitbox.height + spacing);
+    }
+
+    /**
+     * Returns the spacing to preserve between two nodes orthogonal to the compaction direction.
+     * 
+     * @param compactor
+     *            the compactor the nodes belong to
+     * @param cNode1
+     *            the first node
+     * @param cNode2
+     *            the second node
+     * @return the spacing between the nodes
+     */
+    static double getSpacing(final OneDimensionalCompactor compactor, final CNode cNode1,
+            final CNode cNode2) {
+
+        if (compactor.direction.isHorizontal()) {
+            //spacing = Math.min(cNode1.getVerticalSpacing(), cNode2.getVerticalSpacing());
+            return compactor.spacingsHandler.getVerticalSpacing(cNode1, cNode2);
+        } else {
+            //spacing = Math.min(cNode1.getHorizontalSpacing(), cNode2.getHorizontalSpacing());
+            return compactor.spacingsHandler.getHorizontalSpacing(cNode1, cNode2);
+        }
+    }
+
 }
@@ -12,7 +12,9 @@ package org.eclipse.elk.alg.layered.graph;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.eclipse.elk.alg.layered.graph.LNode.NodeType;
 import org.eclipse.elk.alg.layered.properties.InternalProperties;
@@ -38,6 +40,15 @@ import com.google.common.collect.Lists;
  * calculation code, for example. To obtain an adapter for an {@link LGraph}, simply call
  * {@link #adapt(LGraph)}.
  * 
+ * <p>Each node is represented by a single adapter, which the graph adapter creates lazily, but only
+ * once, even if it is queried from several threads. Ports, labels, and edges are adapted by cursors
+ * instead: every iteration over them creates a single object that serves as the iterator and is
+ * moved from element to element, so no adapter objects are kept per element. A cursor must thus not
+ * be kept beyond the current iteration step. Different nodes may be processed concurrently, as done
+ * by the parallel mode of the
+ * {@link org.eclipse.elk.core.util.nodespacing.LabelAndNodeSizeProcessor}.
+ * </p>
+ * 
  * @author uru
  */
 public final class LGraphAdapters {
@@ -168,7 +179,7 @@ public final class LGraphAdapters {
         protected LGraph element;
         // CHECKSTYLEON VisibilityModifier
         /** List of cached node adapters. */
-        private List<NodeAdapter<?>> nodeAdapters = null;
+        private volatile List<NodeAdapter<?>> nodeAdapters = null;
         /**
          * Whether to simulate that edges are directly connected to north south ports instead of to
          * north/south port dummies.
@@ -229,17 +240,24 @@ public final class LGraphAdapters {
          * {@inheritDoc}
          */
         public Iterable<NodeAdapter<?>> getNodes() {
-            if (nodeAdapters == null) {
-                nodeAdapters = Lists.newArrayList();
-                // We completely ignore layerless nodes here since they are currently not of interest
-                // to anyone using these adapters
-                for (Layer l : element.getLayers()) {
-                    for (LNode n : l.getNodes()) {
-                        nodeAdapters.add(new LNodeAdapter(n, transparentNorthSouthEdges));
+            List<NodeAdapter<?>> adapters = nodeAdapters;
+            if (adapters == null) {
+                synchronized (this) {
+                    adapters = nodeAdapters;
+                    if (adapters == null) {
+                        adapters = Lists.newArrayList();
+                        // We completely ignore layerless nodes here since they are currently not
+                        // of interest to anyone using these adapters
+                        for (Layer l : element.getLayers()) {
+                            for (LNode n : l.getNodes()) {
+                                adapters.add(new LNodeAdapter(n, transparentNorthSouthEdges));
+                            }
+                        }
+                        nodeAdapters = adapters;
                     }
                 }
             }
-            return nodeAdapters;
+            return adapters;
         }
 
         /**
@@ -258,13 +276,10 @@ public final class LGraphAdapters {
     }
 
     /**
-     * Adapter for {@link LNode}s.
+     * Adapter for {@link LNode}s. The adapters of the node's ports and labels are cursors that are
+     * created anew for each iteration.
      */
     static final class LNodeAdapter extends AbstractLShapeAdapter<LNode> implements NodeAdapter<LNode> {
-        /** List of cached label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
-        /** List of cached port adapters. */
-        private List<PortAdapter<?>> portAdapters = null;
         /**
          * Whether to simulate that edges are directly connected to north south ports instead of to
          * north/south port dummies.
@@ -290,26 +305,16 @@ public final class LGraphAdapters {
          * {@inheritDoc}
          */
         public Iterable<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithCapacity(element.getLabels().size());
-                for (LLabel l : element.getLabels()) {
-                    labelAdapters.add(new LLabelAdapter(l));
-                }
-            }
-            return labelAdapters;
+            final List<LLabel> labels = element.getLabels();
+            return () -> new LLabelCursor(labels);
         }
 
         /**
          * {@inheritDoc}
          */
         public Iterable<PortAdapter<?>> getPorts() {
-            if (portAdapters == null) {
-                portAdapters = Lists.newArrayListWithCapacity(element.getPorts().size());
-                for (LPort p : element.getPorts()) {
-                    portAdapters.add(new LPortAdapter(p, transparentNorthSouthEdges));
-                }
-            }
-            return portAdapters;
+            final List<LPort> ports = element.getPorts();
+            return () -> new LPortCursor(ports, transparentNorthSouthEdges);
         }
         
         /**
@@ -391,15 +396,15 @@ public final class LGraphAdapters {
     }
 
     /**
-     * Adapter for {@link LPort}s.
+     * Cursor over a list of {@link LPort}s that adapts the port it is positioned on. The cursor is
+     * its own iterator: each call of {@link #next()} moves it to the next port and returns it.
      */
-    static final class LPortAdapter extends AbstractLShapeAdapter<LPort> implements PortAdapter<LPort> {
-        /** List of cached label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
-        /** List of cached edge adapters for incoming edges. */
-        private List<EdgeAdapter<?>> incomingEdgeAdapters = null;
-        /** List of cached edge adapters for outgoing edges. */
-        private List<EdgeAdapter<?>> outgoingEdgeAdapters = null;
+    static final class LPortCursor extends AbstractLShapeAdapter<LPort>
+            implements PortAdapter<LPort>, Iterator<PortAdapter<?>> {
+        /** The ports to iterate over. */
+        private final List<LPort> ports;
+        /** The index of the next port. */
+        private int nextIndex = 0;
         /**
          * Whether to simulate that edges are directly connected to north south ports instead of to
          * north/south port dummies.
@@ -407,19 +412,37 @@ public final class LGraphAdapters {
         private boolean transparentNorthSouthEdges;
 
         /**
-         * Creates a new adapter for the given port.
+         * Creates a new cursor positioned before the first of the given ports.
          * 
-         * @param element
-         *            the port to be adapted.
+         * @param ports
+         *            the ports to iterate over.
          * @param transparentNorthSouthEdges
          *            whether to simulate that edges are directly connected to north south ports
          *            instead of to north/south port dummies.
          */
-        public LPortAdapter(final LPort element, final boolean transparentNorthSouthEdges) {
-            super(element);
+        LPortCursor(final List<LPort> ports, final boolean transparentNorthSouthEdges) {
+            super(null);
+            this.ports = ports;
             this.transparentNorthSouthEdges = transparentNorthSouthEdges;
         }
         
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            return nextIndex < ports.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public PortAdapter<?> next() {
+            if (nextIndex >= ports.size()) {
+                throw new NoSuchElementException();
+            }
+            element = ports.get(nextIndex++);
+            return this;
+        }
 
         /**
          * {@inheritDoc}
@@ -432,13 +455,8 @@ public final class LGraphAdapters {
          * {@inheritDoc}
          */
         public Iterable<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithCapacity(element.getLabels().size());
-                for (LLabel l : element.getLabels()) {
-                    labelAdapters.add(new LLabelAdapter(l));
-                }
-            }
-            return labelAdapters;
+            final List<LLabel> labels = element.getLabels();
+            return () -> new LLabelCursor(labels);
         }
 
         /**
@@ -465,21 +483,15 @@ public final class LGraphAdapters {
         public Iterable<EdgeAdapter<?>> getIncomingEdges() {
             if (transparentNorthSouthEdges && element.getNode().getType() == NodeType.NORTH_SOUTH_PORT) {
                 return Collections.emptyList();
-            } else if (incomingEdgeAdapters == null) {
-                incomingEdgeAdapters = Lists.newArrayList();
-                for (LEdge e : element.getIncomingEdges()) {
-                    incomingEdgeAdapters.add(new LEdgeAdapter(e));
-                }
-                if (transparentNorthSouthEdges) {
-                    final LNode portDummy = element.getProperty(InternalProperties.PORT_DUMMY);
-                    if (portDummy != null) {
-                        for (LEdge e : portDummy.getIncomingEdges()) {
-                            incomingEdgeAdapters.add(new LEdgeAdapter(e));
-                       }
-                    }
-                }
             }
-            return incomingEdgeAdapters;
+            final List<LEdge> edges = element.getIncomingEdges();
+            final LNode portDummy = transparentNorthSouthEdges
+                    ? element.getProperty(InternalProperties.PORT_DUMMY) : null;
+            if (portDummy != null) {
+                final Iterable<LEdge> dummyEdges = portDummy.getIncomingEdges();
+                return () -> new LEdgeCursor(edges, dummyEdges);
+            }
+            return () -> new LEdgeCursor(edges, null);
         }
 
         /**
@@ -488,21 +500,15 @@ public final class LGraphAdapters {
         public Iterable<EdgeAdapter<?>> getOutgoingEdges() {
             if (transparentNorthSouthEdges && element.getNode().getType() == NodeType.NORTH_SOUTH_PORT) {
                 return Collections.emptyList();
-            } else if (outgoingEdgeAdapters == null) {
-                outgoingEdgeAdapters = Lists.newArrayList();
-                for (LEdge e : element.getOutgoingEdges()) {
-                    outgoingEdgeAdapters.add(new LEdgeAdapter(e));
-                }
-                if (transparentNorthSouthEdges) {
-                    final LNode portDummy = element.getProperty(InternalProperties.PORT_DUMMY);
-                    if (portDummy != null) {
-                        for (LEdge e : portDummy.getOutgoingEdges()) {
-                            outgoingEdgeAdapters.add(new LEdgeAdapter(e));
-                        }
-                    }
-                }
             }
-            return outgoingEdgeAdapters;
+            final List<LEdge> edges = element.getOutgoingEdges();
+            final LNode portDummy = transparentNorthSouthEdges
+                    ? element.getProperty(InternalProperties.PORT_DUMMY) : null;
+            if (portDummy != null) {
+                final Iterable<LEdge> dummyEdges = portDummy.getOutgoingEdges();
+                return () -> new LEdgeCursor(edges, dummyEdges);
+            }
+            return () -> new LEdgeCursor(edges, null);
         }
 
         /**
@@ -514,19 +520,43 @@ public final class LGraphAdapters {
     }
 
     /**
-     * Adapter for {@link LLabel}s.
+     * Cursor over a list of {@link LLabel}s that adapts the label it is positioned on. The cursor
+     * is its own iterator: each call of {@link #next()} moves it to the next label and returns it.
      */
-    static final class LLabelAdapter extends AbstractLShapeAdapter<LLabel> implements
-        LabelAdapter<LLabel> {
+    static final class LLabelCursor extends AbstractLShapeAdapter<LLabel> implements
+        LabelAdapter<LLabel>, Iterator<LabelAdapter<?>> {
+        /** The labels to iterate over. */
+        private final List<LLabel> labels;
+        /** The index of the next label. */
+        private int nextIndex = 0;
 
         /**
-         * Creates a new adapter for the given label.
+         * Creates a new cursor positioned before the first of the given labels.
          * 
-         * @param element
-         *            the label to be adapted.
+         * @param labels
+         *            the labels to iterate over.
          */
-        public LLabelAdapter(final LLabel element) {
-            super(element);
+        LLabelCursor(final List<LLabel> labels) {
+            super(null);
+            this.labels = labels;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            return nextIndex < labels.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public LabelAdapter<?> next() {
+            if (nextIndex >= labels.size()) {
+                throw new NoSuchElementException();
+            }
+            element = labels.get(nextIndex++);
+            return this;
         }
 
         /**
@@ -538,37 +568,61 @@ public final class LGraphAdapters {
     }
 
     /**
-     * Adapter for {@link LEdge}s.
+     * Cursor over one or two lists of {@link LEdge}s that adapts the edge it is positioned on. The
+     * cursor is its own iterator: each call of {@link #next()} moves it to the next edge and
+     * returns it.
      */
-    static final class LEdgeAdapter implements EdgeAdapter<LEdge> {
-        /** The wrapped edge. */
+    static final class LEdgeCursor implements EdgeAdapter<LEdge>, Iterator<EdgeAdapter<?>> {
+        /** The edges to iterate over first. */
+        private final List<LEdge> edges;
+        /** Iterator over the edges to iterate over afterwards, or {@code null}. */
+        private final Iterator<LEdge> moreEdges;
+        /** The index of the next edge of the first list. */
+        private int nextIndex = 0;
+        /** The edge the cursor is positioned on. */
         private LEdge element;
-        /** List of cached label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
 
         
         /**
-         * Creates a new adapter for the given edge.
+         * Creates a new cursor positioned before the first of the given edges.
          * 
-         * @param edge
-         *            the edge to adapt.
+         * @param edges
+         *            the edges to iterate over first.
+         * @param moreEdges
+         *            the edges to iterate over afterwards, or {@code null}.
          */
-        public LEdgeAdapter(final LEdge edge) {
-            this.element = edge;
+        LEdgeCursor(final List<LEdge> edges, final Iterable<LEdge> moreEdges) {
+            this.edges = edges;
+            this.moreEdges = moreEdges == null ? null : moreEdges.iterator();
         }
-        
 
         /**
          * {@inheritDoc}
          */
-        public Iterable<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithCapacity(element.getLabels().size());
-                for (LLabel l : element.getLabels()) {
-                    labelAdapters.add(new LLabelAdapter(l));
-                }
+        public boolean hasNext() {
+            return nextIndex < edges.size() || moreEdges != null && moreEdges.hasNext();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public EdgeAdapter<?> next() {
+            if (nextIndex < edges.size()) {
+                element = edges.get(nextIndex++);
+            } else if (moreEdges != null) {
+                element = moreEdges.next();
+            } else {
+                throw new NoSuchElementException();
             }
-            return labelAdapters;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Iterable<LabelAdapter<?>> getLabels() {
+            final List<LLabel> labels = element.getLabels();
+            return () -> new LLabelCursor(labels);
         }
     }
 
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.graph;
 
-import org.eclipse.elk.graph.properties.MapPropertyHolder;
+import org.eclipse.elk.alg.layered.properties.InternalProperties;
+import org.eclipse.elk.alg.layered.properties.LayeredOptions;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.graph.properties.IndexedPropertyHolder;
+import org.eclipse.elk.graph.properties.Property;
 
 /**
  * Abstract superclass for the layers, nodes, ports, and edges of a layered graph
@@ -30,11 +34,16 @@ import org.eclipse.elk.graph.properties.MapPropertyHolder;
  * @kieler.design proposed by msp
  * @kieler.rating yellow 2013-03-22 review KI-35 by chsch, grh
  */
-public abstract class LGraphElement extends MapPropertyHolder {
+public abstract class LGraphElement extends IndexedPropertyHolder {
 
     /** the serial version UID. */
     private static final long serialVersionUID = 5480383439314459124L;
     
+    static {
+        // The properties read during layout are addressed by index; all others are hashed
+        Property.registerIndices(CoreOptions.class, LayeredOptions.class, InternalProperties.class);
+    }
+    
     // CHECKSTYLEOFF VisibilityModifier
     /** Identifier value, may be arbitrarily used by algorithms. */
     public int id;
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.graph;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the structure of a layered graph in compressed sparse row form. Nodes,
+ * ports and edges are identified by their index in the snapshot, and all adjacency information is
+ * stored in flat int arrays. Phases that traverse the graph many times can build a snapshot once and
+ * iterate it without allocating iterators or walking port lists. The object model remains the source
+ * of truth: the snapshot does not follow later modifications of the graph, and results are written
+ * back through the {@link #nodes}, {@link #ports} and {@link #edges} arrays.
+ *
+ * <p>The adjacency of a node {@code n} is given by index ranges; for example, the outgoing edges of
+ * {@code n} are {@code outgoingEdges[outgoingStart[n]]} up to (excluding)
+ * {@code outgoingEdges[outgoingStart[n + 1]]}. All adjacency lists keep the order of the object
+ * model: outgoing edges are in the order of {@link LNode#getOutgoingEdges()}, incoming edges in the
+ * order of {@link LNode#getIncomingEdges()}, and connected edges in the order obtained by iterating
+ * over the node's ports and calling {@link LPort#getConnectedEdges()} on each. Algorithms ported to
+ * the snapshot therefore make the same decisions as their object-based versions.</p>
+ *
+ * <p>Building a snapshot sets the {@code id} field of each node and edge to its index. Port ids are
+ * not modified. Edges that connect a node of the snapshot to a node outside of it are ignored. The
+ * arrays are exposed for performance reasons and must not be modified.</p>
+ *
+ * @author agent
+ */
+public final class LGraphSnapshot {
+
+    // Allow the fields of this container to be accessed directly.
+    // SUPPRESS CHECKSTYLE NEXT 70 VisibilityModifier
+
+    /** The number of nodes. */
+    public final int nodeCount;
+    /** The number of ports. */
+    public final int portCount;
+    /** The number of edges. */
+    public final int edgeCount;
+    /** The number of layers; zero if the snapshot was built from layerless nodes. */
+    public final int layerCount;
+
+    /** The nodes, indexed by node index. */
+    public final LNode[] nodes;
+    /** The ports, indexed by port index. The ports of each node are stored contiguously. */
+    public final LPort[] ports;
+    /** The edges, indexed by edge index. */
+    public final LEdge[] edges;
+
+    /** For each node the index of its layer, or {@code -1} if the node is layerless. */
+    public final int[] nodeLayer;
+    /**
+     * For each layer the index of its first node; the nodes of each layer are stored contiguously
+     * in layer order. Has {@code layerCount + 1} entries.
+     */
+    public final int[] layerStart;
+
+    /** For each node the index of its first port. Has {@code nodeCount + 1} entries. */
+    public final int[] portStart;
+    /** For each port the index of the node it belongs to. */
+    public final int[] portNode;
+
+    /** For each edge the index of its source node. */
+    public final int[] edgeSource;
+    /** For each edge the index of its target node. */
+    public final int[] edgeTarget;
+    /** For each edge the index of its source port. */
+    public final int[] edgeSourcePort;
+    /** For each edge the index of its target port. */
+    public final int[] edgeTargetPort;
+
+    /** For each node the start of its range in {@link #outgoingEdges}. */
+    public final int[] outgoingStart;
+    /** The outgoing edges of all nodes. */
+    public final int[] outgoingEdges;
+    /** For each node the start of its range in {@link #incomingEdges}. */
+    public final int[] incomingStart;
+    /** The incoming edges of all nodes. */
+    public final int[] incomingEdges;
+    /** For each node the start of its range in {@link #connectedEdges}. */
+    public final int[] connectedStart;
+    /** The connected edges of all nodes. Self-loops appear twice in the range of their node. */
+    public final int[] connectedEdges;
+
+
+    /**
+     * Builds a snapshot of the layerless nodes of the given graph.
+     *
+     * @param graph the graph
+     * @return a snapshot of the graph's layerless nodes and the edges between them
+     */
+    public static LGraphSnapshot ofLayerlessNodes(final LGraph graph) {
+        List<LNode> layerlessNodes = graph.getLayerlessNodes();
+        return new LGraphSnapshot(layerlessNodes.toArray(new LNode[layerlessNodes.size()]), null);
+    }
+
+    /**
+     * Builds a snapshot of the given nodes.
+     *
+     * @param nodes the nodes
+     * @return a snapshot of the nodes and the edges between them
+     */
+    public static LGraphSnapshot of(final Collection<LNode> nodes) {
+        return new LGraphSnapshot(nodes.toArray(new LNode[nodes.size()]), null);
+    }
+
+    /**
+     * Builds a snapshot of the layers of the given graph. Nodes are indexed layer by layer, so the
+     * index of a node in its layer is its node index minus the {@link #layerStart} of its layer.
+     *
+     * @param graph the graph
+     * @return a snapshot of the graph's layered nodes and the edges between them
+     */
+    public static LGraphSnapshot ofLayers(final LGraph graph) {
+        List<Layer> layers = graph.getLayers();
+        int[] layerStart = new int[layers.size() + 1];
+        int nodeCount = 0;
+        for (int l = 0; l < layers.size(); l++) {
+            layerStart[l] = nodeCount;
+            nodeCount += layers.get(l).getNodes().size();
+        }
+        layerStart[layers.size()] = nodeCount;
+
+        LNode[] nodes = new LNode[nodeCount];
+        int nodeIndex = 0;
+        for (Layer layer : layers) {
+            for (LNode node : layer.getNodes()) {
+                nodes[nodeIndex++] = node;
+            }
+        }
+        return new LGraphSnapshot(nodes, layerStart);
+    }
+
+    /**
+     * Builds the snapshot.
+     *
+     * @param nodes the nodes to include
+     * @param layerStart the index of the first node of each layer plus the number of nodes, or
+     *          {@code null} if the nodes are layerless
+     */
+    private LGraphSnapshot(final LNode[] nodes, final int[] layerStart) {
+        this.nodes = nodes;
+        this.nodeCount = nodes.length;
+
+        // Nodes and layers
+        nodeLayer = new int[nodeCount];
+        if (layerStart == null) {
+            this.layerStart = new int[] { 0 };
+            this.layerCount = 0;
+            for (int n = 0; n < nodeCount; n++) {
+                nodes[n].id = n;
+                nodeLayer[n] = -1;
+            }
+        } else {
+            this.layerStart = layerStart;
+            this.layerCount = layerStart.length - 1;
+            for (int l = 0; l < layerCount; l++) {
+                for (int n = layerStart[l]; n < layerStart[l + 1]; n++) {
+                    nodes[n].id = n;
+                    nodeLayer[n] = l;
+                }
+            }
+        }
+
+        // Ports, and the number of edges between nodes of the snapshot
+        portStart = new int[nodeCount + 1];
+        int ports = 0;
+        int edges = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            portStart[n] = ports;
+            for (LPort port : nodes[n].getPorts()) {
+                ports++;
+                for (LEdge edge : port.getOutgoingEdges()) {
+                    if (contains(edge.getTarget().getNode())) {
+                        edges++;
+                    }
+                }
+            }
+        }
+        portStart[nodeCount] = ports;
+        portCount = ports;
+        edgeCount = edges;
+
+        this.ports = new LPort[portCount];
+        portNode = new int[portCount];
+        int portIndex = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            for (LPort port : nodes[n].getPorts()) {
+                this.ports[portIndex] = port;
+                portNode[portIndex] = n;
+                portIndex++;
+            }
+        }
+
+        // Edges and outgoing adjacency
+        this.edges = new LEdge[edgeCount];
+        edgeSource = new int[edgeCount];
+        edgeTarget = new int[edgeCount];
+        edgeSourcePort = new int[edgeCount];
+        edgeTargetPort = new int[edgeCount];
+        outgoingStart = new int[nodeCount + 1];
+        outgoingEdges = new int[edgeCount];
+        int edgeIndex = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            outgoingStart[n] = edgeIndex;
+            for (LPort port : nodes[n].getPorts()) {
+                for (LEdge edge : port.getOutgoingEdges()) {
+                    LPort target = edge.getTarget();
+                    LNode targetNode = target.getNode();
+                    if (contains(targetNode)) {
+                        edge.id = edgeIndex;
+                        this.edges[edgeIndex] = edge;
+                        edgeSource[edgeIndex] = n;
+                        edgeTarget[edgeIndex] = targetNode.id;
+                        edgeSourcePort[edgeIndex] = portStart[n] + port.getIndex();
+                        edgeTargetPort[edgeIndex] = portStart[targetNode.id] + target.getIndex();
+                        outgoingEdges[edgeIndex] = edgeIndex;
+                        edgeIndex++;
+                    }
+                }
+            }
+        }
+        outgoingStart[nodeCount] = edgeCount;
+
+        // Incoming and connected adjacency; every edge is incoming to exactly one node and connected
+        // to exactly two node ranges (possibly the same one twice)
+        incomingStart = new int[nodeCount + 1];
+        incomingEdges = new int[edgeCount];
+        connectedStart = new int[nodeCount + 1];
+        connectedEdges = new int[2 * edgeCount];
+        int incomingIndex = 0;
+        int connectedIndex = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            incomingStart[n] = incomingIndex;
+            connectedStart[n] = connectedIndex;
+            for (LPort port : nodes[n].getPorts()) {
+                for (LEdge edge : port.getIncomingEdges()) {
+                    if (contains(edge.getSource().getNode())) {
+                        incomingEdges[incomingIndex++] = edge.id;
+                        connectedEdges[connectedIndex++] = edge.id;
+                    }
+                }
+                for (LEdge edge : port.getOutgoingEdges()) {
+                    if (contains(edge.getTarget().getNode())) {
+                        connectedEdges[connectedIndex++] = edge.id;
+                    }
+                }
+            }
+        }
+        incomingStart[nodeCount] = incomingIndex;
+        connectedStart[nodeCount] = connectedIndex;
+    }
+
+    /**
+     * Checks whether the given node is part of this snapshot. Only valid once the ids of all nodes of
+     * the snapshot have been assigned.
+     *
+     * @param node a node
+     * @return {@code true} if the node is part of this snapshot
+     */
+    private boolean contains(final LNode node) {
+        return node.id >= 0 && node.id < nodeCount && nodes[node.id] == node;
+    }
+
+    /**
+     * Returns the node at the other end of the given edge.
+     *
+     * @param edge an edge index
+     * @param node the index of one of the edge's end nodes
+     * @return the index of the edge's other end node
+     */
+    public int opposite(final int edge, final int node) {
+        return edgeSource[edge] == node ? edgeTarget[edge] : edgeSource[edge];
+    }
+
+    /**
+     * Checks whether the given edge connects a node to itself.
+     *
+     * @param edge an edge index
+     * @return {@code true} if the edge is a self-loop
+     */
+    public boolean isSelfLoop(final int edge) {
+        return edgeSource[edge] == edgeTarget[edge];
+    }
+
+    /**
+     * Returns the index of the given node in its layer. Only meaningful for snapshots built with
+     * {@link #ofLayers(LGraph)}.
+     *
+     * @param node a node index
+     * @return the node's index in its layer
+     */
+    public int indexInLayer(final int node) {
+        return node - layerStart[nodeLayer[node]];
+    }
+
+}
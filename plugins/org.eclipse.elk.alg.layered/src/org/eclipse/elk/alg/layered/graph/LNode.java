@@ -85,6 +85,8 @@ public final class LNode extends LShape {
     private Layer layer;
     /** the node's node type. */
     private NodeType type = NodeType.NORMAL;
+    /** the last known index of the node in its layer, or -1; see {@link #getIndex()}. */
+    private int index = -1;
     /** the ports of the node. */
     private final List<LPort> ports = Lists.newArrayListWithCapacity(6);
     /** this node's labels. */
@@ -419,18 +421,32 @@ public final class LNode extends LShape {
     }
     
     /**
-     * Returns the index of the node in the containing layer's list of nodes.
-     * Note that this method has linear running time in the number of nodes,
-     * so use it with caution.
+     * Returns the index of the node in the containing layer's list of nodes. The index is cached
+     * and validated on each call, which takes constant time. Only if the layer's list of nodes was
+     * modified in a way that moved this node, the indices of all nodes in the layer are recomputed.
      * 
      * @return the index of this node, or -1 if the node has no owner
      */
     public int getIndex() {
         if (layer == null) {
             return -1;
-        } else {
-            return layer.getNodes().indexOf(this);
         }
+        
+        List<LNode> nodes = layer.getNodes();
+        // Work on a local copy so that concurrent readers never observe a transient value
+        int cached = index;
+        if (cached < 0 || cached >= nodes.size() || nodes.get(cached) != this) {
+            // The cached index is stale; reindex all nodes of the layer at once
+            cached = -1;
+            int i = 0;
+            for (LNode node : nodes) {
+                if (node == this) {
+                    cached = i;
+                }
+                node.index = i++;
+            }
+        }
+        return cached;
     }
     
     /**
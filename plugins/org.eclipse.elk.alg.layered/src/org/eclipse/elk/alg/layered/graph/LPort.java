@@ -86,6 +86,8 @@ public final class LPort extends LShape {
     private LNode owner;
     /** the port side. */
     private PortSide side = PortSide.UNDEFINED;
+    /** the last known index of the port in its node, or -1; see {@link #getIndex()}. */
+    private int index = -1;
     /** the anchor point position. */
     private final KVector anchor = new KVector();
     /** the margin area around this port. */
@@ -311,18 +313,32 @@ public final class LPort extends LShape {
     }
     
     /**
-     * Returns the index of the port in the containing node's list of ports. Note
-     * that this method has linear running time in the number of ports, so use
-     * it with caution.
+     * Returns the index of the port in the containing node's list of ports. The index is cached
+     * and validated on each call, which takes constant time. Only if the node's list of ports was
+     * modified in a way that moved this port, the indices of all ports of the node are recomputed.
      * 
      * @return the index of this port, or -1 if the port has no owner
      */
     public int getIndex() {
         if (owner == null) {
             return -1;
-        } else {
-            return owner.getPorts().indexOf(this);
         }
+        
+        List<LPort> ports = owner.getPorts();
+        // Work on a local copy so that concurrent readers never observe a transient value
+        int cached = index;
+        if (cached < 0 || cached >= ports.size() || ports.get(cached) != this) {
+            // The cached index is stale; reindex all ports of the node at once
+            cached = -1;
+            int i = 0;
+            for (LPort port : ports) {
+                if (port == this) {
+                    cached = i;
+                }
+                port.index = i++;
+            }
+        }
+        return cached;
     }
 
     /**
@@ -36,6 +36,8 @@ public final class Layer extends LGraphElement implements Iterable<LNode> {
     private final KVector size = new KVector();
     /** the nodes of the layer. */
     private final List<LNode> nodes = Lists.newArrayList();
+    /** the last known index of the layer in its graph, or -1; see {@link #getIndex()}. */
+    private int index = -1;
     
     /**
      * Creates a layer for the given layered graph. The layer is not added to the
@@ -95,14 +97,28 @@ public final class Layer extends LGraphElement implements Iterable<LNode> {
     }
     
     /**
-     * Returns the index of this layer in the global list of layers. Note that
-     * this method has linear running time in the number of layers, so use it
-     * with caution.
+     * Returns the index of this layer in the global list of layers. The index is cached and
+     * validated on each call, which takes constant time. Only if the graph's list of layers was
+     * modified in a way that moved this layer, the indices of all layers are recomputed.
      * 
-     * @return the index of this layer
+     * @return the index of this layer, or -1 if the layer has not been added to its graph
      */
     public int getIndex() {
-        return owner.getLayers().indexOf(this);
+        List<Layer> layers = owner.getLayers();
+        // Work on a local copy so that concurrent readers never observe a transient value
+        int cached = index;
+        if (cached < 0 || cached >= layers.size() || layers.get(cached) != this) {
+            // The cached index is stale; reindex all layers of the graph at once
+            cached = -1;
+            int i = 0;
+            for (Layer layer : layers) {
+                if (layer == this) {
+                    cached = i;
+                }
+                layer.index = i++;
+            }
+        }
+        return cached;
     }
 
 }
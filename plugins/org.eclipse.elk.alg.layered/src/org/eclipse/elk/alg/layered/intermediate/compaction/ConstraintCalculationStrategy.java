@@ -21,7 +21,8 @@ package org.eclipse.elk.alg.layered.intermediate.compaction;
 public enum ConstraintCalculationStrategy {
 
     /**
-     * Determine constraints by a pair-wise comparison of all elements.
+     * Determine constraints by a pair-wise comparison of all elements. For larger graphs, only
+     * elements that are close to each other are compared, which yields the same constraints.
      */
     QUADRATIC,
 
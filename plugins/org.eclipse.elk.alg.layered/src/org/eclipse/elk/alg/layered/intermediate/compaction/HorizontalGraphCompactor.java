@@ -196,6 +196,10 @@ public class HorizontalGraphCompactor implements ILayoutProcessor {
      * An implementation of a {@link ISpacingsHandler} that is able to cope with the special
      * requirements of {@link LGraph}s. For instance, there are special cases for the spacing
      * between {@link CLEdge}s as opposed to {@link CLNode}s.
+     * 
+     * <p>Horizontal spacings are looked up for each pair of node types and need not meet the bound
+     * required by {@link ISpacingsHandler}. They are never used, though, since the graph is only
+     * compacted horizontally, which is constrained by vertical spacings.</p>
      */
     private final ISpacingsHandler<CNode> specialSpacingsHandler = new ISpacingsHandler<CNode>() {
         
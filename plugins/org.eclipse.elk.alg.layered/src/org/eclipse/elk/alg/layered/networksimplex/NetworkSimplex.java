@@ -14,7 +14,6 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.Set;
 import java.util.Stack;
 
 import org.eclipse.elk.alg.layered.graph.LGraph;
@@ -23,7 +22,6 @@ import org.eclipse.elk.core.util.IElkProgressMonitor;
 import org.eclipse.elk.core.util.Pair;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 
 /**
  * The main class of the network simplex layerer component. It offers an algorithm to determine an
@@ -123,8 +121,20 @@ public final class NetworkSimplex  {
     /** An {@code ArrayList} containing all edges in the graph. */
     private List<NEdge> edges;
     
-    /** A {@code HashSet} containing all edges that are part of the spanning tree. */
-    private Set<NEdge> treeEdges;
+    /**
+     * All edges that are part of the spanning tree. When a tree edge is exchanged for a non-tree
+     * edge, the new edge takes the old one's position.
+     */
+    private List<NEdge> treeEdges;
+
+    /** The position of each tree edge in {@link #treeEdges}, indexed by edge id. */
+    private int[] treeEdgeIndex;
+
+    /** The tree edges incident to each node, indexed by node id. */
+    private List<List<NEdge>> incidentTreeEdges;
+
+    /** The position in {@link #treeEdges} where the next search for a leaving edge starts. */
+    private int leaveEdgeSearchStart;
 
     /**
      * A {@code LinkedList} containing all source nodes of the graph, i.e. all nodes that have no
@@ -139,17 +149,10 @@ public final class NetworkSimplex  {
     private boolean[] edgeVisited;
 
     /**
-     * The current postorder traversal number used by {@code postorderTraversal()} to assign an
-     * unique traversal ID to each node.
+     * The postorder traversal ID of each node determined by {@code postorderTraversal()}. The IDs
+     * of the nodes of each subtree form a contiguous range that ends with the subtree's root.
      * 
-     * @see #postorderTraversal(NNode)
-     */
-    private int postOrder;
-
-    /**
-     * The postorder traversal ID of each node determined by {@code postorderTraversal()}.
-     * 
-     * @see #postorderTraversal(NNode)
+     * @see #postorderTraversal(NNode, NEdge, int)
      */
     private int[] poID;
 
@@ -157,10 +160,22 @@ public final class NetworkSimplex  {
      * The lowest postorder traversal ID of each nodes reachable through a node lower in the
      * traversal tree determined by {@code postorderTraversal}.
      * 
-     * @see #postorderTraversal(NNode)
+     * @see #postorderTraversal(NNode, NEdge, int)
      */
     private int[] lowestPoID;
 
+    /** The node with each postorder traversal ID, i.e. the inverse of {@link #poID}. */
+    private NNode[] nodeByPoID;
+
+    /** The tree edge connecting each node to its parent in the traversal tree, or {@code null}. */
+    private NEdge[] parentEdge;
+
+    /** The index of the next incident tree edge to visit for each node during postorder traversal. */
+    private int[] nextEdge;
+
+    /** The stack of nodes used during postorder traversal. */
+    private NNode[] traversalStack;
+
     /**
      * The cut value of every edge defined as follows: If the edge is deleted, the spanning tree
      * breaks into two connected components, the head component containing the target node of the
@@ -201,6 +216,10 @@ public final class NetworkSimplex  {
         }
         poID = new int[numNodes];
         lowestPoID = new int[numNodes];
+        nodeByPoID = new NNode[numNodes + 1];
+        parentEdge = new NEdge[numNodes];
+        nextEdge = new int[numNodes];
+        traversalStack = new NNode[numNodes];
         sources = Lists.newArrayList();
 
         // determine edges and re-index nodes
@@ -229,10 +248,9 @@ public final class NetworkSimplex  {
             Arrays.fill(edgeVisited, false);
         }
         edges = theEdges;
-        // we iterate over this set, thus we have to use a linked hash set 
-        // to get a deterministic iteration order
-        treeEdges = Sets.newLinkedHashSetWithExpectedSize(edges.size());
-        postOrder = 1;
+        treeEdges = Lists.newArrayListWithCapacity(numNodes);
+        treeEdgeIndex = new int[numEdges];
+        leaveEdgeSearchStart = 0;
     }
 
     /**
@@ -242,9 +260,15 @@ public final class NetworkSimplex  {
         this.cutvalue = null;
         this.edges = null;
         this.treeEdges = null;
+        this.treeEdgeIndex = null;
+        this.incidentTreeEdges = null;
         this.edgeVisited = null;
         this.lowestPoID = null;
         this.poID = null;
+        this.nodeByPoID = null;
+        this.parentEdge = null;
+        this.nextEdge = null;
+        this.traversalStack = null;
         this.sources = null;
         this.subtreeNodes = null;
     }
@@ -426,8 +450,17 @@ public final class NetworkSimplex  {
                 Arrays.fill(edgeVisited, false);
             }
             // update tree-related attributes
-            Arrays.fill(edgeVisited, false);
-            postorderTraversal(graph.nodes.iterator().next());
+            incidentTreeEdges = Lists.newArrayListWithCapacity(graph.nodes.size());
+            for (int i = 0; i < graph.nodes.size(); i++) {
+                incidentTreeEdges.add(Lists.<NEdge>newArrayList());
+            }
+            for (int i = 0; i < treeEdges.size(); i++) {
+                NEdge edge = treeEdges.get(i);
+                treeEdgeIndex[edge.id] = i;
+                incidentTreeEdges.get(edge.getSource().id).add(edge);
+                incidentTreeEdges.get(edge.getTarget().id).add(edge);
+            }
+            postorderTraversal(graph.nodes.iterator().next(), null, 1);
             cutvalues();
         }
     }
@@ -569,66 +602,79 @@ public final class NetworkSimplex  {
 
     /**
      * Helper method for the network simplex layerer. It performs a postorder DFS-traversal of the
-     * graph beginning with the input node. Each node will be assigned a unique traversal ID, which
-     * will be stored in {@code poID}. Furthermore, the lowest postorder traversal ID of any node in
-     * a descending path relative to the input node will be computed and stored in
-     * {@code lowestPoID}, which is also the return value of this method.
+     * subtree of the spanning tree rooted at the input node, not following the given parent edge.
+     * Each node will be assigned a unique traversal ID starting at the given ID, which will be
+     * stored in {@code poID}. Furthermore, the lowest postorder traversal ID of any node in the
+     * subtree of each node will be computed and stored in {@code lowestPoID}, and the tree edge
+     * leading to the parent of each node is stored in {@code parentEdge}.
      * 
-     * @param node
+     * <p>Called for the root of the spanning tree, this numbers the whole tree. Called for the root
+     * of a subtree with its current lowest ID, this renumbers the subtree after its tree edges have
+     * changed without affecting the IDs of any other node.</p>
+     * 
+     * @param root
      *            the root of the DFS-subtree
-     * @return the lowest post-order ID of any descending edge in the depth-first-search
+     * @param rootParentEdge
+     *            the tree edge connecting the root to its parent, or {@code null}
+     * @param lowest
+     *            the first postorder traversal ID to assign
      * 
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#poID poID
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#lowestPoID lowestPoID
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#postOrder postOrder
+     * @see #poID
+     * @see #lowestPoID
      */
-    private int postorderTraversal(final NNode node) {
-        int lowest = Integer.MAX_VALUE;
-        for (NEdge edge : node.getConnectedEdges()) {
-            if (edge.treeEdge && !edgeVisited[edge.id]) {
-                edgeVisited[edge.id] = true;
-                lowest = Math.min(lowest, postorderTraversal(edge.getOther(node)));
+    private void postorderTraversal(final NNode root, final NEdge rootParentEdge, final int lowest) {
+        // the traversal is iterative since the spanning tree may be very deep
+        int postOrder = lowest;
+        int top = 0;
+        parentEdge[root.id] = rootParentEdge;
+        nextEdge[root.id] = 0;
+        lowestPoID[root.id] = postOrder;
+        traversalStack[top++] = root;
+        
+        while (top > 0) {
+            NNode node = traversalStack[top - 1];
+            List<NEdge> nodeTreeEdges = incidentTreeEdges.get(node.id);
+            NNode child = null;
+            while (child == null && nextEdge[node.id] < nodeTreeEdges.size()) {
+                NEdge edge = nodeTreeEdges.get(nextEdge[node.id]++);
+                if (edge != parentEdge[node.id]) {
+                    child = edge.getOther(node);
+                    parentEdge[child.id] = edge;
+                }
+            }
+            
+            if (child != null) {
+                // descend; all IDs assigned in the child's subtree are at least the current one
+                nextEdge[child.id] = 0;
+                lowestPoID[child.id] = postOrder;
+                traversalStack[top++] = child;
+            } else {
+                // all children are numbered
+                poID[node.id] = postOrder;
+                nodeByPoID[postOrder] = node;
+                postOrder++;
+                top--;
             }
         }
-        poID[node.id] = postOrder;
-        lowestPoID[node.id] = Math.min(lowest, postOrder++);
-        return lowestPoID[node.id];
     }
 
     /**
-     * Helper method for the the network simplex layerer. It determines, whether an node is part of
-     * the head component of the given edge defined as follows: If the input edge is deleted, the
-     * spanning tree breaks into to connected components. The head component is that component,
-     * which contains the edge's target node, and the tail component is the component, which
-     * contains the edge's source node. Note that a node either belongs to the head or tail
-     * component. Therefore, if the node is not part of the head component, it must be part of the
-     * tail component and vice versa.
+     * Helper method for the network simplex layerer. It returns the endpoint of the given tree edge
+     * that lies further from the root of the spanning tree. The subtree rooted at this node is one
+     * of the two components the spanning tree breaks into when the edge is deleted; its nodes are
+     * exactly those whose postorder traversal IDs lie in the range
+     * {@code lowestPoID[n.id]..poID[n.id]} of the returned node {@code n}.
      * 
-     * @param node
-     *            the node to determine, whether it belongs to the edges head (or tail) component
-     * @param edge
-     *            the edge to determine, whether the node is in the head (or tail) component
-     * @return {@code true}, if node is in the head component or {@code false}, if the node is in
-     *         the tail component of the edge
+     * @param treeEdge
+     *            a tree edge
+     * @return the root of the subtree below the edge
      */
-    private boolean isInHead(final NNode node, final NEdge edge) {
-        NNode source = edge.getSource();
-        NNode target = edge.getTarget();
-
-        if (lowestPoID[source.id] <= poID[node.id] && poID[node.id] <= poID[source.id]
-                && lowestPoID[target.id] <= poID[node.id] && poID[node.id] <= poID[target.id]) {
-            // node is in a descending path in the DFS-Tree
-            if (poID[source.id] < poID[target.id]) {
-                // root is in the head component
-                return false;
-            }
-            return true;
-        }
-        if (poID[source.id] < poID[target.id]) {
-            // root is in the head component
-            return true;
+    private NNode subtreeRoot(final NEdge treeEdge) {
+        if (poID[treeEdge.getSource().id] < poID[treeEdge.getTarget().id]) {
+            return treeEdge.getSource();
+        } else {
+            return treeEdge.getTarget();
         }
-        return false;
     }
 
     /**
@@ -716,14 +762,19 @@ public final class NetworkSimplex  {
     /**
      * Helper method for the network simplex layerer. It returns a tree edge with a negative cut
      * value or {@code null}, if no such edge exists, meaning that the current layer assignment of
-     * all nodes is optimal. Note, that this method returns any edge with a negative cut value. A
-     * special preference to an edge with lowest value will not be given.
+     * all nodes is optimal. The search continues cyclically where the previous search stopped
+     * instead of starting at the first tree edge each time, and returns the first edge with negative
+     * cut value it finds.
      * 
      * @return a tree edge with negative cut value or {@code null}, if no such edge exists
      */
     private NEdge leaveEdge() {
-        for (NEdge edge : treeEdges) {
-            if (edge.treeEdge && cutvalue[edge.id] < 0) {
+        int treeEdgeCount = treeEdges.size();
+        for (int i = 0; i < treeEdgeCount; i++) {
+            int index = (leaveEdgeSearchStart + i) % treeEdgeCount;
+            NEdge edge = treeEdges.get(index);
+            if (cutvalue[edge.id] < 0) {
+                leaveEdgeSearchStart = index;
                 return edge;
             }
         }
@@ -734,7 +785,12 @@ public final class NetworkSimplex  {
      * Helper method for the network simplex layerer. It determines an non-tree edge to replace the
      * given tree edge in the spanning tree. All edges going from the head component to the tail
      * component of the edge will be considered. The edge with a minimal amount of slack (i.e. the
-     * lowest difference between its current to its minimal length) will be returned.
+     * lowest difference between its current to its minimal length) will be returned; among several
+     * such edges, the one with the lowest id is chosen.
+     * 
+     * <p>One of the two components is the subtree below the edge, whose nodes form a contiguous
+     * range of postorder traversal IDs. Thus, membership in either component can be tested in
+     * constant time, and it suffices to scan the edges incident to the smaller component.</p>
      * 
      * @param leave
      *            the tree edge to determine a non-tree edge to be replaced with
@@ -747,19 +803,37 @@ public final class NetworkSimplex  {
             throw new IllegalArgumentException("The input edge is not a tree edge.");
         }
 
+        NNode subtree = subtreeRoot(leave);
+        boolean subtreeIsHead = subtree == leave.getTarget();
+        int low = lowestPoID[subtree.id];
+        int lim = poID[subtree.id];
+        
+        // determine the smaller component as one or two ranges of postorder traversal IDs
+        boolean scanSubtree = 2 * (lim - low + 1) <= poID.length;
+        boolean scanHead = scanSubtree == subtreeIsHead;
+        int[] ranges = scanSubtree ? new int[] { low, lim } : new int[] { 1, low - 1, lim + 1, poID.length };
+
         NEdge replace = null;
         int repSlack = Integer.MAX_VALUE;
-        int slack;
-        NNode source, target;
-        for (NEdge edge : edges) {
-            source = edge.getSource();
-            target = edge.getTarget();
-            if (isInHead(source, leave) && !isInHead(target, leave)) {
-                // edge is to consider
-                slack = target.layer - source.layer - edge.delta;
-                if (slack < repSlack) {
-                    repSlack = slack;
-                    replace = edge;
+        for (int r = 0; r < ranges.length; r += 2) {
+            for (int id = ranges[r]; id <= ranges[r + 1]; id++) {
+                NNode node = nodeByPoID[id];
+                
+                // edges from the head to the tail component leave the head through outgoing edges and
+                // enter the tail through incoming edges
+                List<NEdge> candidates = scanHead ? node.getOutgoingEdges() : node.getIncomingEdges();
+                for (NEdge edge : candidates) {
+                    NNode other = scanHead ? edge.getTarget() : edge.getSource();
+                    int otherId = poID[other.id];
+                    boolean otherInHead = (low <= otherId && otherId <= lim) == subtreeIsHead;
+                    if (otherInHead != scanHead) {
+                        // edge is to consider
+                        int slack = edge.getTarget().layer - edge.getSource().layer - edge.delta;
+                        if (slack < repSlack || slack == repSlack && edge.id < replace.id) {
+                            repSlack = slack;
+                            replace = edge;
+                        }
+                    }
                 }
             }
         }
@@ -768,8 +842,10 @@ public final class NetworkSimplex  {
 
     /**
      * Helper method for the network simplex layerer. It exchanges the tree-edge {@code leave} by
-     * the non-tree edge {@code enter} and updates all values based on the tree (i.e. performs a new
-     * postorder DFS-traversal and updates the cut values).
+     * the non-tree edge {@code enter} and updates all values based on the tree. Following Gansner et
+     * al., only the cut values of the tree edges on the path between the endpoints of
+     * {@code enter} change, namely by the cut value of {@code leave}, and only the subtree rooted
+     * at the nearest common ancestor of those endpoints needs new postorder traversal IDs.
      * 
      * @param leave
      *            the tree-edge to be replaced
@@ -790,27 +866,95 @@ public final class NetworkSimplex  {
             throw new IllegalArgumentException("Given enter edge is a tree edge already.");
         }
 
+        // make the entering edge tight by moving the tail component of the leaving edge closer to
+        // its head component; since only relative layers matter until the layering is normalized,
+        // the head component may be moved in the opposite direction instead if it is smaller
+        int slack = enter.getTarget().layer - enter.getSource().layer - enter.delta;
+        NNode subtree = subtreeRoot(leave);
+        int subtreeDelta = subtree == leave.getSource() ? -slack : slack;
+        int low = lowestPoID[subtree.id];
+        int lim = poID[subtree.id];
+        if (2 * (lim - low + 1) <= poID.length) {
+            shiftLayers(low, lim, subtreeDelta);
+        } else {
+            shiftLayers(1, low - 1, -subtreeDelta);
+            shiftLayers(lim + 1, poID.length, -subtreeDelta);
+        }
+        
+        // update cut values along both halves of the tree path between the entering edge's endpoints
+        double leaveCutvalue = cutvalue[leave.id];
+        NNode commonAncestor = updateCutvalues(enter.getSource(), enter.getTarget(), leaveCutvalue, true);
+        updateCutvalues(enter.getTarget(), enter.getSource(), leaveCutvalue, false);
+        cutvalue[enter.id] = -leaveCutvalue;
+        cutvalue[leave.id] = 0;
+
         // update tree
         leave.treeEdge = false;
-        treeEdges.remove(leave);
         enter.treeEdge = true;
-        treeEdges.add(enter);
-        int delta = enter.getTarget().layer - enter.getSource().layer - enter.delta;
-        if (!isInHead(enter.getTarget(), leave)) {
-            delta = -delta;
+        int index = treeEdgeIndex[leave.id];
+        treeEdges.set(index, enter);
+        treeEdgeIndex[enter.id] = index;
+        incidentTreeEdges.get(leave.getSource().id).remove(leave);
+        incidentTreeEdges.get(leave.getTarget().id).remove(leave);
+        incidentTreeEdges.get(enter.getSource().id).add(enter);
+        incidentTreeEdges.get(enter.getTarget().id).add(enter);
+        
+        // the subtree of the common ancestor contains both edges; renumber it in place
+        postorderTraversal(commonAncestor, parentEdge[commonAncestor.id],
+                lowestPoID[commonAncestor.id]);
+    }
+    
+    /**
+     * Helper method for the network simplex layerer. It adds the given delta to the layer of each
+     * node whose postorder traversal ID lies in the given range.
+     * 
+     * @param from
+     *            the first postorder traversal ID
+     * @param to
+     *            the last postorder traversal ID, inclusive
+     * @param delta
+     *            the value to add to the layers
+     */
+    private void shiftLayers(final int from, final int to, final int delta) {
+        for (int id = from; id <= to; id++) {
+            nodeByPoID[id].layer += delta;
         }
-        for (NNode node : graph.nodes) {
-            if (!isInHead(node, leave)) {
-                node.layer += delta;
+    }
+    
+    /**
+     * Helper method for the network simplex layerer. It walks up the spanning tree from
+     * {@code node} until reaching an ancestor of {@code other}, which is returned, and updates the
+     * cut value of each tree edge on the way. An edge pointing upwards has the same direction as the
+     * path from {@code node} towards {@code other}; its cut value is increased by the given value if
+     * {@code increaseUpwards} is {@code true} and decreased otherwise. Edges pointing downwards are
+     * updated the other way round.
+     * 
+     * @param node
+     *            the node to start at
+     * @param other
+     *            the node whose ancestor to stop at
+     * @param delta
+     *            the value to change the cut values by
+     * @param increaseUpwards
+     *            whether to increase the cut value of edges pointing upwards
+     * @return the nearest common ancestor of {@code node} and {@code other}
+     */
+    private NNode updateCutvalues(final NNode node, final NNode other, final double delta,
+            final boolean increaseUpwards) {
+        
+        int otherId = poID[other.id];
+        NNode current = node;
+        while (!(lowestPoID[current.id] <= otherId && otherId <= poID[current.id])) {
+            NEdge edge = parentEdge[current.id];
+            boolean upwards = edge.getSource() == current;
+            if (upwards == increaseUpwards) {
+                cutvalue[edge.id] += delta;
+            } else {
+                cutvalue[edge.id] -= delta;
             }
+            current = edge.getOther(current);
         }
-        
-        // TODO it should be possible to do this incrementally right?
-        // update tree-based values
-        postOrder = 1;
-        Arrays.fill(edgeVisited, false);
-        postorderTraversal(graph.nodes.iterator().next());
-        cutvalues();
+        return current;
     }
 
     /**
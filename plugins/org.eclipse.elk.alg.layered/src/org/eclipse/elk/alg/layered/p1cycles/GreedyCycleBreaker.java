@@ -10,23 +10,17 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p1cycles;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Random;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
-import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
-import org.eclipse.elk.alg.layered.graph.LNode;
-import org.eclipse.elk.alg.layered.graph.LPort;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
 import org.eclipse.elk.alg.layered.properties.InternalProperties;
 import org.eclipse.elk.alg.layered.properties.LayeredOptions;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 
-import com.google.common.collect.Lists;
-
 /**
  * Cycle breaker implementation that uses a greedy algorithm. Inspired by
  * <ul>
@@ -63,16 +57,24 @@ public final class GreedyCycleBreaker implements ILayoutPhase {
         IntermediateProcessingConfiguration.createEmpty()
             .addAfterPhase5(IntermediateProcessorStrategy.REVERSED_EDGE_RESTORER);
 
+    /** the snapshot of the graph's structure. */
+    private LGraphSnapshot snapshot;
+    /** the weight of each edge, derived from its priority. */
+    private int[] edgeWeight;
     /** indegree values for the nodes. */
     private int[] indeg;
     /** outdegree values for the nodes. */
     private int[] outdeg;
     /** mark for the nodes, inducing an ordering of the nodes. */
     private int[] mark;
-    /** list of source nodes. */
-    private final LinkedList<LNode> sources = Lists.newLinkedList();
-    /** list of sink nodes. */
-    private final LinkedList<LNode> sinks = Lists.newLinkedList();
+    /** queue of source nodes; a node may be queued more than once. */
+    private int[] sources;
+    /** index of the first and one past the last queued source node. */
+    private int sourcesHead, sourcesTail;
+    /** queue of sink nodes; a node may be queued more than once. */
+    private int[] sinks;
+    /** index of the first and one past the last queued sink node. */
+    private int sinksHead, sinksTail;
     
     /**
      * {@inheritDoc}
@@ -89,72 +91,75 @@ public final class GreedyCycleBreaker implements ILayoutPhase {
     public void process(final LGraph layeredGraph, final IElkProgressMonitor monitor) {
         monitor.begin("Greedy cycle removal", 1);
         
-        List<LNode> nodes = layeredGraph.getLayerlessNodes();
+        // the snapshot assigns the node ids used as indices for the indeg, outdeg, and mark arrays
+        snapshot = LGraphSnapshot.ofLayerlessNodes(layeredGraph);
+        int nodeCount = snapshot.nodeCount;
+        
+        edgeWeight = new int[snapshot.edgeCount];
+        for (int edge = 0; edge < snapshot.edgeCount; edge++) {
+            int priority = snapshot.edges[edge].getProperty(LayeredOptions.PRIORITY);
+            edgeWeight[edge] = priority > 0 ? priority + 1 : 1;
+        }
 
         // initialize values for the algorithm (sum of priorities of incoming edges and outgoing
         // edges per node, and the ordering calculated for each node)
-        int unprocessedNodeCount = nodes.size();
-        indeg = new int[unprocessedNodeCount];
-        outdeg = new int[unprocessedNodeCount];
-        mark = new int[unprocessedNodeCount];
+        int unprocessedNodeCount = nodeCount;
+        indeg = new int[nodeCount];
+        outdeg = new int[nodeCount];
+        mark = new int[nodeCount];
         
-        int index = 0;
-        for (LNode node : nodes) {
-            // the node id is used as index for the indeg, outdeg, and mark arrays
-            node.id = index;
-            
-            for (LPort port : node.getPorts()) {
-                // calculate the sum of edge priorities
-                for (LEdge edge : port.getIncomingEdges()) {
-                    // ignore self-loops
-                    if (edge.getSource().getNode() == node) {
-                        continue;
-                    }
-                    
-                    int priority = edge.getProperty(LayeredOptions.PRIORITY);
-                    indeg[index] += priority > 0 ? priority + 1 : 1;
+        // every node is queued at most once initially and once per incident edge
+        sources = new int[nodeCount + snapshot.connectedEdges.length];
+        sinks = new int[nodeCount + snapshot.connectedEdges.length];
+        sourcesHead = 0;
+        sourcesTail = 0;
+        sinksHead = 0;
+        sinksTail = 0;
+        
+        for (int node = 0; node < nodeCount; node++) {
+            // calculate the sum of edge priorities, ignoring self-loops
+            for (int i = snapshot.incomingStart[node]; i < snapshot.incomingStart[node + 1]; i++) {
+                int edge = snapshot.incomingEdges[i];
+                if (!snapshot.isSelfLoop(edge)) {
+                    indeg[node] += edgeWeight[edge];
                 }
-                
-                for (LEdge edge : port.getOutgoingEdges()) {
-                    // ignore self-loops
-                    if (edge.getTarget().getNode() == node) {
-                        continue;
-                    }
-                    
-                    int priority = edge.getProperty(LayeredOptions.PRIORITY);
-                    outdeg[index] += priority > 0 ? priority + 1 : 1;
+            }
+            
+            for (int i = snapshot.outgoingStart[node]; i < snapshot.outgoingStart[node + 1]; i++) {
+                int edge = snapshot.outgoingEdges[i];
+                if (!snapshot.isSelfLoop(edge)) {
+                    outdeg[node] += edgeWeight[edge];
                 }
             }
             
             // collect sources and sinks
-            if (outdeg[index] == 0) {
-                sinks.add(node);
-            } else if (indeg[index] == 0) {
-                sources.add(node);
+            if (outdeg[node] == 0) {
+                sinks[sinksTail++] = node;
+            } else if (indeg[node] == 0) {
+                sources[sourcesTail++] = node;
             }
-            index++;
         }
         
         // next rank values used for sinks and sources (from right and from left)
         int nextRight = -1, nextLeft = 1;
 
         // assign marks to all nodes
-        List<LNode> maxNodes = Lists.newArrayList();
+        int[] maxNodes = new int[nodeCount];
         Random random = layeredGraph.getProperty(InternalProperties.RANDOM);
         
         while (unprocessedNodeCount > 0) {
             // sinks are put to the right --> assign negative rank, which is later shifted to positive
-            while (!sinks.isEmpty()) {
-                LNode sink = sinks.removeFirst();
-                mark[sink.id] = nextRight--;
+            while (sinksHead < sinksTail) {
+                int sink = sinks[sinksHead++];
+                mark[sink] = nextRight--;
                 updateNeighbors(sink);
                 unprocessedNodeCount--;
             }
             
             // sources are put to the left --> assign positive rank
-            while (!sources.isEmpty()) {
-                LNode source = sources.removeFirst();
-                mark[source.id] = nextLeft++;
+            while (sourcesHead < sourcesTail) {
+                int source = sources[sourcesHead++];
+                mark[source] = nextLeft++;
                 updateNeighbors(source);
                 unprocessedNodeCount--;
             }
@@ -162,53 +167,45 @@ public final class GreedyCycleBreaker implements ILayoutPhase {
             // while there are unprocessed nodes left that are neither sinks nor sources...
             if (unprocessedNodeCount > 0) {
                 int maxOutflow = Integer.MIN_VALUE;
+                int maxNodeCount = 0;
                 
                 // find the set of unprocessed node (=> mark == 0), with the largest out flow
-                for (LNode node : nodes) {
-                    if (mark[node.id] == 0) {
-                        int outflow = outdeg[node.id] - indeg[node.id];
+                for (int node = 0; node < nodeCount; node++) {
+                    if (mark[node] == 0) {
+                        int outflow = outdeg[node] - indeg[node];
                         if (outflow >= maxOutflow) {
                             if (outflow > maxOutflow) {
-                                maxNodes.clear();
+                                maxNodeCount = 0;
                                 maxOutflow = outflow;
                             }
-                            maxNodes.add(node);
+                            maxNodes[maxNodeCount++] = node;
                         }
                     }
                 }
                 assert maxOutflow > Integer.MIN_VALUE;
                 
                 // randomly select a node from the ones with maximal outflow and put it left
-                LNode maxNode = maxNodes.get(random.nextInt(maxNodes.size()));
-                mark[maxNode.id] = nextLeft++;
+                int maxNode = maxNodes[random.nextInt(maxNodeCount)];
+                mark[maxNode] = nextLeft++;
                 updateNeighbors(maxNode);
                 unprocessedNodeCount--;
             }
         }
 
         // shift negative ranks to positive; this applies to sinks of the graph
-        int shiftBase = nodes.size() + 1;
-        for (index = 0; index < nodes.size(); index++) {
-            if (mark[index] < 0) {
-                mark[index] += shiftBase;
+        int shiftBase = nodeCount + 1;
+        for (int node = 0; node < nodeCount; node++) {
+            if (mark[node] < 0) {
+                mark[node] += shiftBase;
             }
         }
 
-        // reverse edges that point left
-        for (LNode node : nodes) {
-            LPort[] ports = node.getPorts().toArray(new LPort[node.getPorts().size()]);
-            for (LPort port : ports) {
-                LEdge[] outgoingEdges = port.getOutgoingEdges().toArray(
-                        new LEdge[port.getOutgoingEdges().size()]);
-                
-                // look at the node's outgoing edges
-                for (LEdge edge : outgoingEdges) {
-                    int targetIx = edge.getTarget().getNode().id;
-                    if (mark[node.id] > mark[targetIx]) {
-                        edge.reverse(layeredGraph, true);
-                        layeredGraph.setProperty(InternalProperties.CYCLIC, true);
-                    }
-                }                
+        // reverse edges that point left; the snapshot still holds the original outgoing edges, so
+        // edges reversed here are not visited again
+        for (int edge = 0; edge < snapshot.edgeCount; edge++) {
+            if (mark[snapshot.edgeSource[edge]] > mark[snapshot.edgeTarget[edge]]) {
+                snapshot.edges[edge].reverse(layeredGraph, true);
+                layeredGraph.setProperty(InternalProperties.CYCLIC, true);
             }
         }
 
@@ -220,11 +217,13 @@ public final class GreedyCycleBreaker implements ILayoutPhase {
      * Release all created resources so the GC can reap them.
      */
     private void dispose() {
+        this.snapshot = null;
+        this.edgeWeight = null;
         this.indeg = null;
         this.outdeg = null;
         this.mark = null;
-        sources.clear();
-        sinks.clear();
+        this.sources = null;
+        this.sinks = null;
     }
 
     /**
@@ -232,35 +231,28 @@ public final class GreedyCycleBreaker implements ILayoutPhase {
      * simulating its removal from the graph. the sources and sinks lists are
      * also updated.
      * 
-     * @param node node for which neighbors are updated
+     * @param node index of the node for which neighbors are updated
      */
-    private void updateNeighbors(final LNode node) {
-        for (LPort port : node.getPorts()) {
-            for (LEdge edge : port.getConnectedEdges()) {
-                LPort connectedPort = edge.getSource() == port ? edge.getTarget() : edge.getSource();
-                LNode endpoint = connectedPort.getNode();
-                
-                // exclude self-loops
-                if (node == endpoint) {
-                    continue;
-                }
-                
-                int priority = edge.getProperty(LayeredOptions.PRIORITY);
-                if (priority < 0) {
-                    priority = 0;
-                }
-                int index = endpoint.id;
-                if (mark[index] == 0) {
-                    if (edge.getTarget() == connectedPort) {
-                        indeg[index] -= priority + 1;
-                        if (indeg[index] <= 0 && outdeg[index] > 0) {
-                            sources.add(endpoint);
-                        }
-                    } else {
-                        outdeg[index] -= priority + 1;
-                        if (outdeg[index] <= 0 && indeg[index] > 0) {
-                            sinks.add(endpoint);
-                        }
+    private void updateNeighbors(final int node) {
+        for (int i = snapshot.connectedStart[node]; i < snapshot.connectedStart[node + 1]; i++) {
+            int edge = snapshot.connectedEdges[i];
+            
+            // exclude self-loops
+            if (snapshot.isSelfLoop(edge)) {
+                continue;
+            }
+            
+            int endpoint = snapshot.opposite(edge, node);
+            if (mark[endpoint] == 0) {
+                if (snapshot.edgeTarget[edge] == endpoint) {
+                    indeg[endpoint] -= edgeWeight[edge];
+                    if (indeg[endpoint] <= 0 && outdeg[endpoint] > 0) {
+                        sources[sourcesTail++] = endpoint;
+                    }
+                } else {
+                    outdeg[endpoint] -= edgeWeight[edge];
+                    if (outdeg[endpoint] <= 0 && indeg[endpoint] > 0) {
+                        sinks[sinksTail++] = endpoint;
                     }
                 }
             }
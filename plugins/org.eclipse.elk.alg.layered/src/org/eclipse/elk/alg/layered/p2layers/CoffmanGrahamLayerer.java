@@ -48,8 +48,11 @@ import com.google.common.collect.Lists;
  */
 public class CoffmanGrahamLayerer implements ILayoutPhase {
 
-    /** Used during dfs of the transitive reduction algorithm. */
-    private boolean[] nodeMark;
+    /** The maximum number of words allocated for the reachability sets of the transitive reduction. */
+    private static final int REACHABILITY_WORD_BUDGET = 1 << 22;
+    /** The number of bits per word of a reachability set. */
+    private static final int BITS_PER_WORD = 64;
+    
     /** A marked edge is one that is not part of the transitive reduction. */
     private boolean[] edgeMark;
 
@@ -85,7 +88,6 @@ public class CoffmanGrahamLayerer implements ILayoutPhase {
                 e.id = edgeIndex++;
             }
         }
-        nodeMark = new boolean[index];
         edgeMark = new boolean[edgeIndex];
         inDeg = new int[index];
         outDeg = new int[index];
@@ -250,33 +252,104 @@ public class CoffmanGrahamLayerer implements ILayoutPhase {
     }
     
     /**
-     * Remove transitive edges.
+     * Remove transitive edges. An edge (u, w) is transitive if w can also be reached from u by a path
+     * of at least two edges. Self-loops are marked as well since they do not constrain the layering.
+     * 
+     * <p>Let D(v) be the set of nodes reachable from v by a path of at least one edge. The edges (u, w)
+     * are transitive for which w is contained in D(v) for some successor v of u. The sets are
+     * computed as bit sets in reverse topological order, D(v) being the union of the successors of v
+     * and their sets. To bound the memory, the bits only cover a chunk of the topologically ordered
+     * nodes at a time, and the computation is repeated for each chunk. This takes O(n m / 64) time
+     * for n nodes and m edges.</p>
      */
     private void transitiveReduction(final LGraph graph) {
-        for (LNode start : graph.getLayerlessNodes()) {
-            Arrays.fill(nodeMark, false);
-            for (LEdge out : start.getOutgoingEdges()) {
-                dfs(start, out.getTarget().getNode());
+        List<LNode> nodes = graph.getLayerlessNodes();
+        int nodeCount = nodes.size();
+        
+        // collect the successors of all nodes along with the connecting edges, ignoring self-loops
+        int[] succStart = new int[nodeCount + 1];
+        int[] succ = new int[edgeMark.length];
+        int[] succEdge = new int[edgeMark.length];
+        int[] predCount = new int[nodeCount];
+        int edgeCount = 0;
+        for (LNode v : nodes) {
+            succStart[v.id] = edgeCount;
+            for (LEdge e : v.getOutgoingEdges()) {
+                LNode w = e.getTarget().getNode();
+                if (w == v) {
+                    edgeMark[e.id] = true;
+                } else {
+                    succ[edgeCount] = w.id;
+                    succEdge[edgeCount++] = e.id;
+                    predCount[w.id]++;
+                }
             }
         }
-    }
-    
-    private void dfs(final LNode start, final LNode v) {
-        if (nodeMark[v.id]) {
-            return;
-        }
+        succStart[nodeCount] = edgeCount;
         
-        for (LEdge out : v.getOutgoingEdges()) {
-            LNode w = out.getTarget().getNode();
-            for (LEdge transitive : w.getIncomingEdges()) {
-                if (transitive.getSource().getNode() == start) {
-                    edgeMark[transitive.id] = true;
+        // compute an arbitrary topological ordering; topoPos[v] is the position of node v in it
+        int[] topoNode = new int[nodeCount];
+        int[] topoPos = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < nodeCount; v++) {
+            if (predCount[v] == 0) {
+                topoNode[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int v = topoNode[head];
+            topoPos[v] = head++;
+            for (int i = succStart[v]; i < succStart[v + 1]; i++) {
+                if (--predCount[succ[i]] == 0) {
+                    topoNode[tail++] = succ[i];
                 }
             }
-            dfs(start, w);
         }
         
-        nodeMark[v.id] = true;
+        // successors of a node come after it in the topological ordering, so a node's set only
+        // covers nodes with higher positions; each chunk covers 'words' words of positions
+        int words = Math.max(1, Math.min((nodeCount + BITS_PER_WORD - 1) / BITS_PER_WORD,
+                REACHABILITY_WORD_BUDGET / Math.max(1, nodeCount)));
+        int chunkSize = words * BITS_PER_WORD;
+        long[] reachable = new long[nodeCount * words];
+        long[] union = new long[words];
+        
+        for (int chunkStart = 0; chunkStart < nodeCount; chunkStart += chunkSize) {
+            int chunkEnd = Math.min(nodeCount, chunkStart + chunkSize);
+            
+            // nodes at positions from chunkEnd on cannot reach any node of the chunk
+            for (int pos = chunkEnd - 1; pos >= 0; pos--) {
+                int v = topoNode[pos];
+                
+                // the union of the successors' sets contains exactly the nodes reachable by
+                // paths of at least two edges
+                Arrays.fill(union, 0);
+                for (int i = succStart[v]; i < succStart[v + 1]; i++) {
+                    int wPos = topoPos[succ[i]];
+                    if (wPos < chunkEnd) {
+                        int wOffset = wPos * words;
+                        for (int k = 0; k < words; k++) {
+                            union[k] |= reachable[wOffset + k];
+                        }
+                    }
+                }
+                
+                // mark the transitive edges and add the successors themselves
+                int vOffset = pos * words;
+                System.arraycopy(union, 0, reachable, vOffset, words);
+                for (int i = succStart[v]; i < succStart[v + 1]; i++) {
+                    int bit = topoPos[succ[i]] - chunkStart;
+                    if (bit >= 0 && bit < chunkSize) {
+                        long mask = 1L << bit;
+                        if ((union[bit / BITS_PER_WORD] & mask) != 0) {
+                            edgeMark[succEdge[i]] = true;
+                        }
+                        reachable[vOffset + bit / BITS_PER_WORD] |= mask;
+                    }
+                }
+            }
+        }
     }
     
     /* ----------------------------------------------------------------------------------------------------------
@@ -10,14 +10,13 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p2layers;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
-import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
-import org.eclipse.elk.alg.layered.graph.LNode;
-import org.eclipse.elk.alg.layered.graph.LPort;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
 import org.eclipse.elk.alg.layered.properties.LayeredOptions;
@@ -61,6 +60,8 @@ public final class LongestPathLayerer implements ILayoutPhase {
 
     /** the layered graph to which layers are added. */
     private LGraph layeredGraph;
+    /** the snapshot of the graph's structure. */
+    private LGraphSnapshot snapshot;
     /** map of nodes to their height in the layering. */
     private int[] nodeHeights;
     
@@ -97,28 +98,24 @@ public final class LongestPathLayerer implements ILayoutPhase {
         monitor.begin("Longest path layering", 1);
         
         layeredGraph = thelayeredGraph;
-        List<LNode> nodes = layeredGraph.getLayerlessNodes();
         
-        // initialize values required for the computation
-        nodeHeights = new int[nodes.size()];
-        int index = 0;
-        for (LNode node : nodes) {
-            // the node id is used as index for the nodeHeights array
-            node.id = index;
-            nodeHeights[index] = -1;
-            index++;
-        }
+        // initialize values required for the computation; the snapshot assigns the node ids used
+        // as indices for the nodeHeights array
+        snapshot = LGraphSnapshot.ofLayerlessNodes(layeredGraph);
+        nodeHeights = new int[snapshot.nodeCount];
+        Arrays.fill(nodeHeights, -1);
         
         // process all nodes
-        for (LNode node : nodes) {
+        for (int node = 0; node < snapshot.nodeCount; node++) {
             visit(node);
         }
         
         // empty the list of unlayered nodes
-        nodes.clear();
+        layeredGraph.getLayerlessNodes().clear();
         
         // release the created resources
         this.layeredGraph = null;
+        this.snapshot = null;
         this.nodeHeights = null;
         
         monitor.done();
@@ -128,25 +125,23 @@ public final class LongestPathLayerer implements ILayoutPhase {
     /**
      * Visit a node: if not already visited, find the longest path to a sink.
      * 
-     * @param node node to visit
+     * @param node index of the node to visit
      * @return height of the given node in the layered graph
      */
-    private int visit(final LNode node) {
-        int height = nodeHeights[node.id];
+    private int visit(final int node) {
+        int height = nodeHeights[node];
         if (height >= 0) {
             // the node was already visited (the case height == 0 should never occur)
             return height;
         } else {
             int maxHeight = 1;
-            for (LPort port : node.getPorts()) {
-                for (LEdge edge : port.getOutgoingEdges()) {
-                    LNode targetNode = edge.getTarget().getNode();
-                    
-                    // ignore self-loops
-                    if (node != targetNode) {
-                        int targetHeight = visit(targetNode);
-                        maxHeight = Math.max(maxHeight, targetHeight + 1);
-                    }
+            for (int i = snapshot.outgoingStart[node]; i < snapshot.outgoingStart[node + 1]; i++) {
+                int edge = snapshot.outgoingEdges[i];
+                
+                // ignore self-loops
+                if (!snapshot.isSelfLoop(edge)) {
+                    int targetHeight = visit(snapshot.edgeTarget[edge]);
+                    maxHeight = Math.max(maxHeight, targetHeight + 1);
                 }
             }
             putNode(node, maxHeight);
@@ -157,11 +152,11 @@ public final class LongestPathLayerer implements ILayoutPhase {
     /**
      * Puts the given node into the layered graph, adding new layers as necessary.
      * 
-     * @param node a node
+     * @param node index of a node
      * @param height height of the layer where the node shall be added
      *          (height = number of layers - layer index)
      */
-    private void putNode(final LNode node, final int height) {
+    private void putNode(final int node, final int height) {
         List<Layer> layers = layeredGraph.getLayers();
         
         // add layers so as to guarantee that number of layers >= height
@@ -170,8 +165,8 @@ public final class LongestPathLayerer implements ILayoutPhase {
         }
         
         // layer index = number of layers - height
-        node.setLayer(layers.get(layers.size() - height));
-        nodeHeights[node.id] = height;
+        snapshot.nodes[node].setLayer(layers.get(layers.size() - height));
+        nodeHeights[node] = height;
     }
 
 }
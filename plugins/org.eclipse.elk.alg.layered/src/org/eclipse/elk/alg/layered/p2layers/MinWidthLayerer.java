@@ -10,11 +10,14 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p2layers;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
@@ -30,7 +33,6 @@ import org.eclipse.elk.core.util.Pair;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
-import com.google.common.collect.Sets;
 
 /**
  * Implementation of the heuristic MinWidth for solving the NP-hard minimum-width layering problem
@@ -118,6 +120,14 @@ public final class MinWidthLayerer implements ILayoutPhase {
     private int[] inDegree;
     private int[] outDegree;
 
+    // Distinct successors and predecessors of nodes without self loops as ids, indexed by node.id
+    private int[][] successors;
+    private int[][] predecessors;
+    // The nodes in the order in which they are considered for placement, and the position of each
+    // node in that order, indexed by node.id
+    private LNode[] sortedNodes;
+    private int[] sortedPosition;
+
     /**
      * {@inheritDoc}
      */
@@ -189,13 +199,18 @@ public final class MinWidthLayerer implements ILayoutPhase {
         // Divide sum of normalized node sizes by the number of nodes to get an actual mean.
         avgSize /= numOfNodes;
 
-        // Precalculate the successors of all nodes (as a Set) and put them in a list.
-        List<Set<LNode>> nodeSuccessors = precalcSuccessors(notInserted);
+        // Precalculate the successors and predecessors of all nodes.
+        precalcNeighbors(notInserted);
 
         // Guarantee ConditionSelect from the paper, which states that nodes with maximum out-degree
         // should be preferred during layer placement, by ordering the nodes by descending maximum
         // out-degree in advance.
         notInserted.sort(Collections.reverseOrder(new MinOutgoingEdgesComparator()));
+        sortedNodes = notInserted.toArray(new LNode[numOfNodes]);
+        sortedPosition = new int[numOfNodes];
+        for (int pos = 0; pos < numOfNodes; pos++) {
+            sortedPosition[sortedNodes[pos].id] = pos;
+        }
 
         // minimum width of a layer of maximum size in a computed layering (primary criterion used
         // for comparison, if more than one layering is computed). It's a double as it takes in
@@ -227,25 +242,64 @@ public final class MinWidthLayerer implements ILayoutPhase {
         }
 
         // … Depending on the start- and end-values, this nested for-loop will last for up to 8
-        // iterations resulting in one, two, four or eight different layerings.
+        // iterations resulting in one, two, four or eight different layerings. The layerings are
+        // independent of each other and may thus be computed concurrently.
+        final List<int[]> parameters = Lists.newArrayList();
         for (int ubw = ubwStart; ubw <= ubwEnd; ubw++) {
             for (int c = cStart; c <= cEnd; c++) {
-                Pair<Double, List<List<LNode>>> result =
-                        computeMinWidthLayering(ubw, c, notInserted, nodeSuccessors);
-                double newWidth = result.getFirst();
-                List<List<LNode>> layering = result.getSecond();
-
-                // Important if more than one layering is computed: replace the current candidate
-                // layering with a newly computed one, if it is narrower or has the same maximum
-                // width but less layers.
-                int newNumOfLayers = layering.size();
-                if (newWidth < minWidth
-                        || (newWidth == minWidth && newNumOfLayers < minNumOfLayers)) {
-                    minWidth = newWidth;
-                    minNumOfLayers = newNumOfLayers;
-                    candidateLayering = layering;
+                parameters.add(new int[] { ubw, c });
+            }
+        }
+
+        List<Pair<Double, List<List<LNode>>>> results = Lists.newArrayListWithCapacity(parameters.size());
+        if (parameters.size() > 1
+                && layeredGraph.getProperty(LayeredOptions.LAYERING_MIN_WIDTH_PARALLEL)) {
+            List<ForkJoinTask<Pair<Double, List<List<LNode>>>>> tasks =
+                    Lists.newArrayListWithCapacity(parameters.size());
+            for (final int[] params : parameters) {
+                tasks.add(ForkJoinPool.commonPool().submit(
+                        () -> computeMinWidthLayering(params[0], params[1])));
+            }
+            
+            // Wait for all layerings before rethrowing the first failure, if any; joining only
+            // throws unchecked exceptions and errors
+            Throwable failure = null;
+            for (ForkJoinTask<Pair<Double, List<List<LNode>>>> task : tasks) {
+                try {
+                    results.add(task.join());
+                } catch (Throwable exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    }
                 }
             }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        } else {
+            for (int[] params : parameters) {
+                results.add(computeMinWidthLayering(params[0], params[1]));
+            }
+        }
+
+        // The layerings are compared in the order of their parameters, so the result doesn't
+        // depend on whether they have been computed concurrently
+        for (Pair<Double, List<List<LNode>>> result : results) {
+            double newWidth = result.getFirst();
+            List<List<LNode>> layering = result.getSecond();
+
+            // Important if more than one layering is computed: replace the current candidate
+            // layering with a newly computed one, if it is narrower or has the same maximum
+            // width but less layers.
+            int newNumOfLayers = layering.size();
+            if (newWidth < minWidth
+                    || (newWidth == minWidth && newNumOfLayers < minNumOfLayers)) {
+                minWidth = newWidth;
+                minNumOfLayers = newNumOfLayers;
+                candidateLayering = layering;
+            }
         }
 
         // Finally, add the winning layering to the Klay layered data structures.
@@ -264,41 +318,70 @@ public final class MinWidthLayerer implements ILayoutPhase {
         // delete them.
         notInserted.clear();
 
+        // Release the data structures that are no longer needed
+        inDegree = null;
+        outDegree = null;
+        normSize = null;
+        successors = null;
+        predecessors = null;
+        sortedNodes = null;
+        sortedPosition = null;
+
         progressMonitor.done();
     }
 
     /**
-     * Calculates for a given Collection of {@link LNode} all its successors (i.e. a Set of
-     * {@link LNode}s) without self-loops.
+     * Calculates for each of the given nodes the ids of its distinct successors and predecessors,
+     * ignoring self-loops. The ids of the nodes have to be set to their index in the collection.
      * 
      * @param nodes
      *            a Collection of {@link LNode}
-     * @return List of Set of successor {@link LNode}s in order of the given nodes
      */
-    private List<Set<LNode>> precalcSuccessors(final Collection<LNode> nodes) {
-        List<Set<LNode>> successors = Lists.newArrayListWithCapacity(nodes.size());
-
-        for (LNode node : nodes) {
+    private void precalcNeighbors(final Collection<LNode> nodes) {
+        int numOfNodes = nodes.size();
+        successors = new int[numOfNodes][];
+        predecessors = new int[numOfNodes][];
 
-            Set<LNode> outNodes = Sets.newHashSet();
-            Iterable<LEdge> outEdges = node.getOutgoingEdges();
+        // Marks the neighbors already collected for the current node to skip multi-edges
+        int[] collectedFor = new int[numOfNodes];
+        Arrays.fill(collectedFor, -1);
+        int[] buffer = new int[numOfNodes];
 
-            for (LEdge edge : outEdges) {
-                if (!isSelfLoopTest.apply(edge)) {
-                    outNodes.add(edge.getTarget().getNode());
+        for (LNode node : nodes) {
+            int count = 0;
+            for (LEdge edge : node.getOutgoingEdges()) {
+                int target = edge.getTarget().getNode().id;
+                if (!isSelfLoopTest.apply(edge) && collectedFor[target] != node.id) {
+                    collectedFor[target] = node.id;
+                    buffer[count++] = target;
                 }
             }
-
-            successors.add(outNodes);
+            successors[node.id] = Arrays.copyOf(buffer, count);
         }
 
-        return successors;
+        // The predecessors are derived from the successors, so both agree on how multi-edges count
+        int[] predecessorCount = new int[numOfNodes];
+        for (int[] nodeSuccessors : successors) {
+            for (int target : nodeSuccessors) {
+                predecessorCount[target]++;
+            }
+        }
+        for (int id = 0; id < numOfNodes; id++) {
+            predecessors[id] = new int[predecessorCount[id]];
+            predecessorCount[id] = 0;
+        }
+        for (int id = 0; id < numOfNodes; id++) {
+            for (int target : successors[id]) {
+                predecessors[target][predecessorCount[target]++] = id;
+            }
+        }
     }
 
     /**
      * 
-     * Computes a layering (as a List of Lists) for a given Iterable of {@link LNode} according to
-     * the MinWidth-heuristic and considering actual node sizes.
+     * Computes a layering (as a List of Lists) of the sorted nodes according to the
+     * MinWidth-heuristic and considering actual node sizes. All state that is modified lives in
+     * local variables, so several layerings can be computed concurrently.
      * 
      * @param upperBoundOnWidth
      *            Defines a loose upper bound on the width of the MinWidth layerer. Uses integer
@@ -310,23 +393,15 @@ public final class MinWidthLayerer implements ILayoutPhase {
      *            of layers which haven't been determined yet, but whose maximum width had been
      *            (roughly) estimated by the MinWidth algorithm. Compensates for too high
      *            estimations.
-     * @param nodes
-     *            Iterable of all nodes of the Graph. The {@code id} of the nodes have to be set to
-     *            the index where the respective Set of successor-nodes are stored in the List
-     *            {@code nodeSuccessors}.
-     * @param nodeSuccessors
-     *            precomputed List of Set of successor-nodes of the elements in the Iterable
-     *            {@code nodes}.
      * @return a pair of a double reperesenting the maximum width of the resulting layering
      *         (normalized by the smallest real node) and the layering itself as a list of list of
      *         nodes
      */
     private Pair<Double, List<List<LNode>>> computeMinWidthLayering(final int upperBoundOnWidth,
-            final int compensator, final Iterable<LNode> nodes,
-            final List<Set<LNode>> nodeSuccessors) {
+            final int compensator) {
 
         List<List<LNode>> layers = Lists.newArrayList();
-        Set<LNode> unplacedNodes = Sets.newLinkedHashSet(nodes);
+        int unplacedCount = sortedNodes.length;
 
         // One of the deviations from the paper is, that our upper bound is taking node sizes into
         // account:
@@ -337,12 +412,21 @@ public final class MinWidthLayerer implements ILayoutPhase {
         int outDeg = 0;
 
         // The actual algorithm from the paper begins here:
-        // In the Paper the first Set contains all nodes, which have already been placed (in this
-        // version we consider only the nodes already placed in the current layer), and the
+        // In the Paper the first Set contains all nodes, which have already been placed, and the
         // second contains all nodes already placed in layers which have been determined before the
-        // currentLayer.
-        Set<LNode> alreadyPlacedInCurrentLayer = Sets.newHashSet();
-        Set<LNode> alreadyPlacedInOtherLayers = Sets.newHashSet();
+        // currentLayer. A node may be placed once all its successors are in the second set. We
+        // count the successors that aren't in the second set yet for each node, and keep the
+        // positions of the unplaced nodes where that number has dropped to zero. The first node in
+        // order is the one the paper selects.
+        int[] successorsNotInOtherLayers = new int[sortedNodes.length];
+        BitSet selectable = new BitSet(sortedNodes.length);
+        for (int pos = 0; pos < sortedNodes.length; pos++) {
+            int id = sortedNodes[pos].id;
+            successorsNotInOtherLayers[id] = successors[id].length;
+            if (successors[id].length == 0) {
+                selectable.set(pos);
+            }
+        }
 
         // Set up the first layer (algorithm is bottom up, so the List layer is going to be reversed
         // at the end.
@@ -362,17 +446,17 @@ public final class MinWidthLayerer implements ILayoutPhase {
         double goingOutFromThisLayer = 0;
         // No need for a variable "comingIntoThisLayer" as "widthUp" already gets the job done.
 
-        while (!unplacedNodes.isEmpty()) {
-            // Find a node, whose edges only point to nodes in the Set alreadyPlacedInOtherLayers;
-            // will return {@code null} if such a node doesn't exist.
-            LNode currentNode =
-                    selectNode(unplacedNodes, nodeSuccessors, alreadyPlacedInOtherLayers);
+        while (unplacedCount > 0) {
+            // Find a node, whose edges only point to nodes already placed in other layers; there is
+            // no such node if the set of selectable nodes is empty.
+            int selected = selectable.nextSetBit(0);
+            LNode currentNode = selected < 0 ? null : sortedNodes[selected];
 
             // If a node is found in the previous step:
             if (currentNode != null) {
-                unplacedNodes.remove(currentNode);
+                selectable.clear(selected);
+                unplacedCount--;
                 currentLayer.add(currentNode);
-                alreadyPlacedInCurrentLayer.add(currentNode);
 
                 outDeg = this.outDegree[currentNode.id];
                 // Take node sizes in account: use the normalized size of current node and the
@@ -400,13 +484,21 @@ public final class MinWidthLayerer implements ILayoutPhase {
             // outgoing edges are left for being considered for the current layer; or:
             // 3.2) The estimated width of the not yet determined layers is greater than the
             // scaling factor/compensator times the upper bound on the width.
-            if (currentNode == null || unplacedNodes.isEmpty()
+            if (currentNode == null || unplacedCount == 0
                     || (widthCurrent >= ubwConsiderSize && outDeg < 1)
                     || widthUp >= compensator * ubwConsiderSize) {
+                
+                // The nodes of the finished layer now count as placed in other layers, which may
+                // make their predecessors selectable
+                for (LNode node : currentLayer) {
+                    for (int pred : predecessors[node.id]) {
+                        if (--successorsNotInOtherLayers[pred] == 0) {
+                            selectable.set(sortedPosition[pred]);
+                        }
+                    }
+                }
                 layers.add(currentLayer);
                 currentLayer = Lists.newArrayList();
-                alreadyPlacedInOtherLayers.addAll(alreadyPlacedInCurrentLayer);
-                alreadyPlacedInCurrentLayer.clear();
 
                 // Remove all edges from the dummy node count, which are starting at a node placed
                 // in this layer …
@@ -428,30 +520,6 @@ public final class MinWidthLayerer implements ILayoutPhase {
         return Pair.of(maxWidth, layers);
     }
 
-    /**
-     * Returns the first {@link LNode} in the given Set, whose outgoing edges end only in nodes of
-     * the Set {@code targets}. Self-loops are ignored.
-     * 
-     * Warning: Returns {@code null}, if such a node doesn't exist.
-     * 
-     * @param nodes
-     *            Set to choose {@link LNode} from
-     * @param targets
-     *            Set of {@link LNode}
-     * @return chosen {@link LNode} from {@code nodes}, whose outgoing edges all end in a node
-     *         contained in {@code targets}. Returns {@code null}, if such a node doesn't exist.
-     */
-    private LNode selectNode(final Set<LNode> nodes, final List<Set<LNode>> successors,
-            final Set<LNode> targets) {
-
-        for (LNode node : nodes) {
-            if (targets.containsAll(successors.get(node.id))) {
-                return node;
-            }
-        }
-        return null;
-    }
-
     /**
      * Returns the number of {@link LEdge} edges in the given Iterable, but ignores self-loops.
      * 
@@ -13,14 +13,13 @@ package org.eclipse.elk.alg.layered.p2layers;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
 import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.graph.LNode;
-import org.eclipse.elk.alg.layered.graph.LPort;
 import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
 import org.eclipse.elk.alg.layered.networksimplex.NEdge;
@@ -32,7 +31,6 @@ import org.eclipse.elk.alg.layered.properties.WideNodesStrategy;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 /**
  * The main class of the network simplex layerer component. It offers an algorithm to determine an
@@ -82,17 +80,11 @@ public final class NetworkSimplexLayerer implements ILayoutPhase {
     /** The layered graph all methods in this class operate on. */
     private LGraph layeredGraph;
 
-    /**
-     * A {@code LinkedList} containing all nodes of the currently identified connected component by
-     * {@code connectedComponents()}.
-     * 
-     * @see #connectedComponents(List)
-     */
-    private List<LNode> componentNodes;
+    /** The snapshot of the graph's structure. */
+    private LGraphSnapshot snapshot;
 
     /**
-     * A flag indicating whether a specified node has been visited during DFS-traversal. This array
-     * has to be filled with {@code false} each time, before a DFS-based method is invoked.
+     * A flag indicating whether a specified node has been visited during DFS-traversal.
      */
     private boolean[] nodeVisited;
 
@@ -128,122 +120,122 @@ public final class NetworkSimplexLayerer implements ILayoutPhase {
 
     /**
      * Helper method for the network simplex layerer. It determines all connected components of the
-     * graph given by a {@code Collection} containing all nodes of the graph.
+     * snapshot's nodes.
      * 
-     * @param theNodes
-     *            a {@code Collection} containing all nodes of the graph to determine the connected
-     *            components
-     * @return a {@code LinkedList} of {@code LinkedLists} containing all nodes of every connected
+     * @return a {@code LinkedList} of arrays containing the indices of all nodes of every connected
      *         component
-     * 
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#connectedComponentsDFS(LNode)
-     *      connectedComponentsDFS()
      */
-    private List<List<LNode>> connectedComponents(final List<LNode> theNodes) {
+    private List<int[]> connectedComponents() {
         // initialize required attributes
-        if (nodeVisited == null || nodeVisited.length < theNodes.size()) {
-            nodeVisited = new boolean[theNodes.size()];
-        } else {
-            Arrays.fill(nodeVisited, false);
-        }
-        componentNodes = Lists.newArrayList();
+        nodeVisited = new boolean[snapshot.nodeCount];
+        int[] componentNodes = new int[snapshot.nodeCount];
+        int[] stackNode = new int[snapshot.nodeCount];
+        int[] stackCursor = new int[snapshot.nodeCount];
 
-        // re-index nodes
-        int counter = 0;
-        for (LNode node : theNodes) {
-            node.id = counter++;
-        }
         // determine connected components
-        LinkedList<List<LNode>> components = Lists.newLinkedList();
-        for (LNode node : theNodes) {
-            if (!nodeVisited[node.id]) {
-                connectedComponentsDFS(node);
+        LinkedList<int[]> components = Lists.newLinkedList();
+        for (int node = 0; node < snapshot.nodeCount; node++) {
+            if (!nodeVisited[node]) {
+                int componentSize = connectedComponentsDFS(node, componentNodes, stackNode, stackCursor);
                 // connected component with the most nodes should be layered first to guarantee
                 // reusability of attribute instances
-                if (components.isEmpty() || components.getFirst().size() < componentNodes.size()) {
-                    components.addFirst(componentNodes);
+                int[] component = Arrays.copyOf(componentNodes, componentSize);
+                if (components.isEmpty() || components.getFirst().length < componentSize) {
+                    components.addFirst(component);
                 } else {
-                    components.addLast(componentNodes);
+                    components.addLast(component);
                 }
-                componentNodes = Lists.newArrayList();
             }
         }
         return components;
     }
 
     /**
-     * Helper method for the connected components determination. It determines all nodes, that are
+     * Helper method for the connected components determination. It determines all nodes that are
      * connected with the input node (i.e. all nodes of that connected component the input node is
-     * part of) and adds them to {@code componentNodes}.
+     * part of) in depth-first preorder. The traversal uses an explicit stack so that long paths do
+     * not overflow the call stack.
      * 
-     * @param node
-     *            the root of the DFS-subtree
-     * @return a {@code LinkedList} containing all nodes reachable through a path beginning at the
-     *         input node (i.e. all nodes connected to the input node)
-     * 
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#connectedComponents(List)
-     *      connectedComponents()
-     * @see de.cau.cs.kieler.klay.layered.p2layers.NetworkSimplexLayerer#componentNodes
-     *      componentNodes
+     * @param root
+     *            the root of the DFS tree
+     * @param componentNodes
+     *            array the nodes of the component are written to
+     * @param stackNode
+     *            array used as stack of the nodes currently being visited
+     * @param stackCursor
+     *            array holding the next position in each stacked node's range of connected edges
+     * @return the number of nodes in the component
      */
-    private void connectedComponentsDFS(final LNode node) {
-        nodeVisited[node.id] = true;
+    private int connectedComponentsDFS(final int root, final int[] componentNodes,
+            final int[] stackNode, final int[] stackCursor) {
         
-        // node is part of the current connected component
-        componentNodes.add(node);
-        LNode opposite;
+        int stackSize = 0;
+        int componentSize = 0;
+
+        nodeVisited[root] = true;
+        componentNodes[componentSize++] = root;
+        stackNode[stackSize] = root;
+        stackCursor[stackSize++] = snapshot.connectedStart[root];
         
-        // continue with next nodes, if not already visited
-        for (LPort port : node.getPorts()) {
-            for (LEdge edge : port.getConnectedEdges()) {
-                opposite = getOpposite(port, edge).getNode();
-                if (!nodeVisited[opposite.id]) {
-                    connectedComponentsDFS(opposite);
+        while (stackSize > 0) {
+            int node = stackNode[stackSize - 1];
+            int cursor = stackCursor[stackSize - 1];
+            if (cursor < snapshot.connectedStart[node + 1]) {
+                stackCursor[stackSize - 1] = cursor + 1;
+                
+                // continue with the next node, if not already visited
+                int opposite = snapshot.opposite(snapshot.connectedEdges[cursor], node);
+                if (!nodeVisited[opposite]) {
+                    nodeVisited[opposite] = true;
+                    componentNodes[componentSize++] = opposite;
+                    stackNode[stackSize] = opposite;
+                    stackCursor[stackSize++] = snapshot.connectedStart[opposite];
                 }
+            } else {
+                stackSize--;
             }
         }
+        return componentSize;
     }
 
     /**
-     * Helper method for the network simplex layerer. It instantiates all necessary attributes for
-     * the execution of the network simplex layerer and initializes them with their default values.
-     * All edges in the connected component given by the input argument will be determined, as well
-     * as the number of incoming and outgoing edges of each node ( {@code inDegree}, respectively
-     * {@code outDegree}). All sinks and source nodes in the connected component identified in this
-     * step will be added to {@code sinks}, respectively {@code sources}.
+     * Helper method for the network simplex layerer. It transforms the connected component given by
+     * the input argument into a network simplex graph. Edges are weighted by their priority.
      * 
-     * @param theNodes
-     *            a {@code Collection} containing all nodes of the graph
+     * @param component
+     *            the indices of all nodes of a connected component
+     * @param nodeMap
+     *            array the created network simplex nodes are stored in, indexed by node index
+     * @return the network simplex graph
      */
-    private NGraph initialize(final List<LNode> theNodes) {
-
-        final Map<LNode, NNode> nodeMap = Maps.newHashMap();
+    private NGraph initialize(final int[] component, final NNode[] nodeMap) {
         
         // transform nodes
         int counter = 0;
         NGraph graph = new NGraph();
-        for (LNode lNode : theNodes) {
-            NNode nNode = NNode.of()
-                               .id(counter++)
-                               .origin(lNode)
-                               .create(graph);
-            nodeMap.put(lNode, nNode);
+        for (int node : component) {
+            nodeMap[node] = NNode.of()
+                                 .id(counter++)
+                                 .origin(snapshot.nodes[node])
+                                 .create(graph);
         }
         
         // transform edges
-        for (LNode lNode : theNodes) {
-            for (LEdge lEdge : lNode.getOutgoingEdges()) {
+        for (int node : component) {
+            for (int i = snapshot.outgoingStart[node]; i < snapshot.outgoingStart[node + 1]; i++) {
+                int edge = snapshot.outgoingEdges[i];
                 
                 // ignore self-loops
-                if (lEdge.isSelfLoop()) {
+                if (snapshot.isSelfLoop(edge)) {
                     continue;
                 }
                 
+                LEdge lEdge = snapshot.edges[edge];
                 NEdge.of(lEdge)
                      .weight(1 * Math.max(1, lEdge.getProperty(LayeredOptions.PRIORITY)))
                      .delta(1)
-                     .source(nodeMap.get(lEdge.getSource().getNode()))
-                     .target(nodeMap.get(lEdge.getTarget().getNode()))
+                     .source(nodeMap[node])
+                     .target(nodeMap[snapshot.edgeTarget[edge]])
                      .create();
             }
         }
@@ -256,7 +248,7 @@ public final class NetworkSimplexLayerer implements ILayoutPhase {
      * Release all created resources so the GC can reap them.
      */
     private void dispose() {
-        this.componentNodes = null;
+        this.snapshot = null;
         this.layeredGraph = null;
         this.nodeVisited = null;
     }
@@ -292,14 +284,16 @@ public final class NetworkSimplexLayerer implements ILayoutPhase {
             monitor.done();
             return;
         }
+        snapshot = LGraphSnapshot.ofLayerlessNodes(layeredGraph);
+        NNode[] nodeMap = new NNode[snapshot.nodeCount];
 
         // layer graph, each connected component separately
-        for (List<LNode> connComp : connectedComponents(theNodes)) {
+        for (int[] connComp : connectedComponents()) {
             
             // determine a limit on the number of iterations
-            int iterLimit = thoroughness * (int) Math.sqrt(connComp.size());
+            int iterLimit = thoroughness * (int) Math.sqrt(connComp.length);
 
-            NGraph graph = initialize(connComp);
+            NGraph graph = initialize(connComp, nodeMap);
 
             // execute the network simplex algorithm on the (sub-)graph
             NetworkSimplex.forGraph(graph).withIterationLimit(iterLimit)
@@ -327,26 +321,4 @@ public final class NetworkSimplexLayerer implements ILayoutPhase {
         monitor.done();
     }
 
-    /**
-     * Helper method for the network simplex layerer. It returns the port that is connected to the
-     * opposite side of the specified edge from the viewpoint of the input port.
-     * 
-     * @param port
-     *            the port to get the opposite port from
-     * @param edge
-     *            the edge to consider when determining the opposite port
-     * @return the opposite port from the viewpoint of the given port
-     * 
-     * @throws IllegalArgumentException
-     *             if the input edge is not connected to the input port
-     */
-    private LPort getOpposite(final LPort port, final LEdge edge) {
-        if (edge.getSource().equals(port)) {
-            return edge.getTarget();
-        } else if (edge.getTarget().equals(port)) {
-            return edge.getSource();
-        }
-        throw new IllegalArgumentException("Input edge is not connected to the input port.");
-    }
-
 }
@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p3order;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
@@ -26,9 +30,9 @@ import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
 import org.eclipse.elk.alg.layered.p3order.BarycenterHeuristic.BarycenterState;
 import org.eclipse.elk.alg.layered.p3order.constraints.ForsterConstraintResolver;
 import org.eclipse.elk.alg.layered.p3order.constraints.IConstraintResolver;
-import org.eclipse.elk.alg.layered.p3order.counting.AbstractCrossingsCounter;
-import org.eclipse.elk.alg.layered.p3order.counting.BarthJuengerMutzelCrossingsCounter;
 import org.eclipse.elk.alg.layered.p3order.counting.HyperedgeCrossingsCounter;
+import org.eclipse.elk.alg.layered.p3order.counting.IncrementalCrossingsCounter;
+import org.eclipse.elk.alg.layered.p3order.counting.IncrementalCrossingsCounter.LayerPairEdges;
 import org.eclipse.elk.alg.layered.properties.GraphProperties;
 import org.eclipse.elk.alg.layered.properties.InternalProperties;
 import org.eclipse.elk.alg.layered.properties.PortType;
@@ -97,39 +101,39 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
     }
     
     /**
-     * Array of port ranks used for sorting nodes and ports.
+     * Number of layers of the graph being processed.
      */
-    private float[] portRanks;
+    private int layerCount;
     /**
-     * Complete node order of the best layer sweep.
+     * Number of ports of the graph being processed.
      */
-    private LNode[][] bestSweep;
+    private int portCount;
     /**
-     * Complete node order of the current layer sweep.
+     * Initial node order of each layer.
      */
-    private LNode[][] curSweep;
+    private LNode[][] initialOrder;
     /**
-     * Complete node order of the previous layer sweep.
+     * The number of in-layer edges for each layer, including virtual connections to north/south
+     * dummies.
      */
-    private LNode[][] prevSweep;
+    private int[] inLayerEdgeCount;
     /**
-     * Crossings counter for normal edges.
+     * Whether the layers contain north / south port dummies or not.
      */
-    private BarthJuengerMutzelCrossingsCounter normalCrossingsCounter;
+    private boolean[] hasNorthSouthPorts;
     /**
-     * Crossings counter for hyperedges.
+     * Whether the layers contain hyperedges or not.
      */
-    private HyperedgeCrossingsCounter hyperedgeCrossingsCounter;
+    private boolean[] hasHyperedgesEast;
+    private boolean[] hasHyperedgesWest;
     /**
-     * Both of the two previous crossing counters use the same 
-     * code to count in-layer crossings.
+     * Whether a counter for hyperedges is required.
      */
-    private AbstractCrossingsCounter inlayerCrossingsCounter;
+    private boolean needsHyperedgeCounter;
     /**
-     * Whether the layers contain hyperedges or not.
+     * The edges between adjacent layers, shared by the crossings counters of all sweepers.
      */
-    private boolean[] hasHyperedgesEast;
-    private boolean[] hasHyperedgesWest;
+    private LayerPairEdges layerPairEdges;
     /**
      * Layout units represented by a single node.
      */
@@ -139,26 +143,24 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
      * Initialize all data for the layer sweep crossing minimizer.
      * 
      * @param layeredGraph a layered graph
+     * @param parallel whether runs will be executed concurrently
      */
-    private void initialize(final LGraph layeredGraph) {
-        int layerCount = layeredGraph.getLayers().size();
+    private void initialize(final LGraph layeredGraph, final boolean parallel) {
+        layerCount = layeredGraph.getLayers().size();
 
-        // Remember the best, current and previous sweep; they basically save the node oder
-        // per layer for the different sweeps of the algorithm
-        bestSweep = new LNode[layerCount][];
-        curSweep = new LNode[layerCount][];
-        prevSweep = new LNode[layerCount][];
+        // Remember the initial node order per layer, which is where the sweeps start from
+        initialOrder = new LNode[layerCount][];
 
-        int[] inLayerEdgeCount = new int[layerCount];
-        boolean[] hasNorthSouthPorts = new boolean[layerCount];
+        inLayerEdgeCount = new int[layerCount];
+        hasNorthSouthPorts = new boolean[layerCount];
         hasHyperedgesEast = new boolean[layerCount];
         hasHyperedgesWest = new boolean[layerCount];
 
         int nodeCount = 0;
-        int portCount = 0;
+        portCount = 0;
 
         // Iterate through the layers, initializing port and node IDs, collecting
-        // the nodes into the current sweep and building the layout unit map
+        // the nodes into the initial order and building the layout unit map
         ListIterator<Layer> layerIter = layeredGraph.getLayers().listIterator();
         while (layerIter.hasNext()) {
             Layer layer = layerIter.next();
@@ -168,10 +170,7 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
             // Empty layers are not allowed!
             assert layerNodeCount > 0;
 
-            // Initialize this layer's node arrays in the different sweeps
-            bestSweep[layerIndex] = new LNode[layerNodeCount];
-            prevSweep[layerIndex] = new LNode[layerNodeCount];
-            curSweep[layerIndex] = new LNode[layerNodeCount];
+            initialOrder[layerIndex] = new LNode[layerNodeCount];
             inLayerEdgeCount[layerIndex] = 0;
             hasNorthSouthPorts[layerIndex] = false;
 
@@ -180,12 +179,18 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
                 LNode node = nodeIter.next();
 
                 // Register layout unit
-                curSweep[layerIndex][nodeIter.previousIndex()] = node;
+                initialOrder[layerIndex][nodeIter.previousIndex()] = node;
                 node.id = nodeCount++;
                 LNode layoutUnit = node.getProperty(InternalProperties.IN_LAYER_LAYOUT_UNIT);
                 if (layoutUnit != null) {
                     layoutUnits.put(layoutUnit, node);
                 }
+                
+                if (parallel) {
+                    // Reading this property stores its default value in the node, which must not
+                    // happen concurrently
+                    node.getProperty(InternalProperties.IN_LAYER_SUCCESSOR_CONSTRAINTS);
+                }
 
                 // Count in-layer edges
                 for (LPort port : node.getPorts()) {
@@ -221,42 +226,36 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
         //  forward and backward sweeps, involves hyperedges
         // If neither is the case, we need a counting algorithm for both 
         //  hyperedges and straightline edges
-        boolean allLayerCombinationsHaveHyperedges = true;
+        boolean[] hyperedgePairs = new boolean[layerCount - 1];
         boolean noLayerCombinationHasHyperedges = true;
         for (int i = 0; i < hasHyperedgesWest.length - 1; i++) {
-            boolean b = hasHyperedgesEast[i] || hasHyperedgesWest[i + 1];
-            allLayerCombinationsHaveHyperedges &= b;
-            noLayerCombinationHasHyperedges &= !b;
+            hyperedgePairs[i] = hasHyperedgesEast[i] || hasHyperedgesWest[i + 1];
+            noLayerCombinationHasHyperedges &= !hyperedgePairs[i];
         }
+        needsHyperedgeCounter = !noLayerCombinationHasHyperedges;
         
-        // Initialize the port positions and ranks arrays
-        portRanks = new float[portCount];
-        int[] portPos = new int[portCount];
-        
-        // Create the crossings counter modules
-        if (!allLayerCombinationsHaveHyperedges) {
-            normalCrossingsCounter = new BarthJuengerMutzelCrossingsCounter(inLayerEdgeCount,
-                    hasNorthSouthPorts, portPos);
-            inlayerCrossingsCounter = normalCrossingsCounter;
+        // Assign ids to layers and nodes as expected by the barycenter states
+        int i = 0;
+        for (Layer layer : layeredGraph.getLayers()) {
+            layer.id = i++;
+            int j = 0;
+            for (LNode node : layer.getNodes()) {
+                node.id = j++;
+            }
         }
         
-        if (!noLayerCombinationHasHyperedges) {
-            hyperedgeCrossingsCounter = new HyperedgeCrossingsCounter(inLayerEdgeCount,
-                    hasNorthSouthPorts, portPos);
-            inlayerCrossingsCounter = hyperedgeCrossingsCounter;
-        }
+        // The edge arrays used for counting crossings rely on these node ids
+        layerPairEdges = new LayerPairEdges(initialOrder, hyperedgePairs);
     }
 
     /**
      * Releases all created data so the GC can reap them.
      */
     private void dispose() {
-        portRanks = null;
-        bestSweep = null;
-        curSweep = null;
-        prevSweep = null;
-        normalCrossingsCounter = null;
-        hyperedgeCrossingsCounter = null;
+        initialOrder = null;
+        layerPairEdges = null;
+        inLayerEdgeCount = null;
+        hasNorthSouthPorts = null;
         hasHyperedgesEast = null;
         hasHyperedgesWest = null;
         layoutUnits.clear();
@@ -272,61 +271,242 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
         Random random = layeredGraph.getProperty(InternalProperties.RANDOM);
 
         // Find the number of layers. If there's only one, no crossing minimization is necessary.
-        int layerCount = layeredGraph.getLayers().size();
-        if (layerCount < 2) {
+        if (layeredGraph.getLayers().size() < 2) {
             monitor.done();
             return;
         }
         
+        // Determine the requested number of runs and whether they shall be executed concurrently
+        int runCount = layeredGraph.getProperty(LayeredOptions.THOROUGHNESS);
+        boolean parallel = runCount > 1
+                && layeredGraph.getProperty(LayeredOptions.CROSSING_MINIMIZATION_PARALLEL);
+        
         // Initialize the algorithm
-        initialize(layeredGraph);
-        int bestSweepCrossings = Integer.MAX_VALUE;
+        initialize(layeredGraph, parallel);
+        
+        LNode[][] bestSweep;
+        if (parallel) {
+            bestSweep = performRunsInParallel(runCount, random);
+        } else {
+            // All runs share a single sweeper and the graph's randomizer
+            LayerSweeper sweeper = new LayerSweeper(random);
+            for (int run = 0; run < runCount && sweeper.bestSweepCrossings > 0; run++) {
+                sweeper.performRun(run);
+            }
+            bestSweep = sweeper.bestSweep;
+        }
 
-        // Determine the requested number of runs
-        int runCount = layeredGraph.getProperty(LayeredOptions.THOROUGHNESS);
+        // Apply the ordering to the original layered graph
+        ListIterator<Layer> layerIter = layeredGraph.getLayers().listIterator();
+        while (layerIter.hasNext()) {
+            Layer layer = layerIter.next();
+            LNode[] nodes = bestSweep[layerIter.previousIndex()];
+            ListIterator<LNode> nodeIter = layer.getNodes().listIterator();
+            while (nodeIter.hasNext()) {
+                nodeIter.next();
+                nodeIter.set(nodes[nodeIter.previousIndex()]);
+            }
+        }
+        
+        // In the old days, the ports were distributed at this point in time. This has been moved to a
+        // separate processor, the PortDistributionProcessor.
 
-        // Initialize barycenter states used by the barycenter heuristic and forster 
-        // assign ids to layers and nodes
-        BarycenterState[][] barycenterStates = new BarycenterState[layeredGraph.getLayers().size()][];
-        int i = 0;
-        for (Layer layer : layeredGraph.getLayers()) {
-            layer.id = i;
-            barycenterStates[i] = new BarycenterState[layer.getNodes().size()];
-            int j = 0;
-            for (LNode node : layer.getNodes()) {
-                node.id = j;
-                barycenterStates[i][j] = new BarycenterState(node);
-                j++;
+        dispose();
+        monitor.done();
+    }
+    
+    /**
+     * Performs the given number of runs concurrently. Each run uses its own randomizer, seeded from
+     * the graph's randomizer in run order, and starts from the initial node order. The result of a run
+     * thus does not depend on which worker executes it, nor on how many workers there are. Of all runs
+     * with the least number of crossings, the one that comes first in run order wins.
+     * 
+     * @param runCount the number of runs to perform
+     * @param random the graph's randomizer
+     * @return the node order of the best run
+     */
+    private LNode[][] performRunsInParallel(final int runCount, final Random random) {
+        final long[] seeds = new long[runCount];
+        for (int run = 0; run < runCount; run++) {
+            seeds[run] = random.nextLong();
+        }
+        
+        // Workers fetch the index of their next run from a shared counter. Once a run has found an
+        // ordering without crossings, none of the runs coming after it can win anymore
+        final AtomicInteger nextRun = new AtomicInteger(0);
+        final AtomicInteger firstPerfectRun = new AtomicInteger(runCount);
+        
+        int workerCount = Math.min(runCount, ForkJoinPool.getCommonPoolParallelism());
+        List<ForkJoinTask<LayerSweeper>> workers = Lists.newArrayListWithCapacity(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(ForkJoinPool.commonPool().submit(() -> {
+                LayerSweeper sweeper = new LayerSweeper(null);
+                int run;
+                while ((run = nextRun.getAndIncrement()) < firstPerfectRun.get()) {
+                    sweeper.reset(new Random(seeds[run]));
+                    if (sweeper.performRun(run) == 0) {
+                        firstPerfectRun.accumulateAndGet(run, Math::min);
+                    }
+                }
+                return sweeper;
+            }));
+        }
+        
+        // Wait for all workers before rethrowing the first failure, if any; joining only throws
+        // unchecked exceptions and errors
+        List<LayerSweeper> sweepers = Lists.newArrayListWithCapacity(workerCount);
+        Throwable failure = null;
+        for (ForkJoinTask<LayerSweeper> worker : workers) {
+            try {
+                sweepers.add(worker.join());
+            } catch (Throwable exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        
+        // Reduce the results of all workers
+        LayerSweeper best = null;
+        for (LayerSweeper sweeper : sweepers) {
+            if (best == null || sweeper.bestSweepCrossings < best.bestSweepCrossings
+                    || sweeper.bestSweepCrossings == best.bestSweepCrossings
+                        && sweeper.bestRun < best.bestRun) {
+                best = sweeper;
+            }
+        }
+        return best.bestSweep;
+    }
+    
+    /**
+     * Holds everything a sequence of runs, each consisting of several sweeps, modifies while it
+     * executes: the node orders of the different sweeps, port ranks and positions, crossings counters,
+     * and the crossing minimization heuristic. All runs of the sequential mode are performed by a
+     * single instance; in parallel mode, every worker has an instance of its own.
+     */
+    private final class LayerSweeper {
+        
+        /** Array of port ranks used for sorting nodes and ports. */
+        private final float[] portRanks = new float[portCount];
+        /** Port position array used for counting crossings. */
+        private final int[] portPos = new int[portCount];
+        /** Complete node order of the best layer sweep. */
+        private final LNode[][] bestSweep = new LNode[layerCount][];
+        /** Complete node order of the current layer sweep. */
+        private final LNode[][] curSweep = new LNode[layerCount][];
+        /** Complete node order of the previous layer sweep. */
+        private final LNode[][] prevSweep = new LNode[layerCount][];
+        /** Crossings counter that only recounts layers whose order has changed. */
+        private final IncrementalCrossingsCounter crossingsCounter;
+        /** Barycenter states used by the barycenter heuristic and the constraint resolver. */
+        private final BarycenterState[][] barycenterStates = new BarycenterState[layerCount][];
+        /** The constraint resolver used by the heuristic. */
+        private final IConstraintResolver constraintResolver;
+        /** Port distributor based on node-relative port ranks. */
+        private final NodeRelativePortDistributor nodeRelativePortDistributor;
+        /** Port distributor based on layer-total port ranks. */
+        private final LayerTotalPortDistributor layerTotalPortDistributor;
+        /** The randomizer used by the current run. */
+        private Random random;
+        /** The crossing minimization heuristic, which uses the current randomizer. */
+        private ICrossingMinimizationHeuristic crossminHeuristic;
+        /** Number of crossings of the best layer sweep. */
+        private int bestSweepCrossings = Integer.MAX_VALUE;
+        /** Index of the run that produced the best layer sweep. */
+        private int bestRun = -1;
+        
+        /**
+         * Creates a sweeper whose node orders are initialized with the initial order.
+         * 
+         * @param random the randomizer to use, or {@code null} if {@link #reset(Random)} will be
+         *               called before each run
+         */
+        LayerSweeper(final Random random) {
+            for (int i = 0; i < layerCount; i++) {
+                int layerNodeCount = initialOrder[i].length;
+                bestSweep[i] = new LNode[layerNodeCount];
+                prevSweep[i] = new LNode[layerNodeCount];
+                curSweep[i] = Arrays.copyOf(initialOrder[i], layerNodeCount);
+                barycenterStates[i] = new BarycenterState[layerNodeCount];
+                for (int j = 0; j < layerNodeCount; j++) {
+                    barycenterStates[i][j] = new BarycenterState(initialOrder[i][j]);
+                }
+            }
+            
+            // Create the crossings counter modules
+            HyperedgeCrossingsCounter hyperedgeCrossingsCounter = null;
+            if (needsHyperedgeCounter) {
+                hyperedgeCrossingsCounter = new HyperedgeCrossingsCounter(inLayerEdgeCount,
+                        hasNorthSouthPorts, portPos);
+            }
+            crossingsCounter = new IncrementalCrossingsCounter(inLayerEdgeCount, hasNorthSouthPorts,
+                    portPos, layerPairEdges, hyperedgeCrossingsCounter);
+            
+            // Initialize the compound graph layer crossing minimizer
+            constraintResolver = new ForsterConstraintResolver(barycenterStates, layoutUnits);
+            
+            // Create port distributors
+            nodeRelativePortDistributor = new NodeRelativePortDistributor(portRanks);
+            layerTotalPortDistributor = new LayerTotalPortDistributor(portRanks);
+            
+            if (random != null) {
+                useRandom(random);
+            }
+        }
+        
+        /**
+         * Prepares the sweeper for a run that does not depend on any run performed before: the node
+         * order is reset to the initial order and the given randomizer is used.
+         * 
+         * @param runRandom the randomizer to use for the next run
+         */
+        void reset(final Random runRandom) {
+            for (int i = 0; i < layerCount; i++) {
+                System.arraycopy(initialOrder[i], 0, curSweep[i], 0, initialOrder[i].length);
             }
-            i++;
+            Arrays.fill(portRanks, 0);
+            Arrays.fill(portPos, 0);
+            crossingsCounter.allOrdersChanged();
+            useRandom(runRandom);
         }
         
-        // Initialize the compound graph layer crossing minimizer
-        IConstraintResolver constraintResolver =
-                new ForsterConstraintResolver(barycenterStates, layoutUnits);
-        ICrossingMinimizationHeuristic crossminHeuristic =
-                new BarycenterHeuristic(barycenterStates, constraintResolver, random, portRanks);
+        /**
+         * Sets the randomizer used by the next runs.
+         * 
+         * @param runRandom the randomizer
+         */
+        private void useRandom(final Random runRandom) {
+            random = runRandom;
+            crossminHeuristic = new BarycenterHeuristic(barycenterStates, constraintResolver, random,
+                    portRanks);
+        }
         
-        // Create port distributors
-        NodeRelativePortDistributor nodeRelativePortDistributor
-                = new NodeRelativePortDistributor(portRanks);
-        LayerTotalPortDistributor layerTotalPortDistributor
-                = new LayerTotalPortDistributor(portRanks);
-        AbstractPortDistributor portDistributor;
-
-        // Perform the requested number of runs, each consisting of several sweeps
-        for (int run = 0; run < runCount && bestSweepCrossings > 0; run++) {
+        /**
+         * Performs a single run consisting of several sweeps and remembers the result if it is
+         * better than the best one seen so far.
+         * 
+         * @param run index of the run
+         * @return the number of crossings of the run's result
+         */
+        int performRun(final int run) {
             // Each run is randomly determined to be a forward or a backward run
             boolean forward = random.nextBoolean();
             int fixedLayerIndex = forward ? 0 : layerCount - 1;
             LNode[] fixedLayer = curSweep[fixedLayerIndex];
             
             // Randomly choose a port distribution method for this run
-            portDistributor = random.nextBoolean()
+            AbstractPortDistributor portDistributor = random.nextBoolean()
                     ? nodeRelativePortDistributor : layerTotalPortDistributor;
 
             // The fixed layer is randomized
-            minimizeCrossings(fixedLayer, crossminHeuristic, forward, false, true);
+            if (minimizeCrossings(fixedLayer, crossminHeuristic, forward, false, true)) {
+                crossingsCounter.orderChanged(fixedLayerIndex);
+            }
 
             // Reset last and current run crossing counters
             int curSweepCrossings = Integer.MAX_VALUE;
@@ -342,7 +522,7 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
                 curSweepCrossings = 0;
                 
                 // count in-layer crossings
-                curSweepCrossings += inlayerCrossingsCounter.countCrossings(fixedLayer, fixedLayerIndex);
+                curSweepCrossings += crossingsCounter.countInLayerCrossings(fixedLayer, fixedLayerIndex);
                 
                 if (forward) {
                     // Perform a forward sweep
@@ -350,20 +530,16 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
                         LNode[] freeLayer = curSweep[layerIndex];
 
                         portDistributor.calculatePortRanks(fixedLayer, PortType.OUTPUT);
-                        minimizeCrossings(freeLayer, crossminHeuristic, true, !firstSweep, false);
+                        if (minimizeCrossings(freeLayer, crossminHeuristic, true, !firstSweep, false)) {
+                            crossingsCounter.orderChanged(layerIndex);
+                        }
 
                         // in-layer crossings
                         curSweepCrossings +=
-                                inlayerCrossingsCounter.countCrossings(freeLayer, layerIndex);
+                                crossingsCounter.countInLayerCrossings(freeLayer, layerIndex);
                         // between-layers crossings
-                        if (hasHyperedgesWest[layerIndex] || hasHyperedgesEast[layerIndex - 1]) {
-                            curSweepCrossings += 
-                                    hyperedgeCrossingsCounter.countCrossings(fixedLayer, freeLayer);
-                        } else {
-                            curSweepCrossings += 
-                                    normalCrossingsCounter.countCrossings(fixedLayer, freeLayer);
-                        }
-                        
+                        curSweepCrossings += crossingsCounter.countBetweenLayerCrossings(
+                                fixedLayer, freeLayer, layerIndex - 1);
 
                         fixedLayer = freeLayer;
                     }
@@ -374,19 +550,16 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
                         LNode[] freeLayer = curSweep[layerIndex];
 
                         portDistributor.calculatePortRanks(fixedLayer, PortType.INPUT);
-                        minimizeCrossings(freeLayer, crossminHeuristic, false, !firstSweep, false);
+                        if (minimizeCrossings(freeLayer, crossminHeuristic, false, !firstSweep, false)) {
+                            crossingsCounter.orderChanged(layerIndex);
+                        }
 
                         // in-layer crossings
                         curSweepCrossings +=
-                                inlayerCrossingsCounter.countCrossings(freeLayer, layerIndex);
+                                crossingsCounter.countInLayerCrossings(freeLayer, layerIndex);
                         // between-layers crossings
-                        if (hasHyperedgesEast[layerIndex] || hasHyperedgesWest[layerIndex + 1]) {
-                            curSweepCrossings += 
-                                    hyperedgeCrossingsCounter.countCrossings(freeLayer, fixedLayer);
-                        } else {
-                            curSweepCrossings += 
-                                    normalCrossingsCounter.countCrossings(freeLayer, fixedLayer);
-                        }
+                        curSweepCrossings += crossingsCounter.countBetweenLayerCrossings(
+                                freeLayer, fixedLayer, layerIndex);
 
                         fixedLayer = freeLayer;
                     }
@@ -399,6 +572,7 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
             } while (curSweepCrossings < prevSweepCrossings && curSweepCrossings > 0);
 
             // Compare the current result with the best one
+            int runCrossings = Math.min(curSweepCrossings, prevSweepCrossings);
             if (curSweepCrossings < bestSweepCrossings || prevSweepCrossings < bestSweepCrossings) {
                 // Restore the previous sweep's ordering if it has become worse
                 if (curSweepCrossings <= prevSweepCrossings) {
@@ -408,26 +582,10 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
                     copySweep(prevSweep, bestSweep);
                     bestSweepCrossings = prevSweepCrossings;
                 }
+                bestRun = run;
             }
+            return runCrossings;
         }
-
-        // Apply the ordering to the original layered graph
-        ListIterator<Layer> layerIter = layeredGraph.getLayers().listIterator();
-        while (layerIter.hasNext()) {
-            Layer layer = layerIter.next();
-            LNode[] nodes = bestSweep[layerIter.previousIndex()];
-            ListIterator<LNode> nodeIter = layer.getNodes().listIterator();
-            while (nodeIter.hasNext()) {
-                nodeIter.next();
-                nodeIter.set(nodes[nodeIter.previousIndex()]);
-            }
-        }
-        
-        // In the old days, the ports were distributed at this point in time. This has been moved to a
-        // separate processor, the PortDistributionProcessor.
-
-        dispose();
-        monitor.done();
     }
     
     /**
@@ -439,8 +597,9 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
      *          layer is taken
      * @param preOrdered whether the nodes of the given layer are already ordered
      * @param randomize whether to randomize all node positions
+     * @return whether the order of the layer has changed
      */
-    private void minimizeCrossings(final LNode[] layer,
+    private boolean minimizeCrossings(final LNode[] layer,
             final ICrossingMinimizationHeuristic heuristic,
             final boolean forward, final boolean preOrdered, final boolean randomize) {
         
@@ -450,10 +609,13 @@ public final class LayerSweepCrossingMinimizer implements ILayoutPhase {
         heuristic.minimizeCrossings(nodes, preOrdered, randomize, forward);
         
         // apply the new ordering
+        boolean changed = false;
         int index = 0;
         for (LNode nodeGroup : nodes) {
-                layer[index++] = nodeGroup;
+            changed |= layer[index] != nodeGroup;
+            layer[index++] = nodeGroup;
         }
+        return changed;
     }
     
 
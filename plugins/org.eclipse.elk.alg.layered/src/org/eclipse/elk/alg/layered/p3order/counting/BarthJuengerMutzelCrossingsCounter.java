@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p3order.counting;
 
+import java.util.Arrays;
 import java.util.ListIterator;
 
 import org.eclipse.elk.alg.layered.graph.LEdge;
@@ -35,6 +36,14 @@ public class BarthJuengerMutzelCrossingsCounter extends AbstractCrossingsCounter
      * Port position array used for counting the number of edge crossings.
      */
     private final int[] portPos;
+    /**
+     * Buffer for the sequence of edge target positions; grown as needed and reused by all calls.
+     */
+    private int[] southSequence = new int[0];
+    /**
+     * Buffer for the accumulator tree; grown as needed and reused by all calls.
+     */
+    private int[] tree = new int[0];
     
     /**
      * Create a crossings counter.
@@ -133,7 +142,7 @@ public class BarthJuengerMutzelCrossingsCounter extends AbstractCrossingsCounter
         }
 
         // Determine the sequence of edge target positions sorted by source and target index
-        int[] southSequence = new int[edgeCount];
+        int[] southSequence = southSequenceBuffer(edgeCount);
         int i = 0;
         for (LNode node : leftLayer) {
             assert node.getLayer() == leftLayerRef;
@@ -165,6 +174,36 @@ public class BarthJuengerMutzelCrossingsCounter extends AbstractCrossingsCounter
             }
         }
 
+        return countSequenceCrossings(southSequence, edgeCount, targetCount);
+    }
+    
+    /**
+     * Returns the buffer for the sequence of edge target positions, making sure that it can hold
+     * the given number of edges.
+     * 
+     * @param edgeCount the number of edges
+     * @return the south sequence buffer
+     */
+    protected final int[] southSequenceBuffer(final int edgeCount) {
+        if (southSequence.length < edgeCount) {
+            southSequence = new int[edgeCount];
+        }
+        return southSequence;
+    }
+    
+    /**
+     * Counts the crossings of the given sequence of edge target positions with an accumulator
+     * tree. The edges must be sorted by their source position, and by their target position where
+     * the source positions are equal.
+     * 
+     * @param sequence the target positions of the edges
+     * @param edgeCount the number of edges in the sequence
+     * @param targetCount the number of distinct target positions
+     * @return the number of edge crossings
+     */
+    protected final int countSequenceCrossings(final int[] sequence, final int edgeCount,
+            final int targetCount) {
+        
         // Build the accumulator tree
         int firstIndex = 1;
         while (firstIndex < targetCount) {
@@ -172,12 +211,16 @@ public class BarthJuengerMutzelCrossingsCounter extends AbstractCrossingsCounter
         }
         int treeSize = 2 * firstIndex - 1;
         firstIndex -= 1;
-        int[] tree = new int[treeSize];
+        if (tree.length < treeSize) {
+            tree = new int[treeSize];
+        } else {
+            Arrays.fill(tree, 0, treeSize, 0);
+        }
 
         // Count the crossings
         int crossCount = 0;
         for (int k = 0; k < edgeCount; k++) {
-            int index = southSequence[k] + firstIndex;
+            int index = sequence[k] + firstIndex;
             tree[index]++;
             while (index > 0) {
                 if (index % 2 > 0) {
@@ -203,7 +246,7 @@ public class BarthJuengerMutzelCrossingsCounter extends AbstractCrossingsCounter
      * @param n
      *            the number to insert
      */
-    private static void insert(final int[] array, final int start, final int end, final int n) {
+    protected static void insert(final int[] array, final int start, final int end, final int n) {
         int insx = binarySearch(array, start, end, n);
         if (insx < 0) {
             insx = -insx - 1;
@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p3order.counting;
+
+import java.util.Arrays;
+import java.util.ListIterator;
+
+import org.eclipse.elk.alg.layered.graph.LEdge;
+import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.LPort;
+import org.eclipse.elk.alg.layered.graph.Layer;
+import org.eclipse.elk.alg.layered.properties.LayeredOptions;
+import org.eclipse.elk.core.options.PortSide;
+
+/**
+ * A crossings counter for layer sweeps that only recounts what may have changed. The crossings of a
+ * layer and of a pair of adjacent layers only depend on the order of the nodes in these layers, so
+ * results are cached and only recounted after {@link #orderChanged(int)} has been called for one of
+ * the layers involved.
+ *
+ * <p>Between layers without hyperedges, crossings are counted with the Barth-Juenger-Mutzel
+ * algorithm on precomputed {@link LayerPairEdges edge arrays}, which saves walking all ports and
+ * edges and looking up port constraints on every count. The result is the same as that of
+ * {@link BarthJuengerMutzelCrossingsCounter#countCrossings(LNode[], LNode[])}. Layer pairs with
+ * hyperedges are delegated to a {@link HyperedgeCrossingsCounter}.</p>
+ *
+ * <p>Instances are not thread-safe, but any number of them may share the same edge arrays.</p>
+ *
+ * @author agent
+ */
+public final class IncrementalCrossingsCounter extends BarthJuengerMutzelCrossingsCounter {
+
+    /** the edge arrays of all pairs of adjacent layers. */
+    private final LayerPairEdges edges;
+    /** the counter used for layer pairs with hyperedges, or {@code null} if there are none. */
+    private final HyperedgeCrossingsCounter hyperedgeCounter;
+    /** the cached number of in-layer crossings of each layer. */
+    private final int[] inLayerCrossings;
+    /** whether the in-layer crossings of each layer must be recounted. */
+    private final boolean[] inLayerDirty;
+    /** the cached number of crossings between each layer and its successor. */
+    private final int[] betweenLayerCrossings;
+    /** whether the crossings between each layer and its successor must be recounted. */
+    private final boolean[] betweenLayerDirty;
+    /** buffer for the first target position of each node of the right layer. */
+    private final int[] nodeBase;
+
+    /**
+     * Create an incremental crossings counter. All results are initially considered outdated.
+     *
+     * @param inLayerEdgeCount
+     *          The number of in-layer edges for each layer, including virtual connections to
+     *          north/south dummies
+     * @param hasNorthSouthPorts
+     *          Whether the layers contain north / south port dummies or not
+     * @param portPos
+     *          Port position array used for counting the number of edge crossings
+     * @param edges
+     *          The edge arrays of all pairs of adjacent layers
+     * @param hyperedgeCounter
+     *          The counter for layer pairs with hyperedges, or {@code null} if there are none
+     */
+    public IncrementalCrossingsCounter(final int[] inLayerEdgeCount,
+            final boolean[] hasNorthSouthPorts, final int[] portPos, final LayerPairEdges edges,
+            final HyperedgeCrossingsCounter hyperedgeCounter) {
+
+        super(inLayerEdgeCount, hasNorthSouthPorts, portPos);
+        this.edges = edges;
+        this.hyperedgeCounter = hyperedgeCounter;
+
+        int layerCount = inLayerEdgeCount.length;
+        inLayerCrossings = new int[layerCount];
+        inLayerDirty = new boolean[layerCount];
+        betweenLayerCrossings = new int[Math.max(layerCount - 1, 0)];
+        betweenLayerDirty = new boolean[betweenLayerCrossings.length];
+        nodeBase = new int[edges.maxLayerSize];
+        allOrdersChanged();
+    }
+
+    /**
+     * Marks the results involving the given layer as outdated.
+     *
+     * @param layerIndex index of a layer whose node order has changed
+     */
+    public void orderChanged(final int layerIndex) {
+        inLayerDirty[layerIndex] = true;
+        if (layerIndex > 0) {
+            betweenLayerDirty[layerIndex - 1] = true;
+        }
+        if (layerIndex < betweenLayerDirty.length) {
+            betweenLayerDirty[layerIndex] = true;
+        }
+    }
+
+    /**
+     * Marks all results as outdated.
+     */
+    public void allOrdersChanged() {
+        Arrays.fill(inLayerDirty, true);
+        Arrays.fill(betweenLayerDirty, true);
+    }
+
+    /**
+     * Returns the number of in-layer crossings of the given layer, recounting them only if the
+     * layer's order has changed.
+     *
+     * @param layer the current node order of the layer
+     * @param layerIndex the index of the layer
+     * @return the number of in-layer crossings
+     * @see AbstractCrossingsCounter#countCrossings(LNode[], int)
+     */
+    public int countInLayerCrossings(final LNode[] layer, final int layerIndex) {
+        if (inLayerDirty[layerIndex]) {
+            inLayerCrossings[layerIndex] = countCrossings(layer, layerIndex);
+            inLayerDirty[layerIndex] = false;
+        }
+        return inLayerCrossings[layerIndex];
+    }
+
+    /**
+     * Returns the number of crossings between the given layer and its successor, recounting them
+     * only if the order of one of the two layers has changed.
+     *
+     * @param leftLayer the current node order of the left layer
+     * @param rightLayer the current node order of the right layer
+     * @param leftIndex the index of the left layer
+     * @return the number of crossings between the two layers
+     */
+    public int countBetweenLayerCrossings(final LNode[] leftLayer, final LNode[] rightLayer,
+            final int leftIndex) {
+
+        if (betweenLayerDirty[leftIndex]) {
+            if (edges.hyperedgePairs[leftIndex]) {
+                betweenLayerCrossings[leftIndex] = hyperedgeCounter.countCrossings(leftLayer, rightLayer);
+            } else {
+                betweenLayerCrossings[leftIndex] = countPairCrossings(leftLayer, rightLayer, leftIndex);
+            }
+            betweenLayerDirty[leftIndex] = false;
+        }
+        return betweenLayerCrossings[leftIndex];
+    }
+
+    /**
+     * Counts the crossings between the given layer and its successor on the precomputed edge arrays.
+     *
+     * @param leftLayer the current node order of the left layer
+     * @param rightLayer the current node order of the right layer
+     * @param leftIndex the index of the left layer
+     * @return the number of crossings between the two layers
+     */
+    private int countPairCrossings(final LNode[] leftLayer, final LNode[] rightLayer,
+            final int leftIndex) {
+
+        // Determine where the target positions of each node of the right layer start
+        int[] targetPositions = edges.targetPositions[leftIndex];
+        int targetCount = 0;
+        for (LNode node : rightLayer) {
+            nodeBase[node.id] = targetCount;
+            targetCount += targetPositions[node.id];
+        }
+
+        // Determine the sequence of edge target positions sorted by source and target index
+        int[] sourceEdgeStart = edges.sourceEdgeStart[leftIndex];
+        int[] edgeTargetNode = edges.edgeTargetNode[leftIndex];
+        int[] edgeTargetOffset = edges.edgeTargetOffset[leftIndex];
+        boolean[] edgeGroupStart = edges.edgeGroupStart[leftIndex];
+        int[] southSequence = southSequenceBuffer(edgeTargetNode.length);
+        int i = 0;
+        for (LNode node : leftLayer) {
+            int start = i;
+            for (int e = sourceEdgeStart[node.id]; e < sourceEdgeStart[node.id + 1]; e++) {
+                if (edgeGroupStart[e]) {
+                    start = i;
+                }
+                insert(southSequence, start, i++, nodeBase[edgeTargetNode[e]] + edgeTargetOffset[e]);
+            }
+        }
+
+        return countSequenceCrossings(southSequence, i, targetCount);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Edge Arrays
+
+    /**
+     * The edges between each pair of adjacent layers, stored in primitive arrays indexed by the
+     * {@code id} of the left layer's nodes. Building them requires the {@code id} of each node to
+     * be its index in the node order the arrays are built from; it must not change afterwards.
+     * Instances are immutable and may be shared by counters running concurrently.
+     */
+    public static final class LayerPairEdges {
+
+        /** whether each pair of layers contains hyperedges; these pairs have no edge arrays. */
+        private final boolean[] hyperedgePairs;
+        /** the size of the largest layer. */
+        private final int maxLayerSize;
+        /** for each right node, the number of distinct target positions of its ports. */
+        private final int[][] targetPositions;
+        /** for each left node, the index of its first edge; the last entry is the edge count. */
+        private final int[][] sourceEdgeStart;
+        /** for each edge, the {@code id} of its target node. */
+        private final int[][] edgeTargetNode;
+        /** for each edge, the target position relative to the first position of its target node. */
+        private final int[][] edgeTargetOffset;
+        /** for each edge, whether it starts a range of edges that is sorted by target position. */
+        private final boolean[][] edgeGroupStart;
+
+        /**
+         * Builds the edge arrays of all pairs of adjacent layers.
+         *
+         * @param layers the nodes of each layer; the {@code id} of each node must be its index
+         * @param hyperedgePairs whether the layers at each index and its successor are connected
+         *          by hyperedges; no edge arrays are built for these pairs
+         */
+        public LayerPairEdges(final LNode[][] layers, final boolean[] hyperedgePairs) {
+            this.hyperedgePairs = hyperedgePairs;
+
+            int pairCount = Math.max(layers.length - 1, 0);
+            targetPositions = new int[pairCount][];
+            sourceEdgeStart = new int[pairCount][];
+            edgeTargetNode = new int[pairCount][];
+            edgeTargetOffset = new int[pairCount][];
+            edgeGroupStart = new boolean[pairCount][];
+
+            int maxSize = 0;
+            for (LNode[] layer : layers) {
+                maxSize = Math.max(maxSize, layer.length);
+            }
+            maxLayerSize = maxSize;
+
+            int[] portOffset = new int[maxPortCount(layers)];
+            for (int pair = 0; pair < pairCount; pair++) {
+                if (!hyperedgePairs[pair]) {
+                    buildPair(pair, layers[pair], layers[pair + 1], portOffset);
+                }
+            }
+        }
+
+        /**
+         * Determines the size of the port offset buffer, which is indexed by port {@code id}.
+         *
+         * @param layers the nodes of each layer
+         * @return one more than the largest port {@code id}
+         */
+        private static int maxPortCount(final LNode[][] layers) {
+            int max = 0;
+            for (LNode[] layer : layers) {
+                for (LNode node : layer) {
+                    for (LPort port : node.getPorts()) {
+                        max = Math.max(max, port.id + 1);
+                    }
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Builds the edge arrays of a pair of layers. The target positions are assigned exactly like
+         * {@link BarthJuengerMutzelCrossingsCounter#countCrossings(LNode[], LNode[])} does, but
+         * relative to the first position of each node.
+         *
+         * @param pair index of the left layer
+         * @param leftLayer the nodes of the left layer
+         * @param rightLayer the nodes of the right layer
+         * @param portOffset buffer for the target position offset of each port
+         */
+        private void buildPair(final int pair, final LNode[] leftLayer, final LNode[] rightLayer,
+                final int[] portOffset) {
+
+            Layer leftLayerRef = leftLayer[0].getLayer();
+            Layer rightLayerRef = rightLayer[0].getLayer();
+
+            // Assign target position offsets to the ports of the right layer
+            targetPositions[pair] = new int[rightLayer.length];
+            for (LNode node : rightLayer) {
+                int positions = 0;
+                if (node.getProperty(LayeredOptions.PORT_CONSTRAINTS).isOrderFixed()) {
+                    // Determine how many input ports there are on the north side
+                    int northInputPorts = 0;
+                    for (LPort port : node.getPorts()) {
+                        if (port.getSide() == PortSide.NORTH) {
+                            if (countIncomingEdges(port, leftLayerRef) > 0) {
+                                northInputPorts++;
+                            }
+                        } else {
+                            break;
+                        }
+                    }
+                    // Assign offsets in the order north - west - south - east
+                    int otherInputPorts = 0;
+                    ListIterator<LPort> portIter = node.getPorts().listIterator(node.getPorts().size());
+                    while (portIter.hasPrevious()) {
+                        LPort port = portIter.previous();
+                        if (countIncomingEdges(port, leftLayerRef) > 0) {
+                            if (port.getSide() == PortSide.NORTH) {
+                                portOffset[port.id] = positions;
+                                positions++;
+                            } else {
+                                portOffset[port.id] = positions + northInputPorts + otherInputPorts;
+                                otherInputPorts++;
+                            }
+                        }
+                    }
+                    positions += otherInputPorts;
+
+                } else {
+                    // All ports share the node's position, since their order does not matter
+                    int nodeEdges = 0;
+                    for (LPort port : node.getPorts()) {
+                        nodeEdges += countIncomingEdges(port, leftLayerRef);
+                        portOffset[port.id] = 0;
+                    }
+                    if (nodeEdges > 0) {
+                        positions = 1;
+                    }
+                }
+                targetPositions[pair][node.id] = positions;
+            }
+
+            // Count the edges between the two layers
+            int edgeCount = 0;
+            for (LNode node : rightLayer) {
+                for (LPort port : node.getPorts()) {
+                    edgeCount += countIncomingEdges(port, leftLayerRef);
+                }
+            }
+
+            // Collect the edges ordered by source node, grouped into ranges sorted by target position
+            int[] edgeStart = new int[leftLayer.length + 1];
+            int[] targetNode = new int[edgeCount];
+            int[] targetOffset = new int[edgeCount];
+            boolean[] groupStart = new boolean[edgeCount];
+            int e = 0;
+            for (LNode node : leftLayer) {
+                edgeStart[node.id] = e;
+                boolean portGroups = node.getProperty(LayeredOptions.PORT_CONSTRAINTS).isOrderFixed();
+                boolean newGroup = true;
+                for (LPort port : node.getPorts()) {
+                    // With a fixed port order, each port starts a new range
+                    newGroup |= portGroups;
+                    for (LEdge edge : port.getOutgoingEdges()) {
+                        LPort target = edge.getTarget();
+                        if (target.getNode().getLayer() == rightLayerRef) {
+                            targetNode[e] = target.getNode().id;
+                            targetOffset[e] = portOffset[target.id];
+                            groupStart[e] = newGroup;
+                            newGroup = false;
+                            e++;
+                        }
+                    }
+                }
+            }
+            edgeStart[leftLayer.length] = e;
+
+            sourceEdgeStart[pair] = edgeStart;
+            edgeTargetNode[pair] = targetNode;
+            edgeTargetOffset[pair] = targetOffset;
+            edgeGroupStart[pair] = groupStart;
+        }
+
+        /**
+         * Counts the edges coming into the given port from the given layer.
+         *
+         * @param port a port
+         * @param sourceLayer the layer of the source nodes
+         * @return the number of incoming edges whose source lies in the source layer
+         */
+        private static int countIncomingEdges(final LPort port, final Layer sourceLayer) {
+            int count = 0;
+            for (LEdge edge : port.getIncomingEdges()) {
+                if (edge.getSource().getNode().getLayer() == sourceLayer) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+}
@@ -11,19 +11,17 @@
 package org.eclipse.elk.alg.layered.p4nodes.bk;
 
 import static org.eclipse.elk.alg.layered.p4nodes.bk.BKNodePlacer.getBlocks;
-import static org.eclipse.elk.alg.layered.p4nodes.bk.BKNodePlacer.getEdge;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.graph.LNode;
 import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.p4nodes.bk.BKAlignedLayout.HDirection;
 import org.eclipse.elk.alg.layered.p4nodes.bk.BKAlignedLayout.VDirection;
-import org.eclipse.elk.core.util.Pair;
 
 import com.google.common.collect.Lists;
 
@@ -60,9 +58,10 @@ public class BKAligner {
      * possible, such that the long edge is drawn straightly.</p>
      * 
      * @param bal One of the four layouts which shall be used in this step 
-     * @param markedEdges List with all edges that were marked as type 1 conflicts
+     * @param markedEdges flags indicating which edges, identified by their index in the neighborhood
+     *          information's snapshot, were marked as type 1 conflicts
      */
-    public void verticalAlignment(final BKAlignedLayout bal, final Set<LEdge> markedEdges) {
+    public void verticalAlignment(final BKAlignedLayout bal, final boolean[] markedEdges) {
         // Initialize root and align maps
         for (Layer layer : layeredGraph.getLayers()) {
             for (LNode v : layer.getNodes()) {
@@ -98,18 +97,23 @@ public class BKAligner {
             // m denotes the position of a neighbor in the neighbor list of a node.
             // CHECKSTYLEOFF Local Variable Names
             for (LNode v_i_k : nodes) {
-                List<Pair<LNode, LEdge>> neighbors = null;
+                int[] neighborStart, neighborNodes, neighborEdges;
                 if (bal.hdir == HDirection.LEFT) {
-                    neighbors = ni.rightNeighbors.get(v_i_k.id);
+                    neighborStart = ni.rightNeighborStart;
+                    neighborNodes = ni.rightNeighborNodes;
+                    neighborEdges = ni.rightNeighborEdges;
                 } else {
-                    neighbors = ni.leftNeighbors.get(v_i_k.id);
+                    neighborStart = ni.leftNeighborStart;
+                    neighborNodes = ni.leftNeighborNodes;
+                    neighborEdges = ni.leftNeighborEdges;
                 }
+                int first = neighborStart[v_i_k.id];
+                int d = neighborStart[v_i_k.id + 1] - first;
 
-                if (neighbors.size() > 0) {
+                if (d > 0) {
 
                     // When a node has many upper neighbors, consider only the (two) nodes in the
                     // middle.
-                    int d = neighbors.size();
                     int low = ((int) Math.floor(((d + 1.0) / 2.0))) - 1;
                     int high = ((int) Math.ceil(((d + 1.0) / 2.0))) - 1;
 
@@ -117,18 +121,16 @@ public class BKAligner {
                         // Check, whether v_i_k can be added to a block of its upper/lower neighbor(s)
                         for (int m = high; m >= low; m--) {
                             if (bal.align[v_i_k.id].equals(v_i_k)) {
-                                Pair<LNode, LEdge> u_m_pair = neighbors.get(m);
-                                LNode u_m = u_m_pair.getFirst();
+                                int u_m = neighborNodes[first + m];
                                 
-                                // Again, getEdge won't return null because the neighbor relationship
-                                // ensures that at least one edge exists
-                                if (!markedEdges.contains(u_m_pair.getSecond()) 
-                                        && r > ni.nodeIndex[u_m.id]) {
-                                    bal.align[u_m.id] =  v_i_k;
-                                    bal.root[v_i_k.id] = bal.root[u_m.id];
+                                // The neighbor relationship ensures that the neighbor edge exists
+                                if (!markedEdges[neighborEdges[first + m]] 
+                                        && r > ni.nodeIndex[u_m]) {
+                                    bal.align[u_m] =  v_i_k;
+                                    bal.root[v_i_k.id] = bal.root[u_m];
                                     bal.align[v_i_k.id] = bal.root[v_i_k.id];
                                     
-                                    r = ni.nodeIndex[u_m.id];
+                                    r = ni.nodeIndex[u_m];
                                 }
                             }
                         }
@@ -136,16 +138,15 @@ public class BKAligner {
                         // Check, whether vik can be added to a block of its upper/lower neighbor(s)
                         for (int m = low; m <= high; m++) {
                             if (bal.align[v_i_k.id].equals(v_i_k)) {
-                                Pair<LNode, LEdge> um_pair = neighbors.get(m);
-                                LNode um = um_pair.getFirst();
+                                int um = neighborNodes[first + m];
                                 
-                                if (!markedEdges.contains(um_pair.getSecond()) 
-                                        && r < ni.nodeIndex[um.id]) {
-                                    bal.align[um.id] = v_i_k;
-                                    bal.root[v_i_k.id] = bal.root[um.id];
+                                if (!markedEdges[neighborEdges[first + m]] 
+                                        && r < ni.nodeIndex[um]) {
+                                    bal.align[um] = v_i_k;
+                                    bal.root[v_i_k.id] = bal.root[um];
                                     bal.align[v_i_k.id] = bal.root[v_i_k.id];
                                     
-                                    r = ni.nodeIndex[um.id];
+                                    r = ni.nodeIndex[um];
                                 }
                             }
                         }
@@ -185,7 +186,7 @@ public class BKAligner {
             LNode next;
             while ((next = bal.align[current.id]) != root) {
                 // Find the edge between the current and the next node
-                LEdge edge = getEdge(current, next);
+                LEdge edge = getEdge(current.id, next.id);
                 
                 // Calculate the y coordinate difference between the two nodes required to straighten
                 // the edge
@@ -225,5 +226,25 @@ public class BKAligner {
             bal.blockSize[root.id] = spaceAbove + spaceBelow;
         }
     }
+    
+    /**
+     * Find an edge between two given nodes.
+     * 
+     * @param source The id of the source node of the edge
+     * @param target The id of the target node of the edge
+     * @return The first of the source's connected edges that connects it to the target, or null if
+     *          there is none
+     */
+    private LEdge getEdge(final int source, final int target) {
+        LGraphSnapshot snapshot = ni.snapshot;
+        for (int i = snapshot.connectedStart[source]; i < snapshot.connectedStart[source + 1]; i++) {
+            int edge = snapshot.connectedEdges[i];
+            if (snapshot.opposite(edge, source) == target) {
+                return snapshot.edges[edge];
+            }
+        }
+        
+        return null;
+    }
 
 }
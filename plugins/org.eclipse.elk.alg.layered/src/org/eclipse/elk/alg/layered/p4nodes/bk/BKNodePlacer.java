@@ -15,11 +15,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
 import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.graph.LNode;
 import org.eclipse.elk.alg.layered.graph.LNode.NodeType;
 import org.eclipse.elk.alg.layered.graph.Layer;
@@ -31,7 +34,6 @@ import org.eclipse.elk.alg.layered.properties.GraphProperties;
 import org.eclipse.elk.alg.layered.properties.InternalProperties;
 import org.eclipse.elk.alg.layered.properties.LayeredOptions;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
-import org.eclipse.elk.core.util.Pair;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -140,8 +142,8 @@ public final class BKNodePlacer implements ILayoutPhase {
     }
     
     private LGraph lGraph;
-    /** List of edges involved in type 1 conflicts (see above). */
-    private final Set<LEdge> markedEdges = Sets.newHashSet();
+    /** Flags for the edges involved in type 1 conflicts (see above), indexed by snapshot index. */
+    private boolean[] markedEdges;
     /**  Precalculated information on nodes' neighborhoods etc. */
     private NeighborhoodInformation ni;
 
@@ -161,6 +163,7 @@ public final class BKNodePlacer implements ILayoutPhase {
         // Precalculate some information that we require during the 
         // following processes. 
         ni = NeighborhoodInformation.buildFor(layeredGraph);
+        markedEdges = new boolean[ni.snapshot.edgeCount];
 
         // Regard possible other layout options.
         debugMode = layeredGraph.getProperty(LayeredOptions.DEBUG_MODE);
@@ -211,23 +214,27 @@ public final class BKNodePlacer implements ILayoutPhase {
                 layouts.add(leftup); 
         }
         
-        BKAligner aligner = new BKAligner(layeredGraph, ni);
-        for (BKAlignedLayout bal : layouts) {
-            // Phase which determines the nodes' memberships in blocks. This happens in four different
-            // ways, either from processing the nodes from the first layer to the last or vice versa.
-            aligner.verticalAlignment(bal, markedEdges);
-            
-            // Additional phase which is not included in the original Brandes-Koepf Algorithm.
-            // It makes sure that the connected ports within a block are aligned to avoid unnecessary
-            // bend points. Also, the required size of each block is determined.
-            aligner.insideBlockShift(bal);
-        }
+        if (layouts.size() > 1 && layeredGraph.getProperty(LayeredOptions.NODE_PLACEMENT_BK_PARALLEL)) {
+            computeLayoutsInParallel(layeredGraph, layouts);
+        } else {
+            BKAligner aligner = new BKAligner(layeredGraph, ni);
+            for (BKAlignedLayout bal : layouts) {
+                // Phase which determines the nodes' memberships in blocks. This happens in four different
+                // ways, either from processing the nodes from the first layer to the last or vice versa.
+                aligner.verticalAlignment(bal, markedEdges);
+                
+                // Additional phase which is not included in the original Brandes-Koepf Algorithm.
+                // It makes sure that the connected ports within a block are aligned to avoid unnecessary
+                // bend points. Also, the required size of each block is determined.
+                aligner.insideBlockShift(bal);
+            }
 
-        ICompactor compacter = new BKCompactor(layeredGraph, ni);
-        for (BKAlignedLayout bal : layouts) {
-            // This phase determines the y coordinates of the blocks and thus the vertical coordinates
-            // of all nodes.
-            compacter.horizontalCompaction(bal);
+            ICompactor compacter = new BKCompactor(layeredGraph, ni);
+            for (BKAlignedLayout bal : layouts) {
+                // This phase determines the y coordinates of the blocks and thus the vertical coordinates
+                // of all nodes.
+                compacter.horizontalCompaction(bal);
+            }
         }
 
         // Debug output
@@ -282,7 +289,13 @@ public final class BKNodePlacer implements ILayoutPhase {
             System.out.println("Chosen node placement: " + chosenLayout);
             System.out.println("Blocks: " + getBlocks(chosenLayout));
             System.out.println("Classes: " + getClasses(chosenLayout));
-            System.out.println("Marked edges: " + markedEdges);
+            List<LEdge> marked = Lists.newArrayList();
+            for (int e = 0; e < markedEdges.length; e++) {
+                if (markedEdges[e]) {
+                    marked.add(ni.snapshot.edges[e]);
+                }
+            }
+            System.out.println("Marked edges: " + marked);
         }
         
         // cleanup
@@ -290,12 +303,57 @@ public final class BKNodePlacer implements ILayoutPhase {
             bal.cleanup();
         }
         ni.cleanup();
-        markedEdges.clear();
+        markedEdges = null;
         
         monitor.done();
     }
     
 
+    /**
+     * Computes the given layouts concurrently, each on its own fork-join task. The layouts only share
+     * the graph, the neighborhood information and the marked edges, all of which are merely read. Each
+     * task uses its own compactor since compactors keep state while compacting a layout. The result is
+     * exactly the same as with sequential computation. If a task fails, this method returns only once
+     * all tasks are done.
+     * 
+     * @param layeredGraph the graph to place the nodes of
+     * @param layouts the layouts to compute
+     */
+    private void computeLayoutsInParallel(final LGraph layeredGraph, final List<BKAlignedLayout> layouts) {
+        final BKAligner aligner = new BKAligner(layeredGraph, ni);
+        
+        // Compactors read layout options when they are created, so create them up front
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(layouts.size());
+        for (final BKAlignedLayout bal : layouts) {
+            final ICompactor compacter = new BKCompactor(layeredGraph, ni);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                aligner.verticalAlignment(bal, markedEdges);
+                aligner.insideBlockShift(bal);
+                compacter.horizontalCompaction(bal);
+            }));
+        }
+        
+        // Wait for all layouts before rethrowing the first failure, if any, since the other tasks
+        // would otherwise keep writing into their layouts; joining only throws unchecked exceptions
+        // and errors
+        Throwable failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+            } catch (Throwable exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+    
+
     /////////////////////////////////////////////////////////////////////////////////////////////////////
     // Conflict Detection
     
@@ -355,22 +413,23 @@ public final class BKNodePlacer implements ILayoutPhase {
                 
                 if (l_1 == ((layerSize[i + 1]) - 1) || incidentToInnerSegment(v_l_i, i + 1, i)) {
                     int k_1 = layerSize[i] - 1;
-                    if (incidentToInnerSegment(v_l_i, i + 1, i)) {
-                        k_1 = ni.nodeIndex[ni.leftNeighbors.get(v_l_i.id).get(0).getFirst().id];
+                    if (incidentToInnerSegment(v_l_i, i + 1, i)
+                            && ni.leftNeighborStart[v_l_i.id] < ni.leftNeighborStart[v_l_i.id + 1]) {
+                        k_1 = ni.nodeIndex[ni.leftNeighborNodes[ni.leftNeighborStart[v_l_i.id]]];
                     }
                     
                     while (l <= l_1) {
                         LNode v_l = currentLayer.getNodes().get(l);
                         
                         if (!incidentToInnerSegment(v_l, i + 1, i)) {
-                            for (Pair<LNode, LEdge> upperNeighbor : ni.leftNeighbors.get(v_l.id)) {
-                                int k = ni.nodeIndex[upperNeighbor.getFirst().id];
+                            for (int m = ni.leftNeighborStart[v_l.id];
+                                    m < ni.leftNeighborStart[v_l.id + 1]; m++) {
+                                int k = ni.nodeIndex[ni.leftNeighborNodes[m]];
                                 
                                 if (k < k_0 || k > k_1) {
-                                    // Marked edge can't return null here, because the upper neighbor
-                                    // relationship between v_l and upperNeighbor enforces the existence
-                                    // of at least one edge between the two nodes
-                                    markedEdges.add(upperNeighbor.getSecond());
+                                    // The upper neighbor relationship between v_l and the neighbor
+                                    // comes with an edge between the two nodes
+                                    markedEdges[ni.leftNeighborEdges[m]] = true;
                                 }
                             }
                         }
@@ -480,15 +539,20 @@ public final class BKNodePlacer implements ILayoutPhase {
      * @return True if the node is part of a long edge between the layers, false else
      */
     private boolean incidentToInnerSegment(final LNode node, final int layer1, final int layer2) {
+        LGraphSnapshot snapshot = ni.snapshot;
+        if (snapshot.nodeLayer[node.id] != layer1) {
+            return false;
+        }
+        
         // consider that big nodes include their respective start and end node.
         if (node.getType() == NodeType.BIG_NODE) {
             // all nodes should be placed straightly
-            for (LEdge edge : node.getIncomingEdges()) {
-                LNode source = edge.getSource().getNode();
-                if ((source.getType() == NodeType.BIG_NODE
-                        || source.getProperty(InternalProperties.BIG_NODE_INITIAL))
-                        && ni.layerIndex[edge.getSource().getNode().getLayer().id] == layer2
-                        && ni.layerIndex[node.getLayer().id] == layer1) {
+            for (int i = snapshot.incomingStart[node.id]; i < snapshot.incomingStart[node.id + 1]; i++) {
+                int source = snapshot.edgeSource[snapshot.incomingEdges[i]];
+                LNode sourceNode = snapshot.nodes[source];
+                if ((sourceNode.getType() == NodeType.BIG_NODE
+                        || sourceNode.getProperty(InternalProperties.BIG_NODE_INITIAL))
+                        && snapshot.nodeLayer[source] == layer2) {
                         
                     return true;
                 }
@@ -496,12 +560,11 @@ public final class BKNodePlacer implements ILayoutPhase {
         }
         
         if (node.getType() == NodeType.LONG_EDGE) {
-            for (LEdge edge : node.getIncomingEdges()) {
-                NodeType sourceNodeType = edge.getSource().getNode().getType();
+            for (int i = snapshot.incomingStart[node.id]; i < snapshot.incomingStart[node.id + 1]; i++) {
+                int source = snapshot.edgeSource[snapshot.incomingEdges[i]];
                 
-                if (sourceNodeType == NodeType.LONG_EDGE
-                        && ni.layerIndex[edge.getSource().getNode().getLayer().id] == layer2
-                        && ni.layerIndex[node.getLayer().id] == layer1) {
+                if (snapshot.nodes[source].getType() == NodeType.LONG_EDGE
+                        && snapshot.nodeLayer[source] == layer2) {
                     
                     return true;
                 }
@@ -509,23 +572,6 @@ public final class BKNodePlacer implements ILayoutPhase {
         }
         return false;
     }
-  
-    /**
-     * Find an edge between two given nodes.
-     * 
-     * @param source The source node of the edge
-     * @param target The target node of the edge
-     * @return The edge between source and target, or null if there is none
-     */
-    static LEdge getEdge(final LNode source, final LNode target) {
-        for (LEdge edge : source.getConnectedEdges()) {
-            if (edge.getTarget().getNode().equals(target) || edge.getSource().getNode().equals(target)) {
-                return edge;
-            }
-        }
-        
-        return null;
-    }
 
     /**
      * Finds all blocks of a given layout.
@@ -10,18 +10,12 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p4nodes.bk;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
 
-import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LGraph;
-import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.LGraphSnapshot;
 import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.properties.LayeredOptions;
-import org.eclipse.elk.core.util.Pair;
-
-import com.google.common.collect.Lists;
 
 /**
  * Class holds neighborhood information for a layered graph that is used during bk node placing.
@@ -33,23 +27,32 @@ import com.google.common.collect.Lists;
 public final class NeighborhoodInformation {
     
     // Allow the fields of this container to be accessed from package siblings.
-    // SUPPRESS CHECKSTYLE NEXT 24 VisibilityModifier
+    // SUPPRESS CHECKSTYLE NEXT 40 VisibilityModifier
     
     /** Number of nodes in the graph. */
     public int nodeCount;
+    /** The snapshot of the graph's structure; node ids equal the snapshot's node indices. */
+    public LGraphSnapshot snapshot;
     /** For a layer l the entry at layerIndex[l.id] holds the index of layer l. */
     public int[] layerIndex;
     /** For a node n the entry at nodeIndex[n.id] holds the index of n in its layer. */
     public int[] nodeIndex;
     /**
-     * For a node n holds leftNeighbors.get(n.id) holds a list with all left neighbors along with
-     * any edge that connects n to its neighbor.
+     * For a node n, the left neighbors are stored at the indices from leftNeighborStart[n.id]
+     * (inclusive) to leftNeighborStart[n.id + 1] (exclusive) of {@link #leftNeighborNodes} and
+     * {@link #leftNeighborEdges}. Has {@code nodeCount + 1} entries.
      */
-    public List<List<Pair<LNode, LEdge>>> leftNeighbors;
-    /** See javadoc of {@link #leftNeighbors}. */
-    public List<List<Pair<LNode, LEdge>>> rightNeighbors;
-    /** A comparator to sort a list of neighbor nodes. */
-    private NeighborComparator neighborComparator;
+    public int[] leftNeighborStart;
+    /** Ids of the left neighbors of all nodes, each node's neighbors sorted by their index in layer. */
+    public int[] leftNeighborNodes;
+    /** For each left neighbor the snapshot index of an edge that connects it to the node. */
+    public int[] leftNeighborEdges;
+    /** See javadoc of {@link #leftNeighborStart}. */
+    public int[] rightNeighborStart;
+    /** See javadoc of {@link #leftNeighborNodes}. */
+    public int[] rightNeighborNodes;
+    /** See javadoc of {@link #leftNeighborEdges}. */
+    public int[] rightNeighborEdges;
     
     /**
      * Use {@link #buildFor(LGraph)} to construct an instance.
@@ -61,11 +64,15 @@ public final class NeighborhoodInformation {
      * Release allocated resources.
      */
     public void cleanup() {
+        snapshot = null;
         layerIndex = null;
         nodeIndex = null;
-        leftNeighbors.clear();
-        rightNeighbors.clear();
-        neighborComparator = null;
+        leftNeighborStart = null;
+        leftNeighborNodes = null;
+        leftNeighborEdges = null;
+        rightNeighborStart = null;
+        rightNeighborNodes = null;
+        rightNeighborEdges = null;
     }
     
     /**
@@ -85,118 +92,98 @@ public final class NeighborhoodInformation {
     public static NeighborhoodInformation buildFor(final LGraph graph) {
         NeighborhoodInformation ni = new NeighborhoodInformation();
         
-        ni.nodeCount = 0;
-        for (Layer layer : graph) {
-            ni.nodeCount += layer.getNodes().size();
-        }
+        // the snapshot assigns node ids layer by layer
+        LGraphSnapshot snapshot = LGraphSnapshot.ofLayers(graph);
+        ni.snapshot = snapshot;
+        ni.nodeCount = snapshot.nodeCount;
         
         // cache indexes of layers and of nodes
         int lId = 0;
-        int lIndex = 0;
-        ni.layerIndex = new int[graph.getLayers().size()];
-        int nId = 0;
-        int nIndex = 0;
-        ni.nodeIndex = new int[ni.nodeCount];
+        ni.layerIndex = new int[snapshot.layerCount];
         for (Layer l : graph.getLayers()) {
-            l.id = lId++;
-            ni.layerIndex[l.id] = lIndex++;
-            nIndex = 0;
-            for (LNode n : l.getNodes()) {
-                n.id = nId++;
-                ni.nodeIndex[n.id] = nIndex++;
-            }
+            l.id = lId;
+            ni.layerIndex[lId] = lId;
+            lId++;
+        }
+        ni.nodeIndex = new int[ni.nodeCount];
+        for (int n = 0; n < ni.nodeCount; n++) {
+            ni.nodeIndex[n] = snapshot.indexInLayer(n);
         }
         
-        // we will need a comparator for the next step
-        ni.neighborComparator = ni.new NeighborComparator();
+        // the priority of every edge is needed twice
+        int[] edgePriority = new int[snapshot.edgeCount];
+        for (int e = 0; e < snapshot.edgeCount; e++) {
+            edgePriority[e] = snapshot.edges[e].getProperty(LayeredOptions.PRIORITY);
+        }
         
         // determine all left and right neighbors of the graph's nodes
-        ni.leftNeighbors = Lists.newArrayListWithCapacity(ni.nodeCount);
-        determineAllLeftNeighbors(ni, graph);
-        ni.rightNeighbors = Lists.newArrayListWithCapacity(ni.nodeCount);
-        determineAllRightNeighbors(ni, graph);
+        long[] sortKeys = new long[snapshot.edgeCount];
+        ni.leftNeighborStart = new int[ni.nodeCount + 1];
+        ni.leftNeighborNodes = new int[snapshot.edgeCount];
+        ni.leftNeighborEdges = new int[snapshot.edgeCount];
+        determineNeighbors(ni, snapshot.incomingStart, snapshot.incomingEdges, edgePriority, sortKeys,
+                ni.leftNeighborStart, ni.leftNeighborNodes, ni.leftNeighborEdges);
+        ni.rightNeighborStart = new int[ni.nodeCount + 1];
+        ni.rightNeighborNodes = new int[snapshot.edgeCount];
+        ni.rightNeighborEdges = new int[snapshot.edgeCount];
+        determineNeighbors(ni, snapshot.outgoingStart, snapshot.outgoingEdges, edgePriority, sortKeys,
+                ni.rightNeighborStart, ni.rightNeighborNodes, ni.rightNeighborEdges);
         
         return ni;
     }
     
-    
     /**
-     * Give all right neighbors (originally known as lower neighbors) of a given node. A lower
-     * neighbor is a node in a following layer that has an edge coming from the given node.
+     * Determines the left or right neighbors of all nodes. Left neighbors (originally known as upper
+     * neighbors) of a node are the nodes in other layers that have an edge pointing to the node; right
+     * neighbors (originally known as lower neighbors) are the nodes in other layers that have an edge
+     * coming from the node. Only the edges of maximal priority are regarded. The neighbors of each
+     * node are sorted by their index in layer, keeping the order of edges for neighbors with equal
+     * index.
+     * 
+     * @param ni the neighborhood information
+     * @param edgeStart the snapshot's incoming or outgoing edge ranges
+     * @param edges the snapshot's incoming or outgoing edges
+     * @param edgePriority the priority of each edge
+     * @param sortKeys buffer for sorting with at least as many entries as there are edges
+     * @param neighborStart the array the neighbor ranges are written to
+     * @param neighborNodes the array the neighbor nodes are written to
+     * @param neighborEdges the array the neighbor edges are written to
      */
-    private static void determineAllRightNeighbors(final NeighborhoodInformation ni,
-            final LGraph graph) {
-        for (Layer l : graph) {
-            for (LNode n : l) {
-
-                List<Pair<LNode, LEdge>> result = Lists.newArrayList();
-                int maxPriority = 0;
-
-                for (LEdge edge : n.getOutgoingEdges()) {
-                    if (edge.getProperty(LayeredOptions.PRIORITY) > maxPriority) {
-                        maxPriority = edge.getProperty(LayeredOptions.PRIORITY);
-                    }
-                }
-
-                for (LEdge edge : n.getOutgoingEdges()) {
-                    if (n.getLayer() != edge.getTarget().getNode().getLayer()
-                            && edge.getProperty(LayeredOptions.PRIORITY) == maxPriority) {
-
-                        result.add(Pair.of(edge.getTarget().getNode(), edge));
-                    }
-                }
-
-                Collections.sort(result, ni.neighborComparator);
-
-                ni.rightNeighbors.add(n.id, result);
+    private static void determineNeighbors(final NeighborhoodInformation ni, final int[] edgeStart,
+            final int[] edges, final int[] edgePriority, final long[] sortKeys,
+            final int[] neighborStart, final int[] neighborNodes, final int[] neighborEdges) {
+        
+        LGraphSnapshot snapshot = ni.snapshot;
+        int neighborIndex = 0;
+        for (int n = 0; n < ni.nodeCount; n++) {
+            neighborStart[n] = neighborIndex;
+            
+            int maxPriority = 0;
+            for (int i = edgeStart[n]; i < edgeStart[n + 1]; i++) {
+                maxPriority = Math.max(maxPriority, edgePriority[edges[i]]);
             }
-        }
-    }
-    
-
-    /**
-     * Gives all left neighbors (originally known as upper neighbors) of a given node. An upper
-     * neighbor is a node in a previous layer that has an edge pointing to the given node.
-     */
-    private static void determineAllLeftNeighbors(final NeighborhoodInformation ni,
-            final LGraph graph) {
-        for (Layer l : graph) {
-            for (LNode n : l) {
-                
-                List<Pair<LNode, LEdge>> result = Lists.newArrayList();
-                int maxPriority = 0;
-                
-                for (LEdge edge : n.getIncomingEdges()) {
-                    if (edge.getProperty(LayeredOptions.PRIORITY) > maxPriority) {
-                        maxPriority = edge.getProperty(LayeredOptions.PRIORITY);
-                    }
+            
+            // collect the neighbors, keyed by their index in layer and their position in the edge order
+            int count = 0;
+            for (int i = edgeStart[n]; i < edgeStart[n + 1]; i++) {
+                int e = edges[i];
+                int neighbor = snapshot.opposite(e, n);
+                if (snapshot.nodeLayer[neighbor] != snapshot.nodeLayer[n]
+                        && edgePriority[e] == maxPriority) {
+                    sortKeys[count++] =
+                            ((long) ni.nodeIndex[neighbor] << Integer.SIZE) | (i - edgeStart[n]);
                 }
-                
-                for (LEdge edge : n.getIncomingEdges()) {
-                    if (n.getLayer() != edge.getSource().getNode().getLayer()
-                            && edge.getProperty(LayeredOptions.PRIORITY) == maxPriority) {
-                        result.add(Pair.of(edge.getSource().getNode(), edge));
-                    }
-                }
-                
-                Collections.sort(result, ni.neighborComparator);
-                
-                ni.leftNeighbors.add(n.id, result);
+            }
+            
+            Arrays.sort(sortKeys, 0, count);
+            for (int k = 0; k < count; k++) {
+                int e = edges[edgeStart[n] + (int) sortKeys[k]];
+                neighborNodes[neighborIndex] = snapshot.opposite(e, n);
+                neighborEdges[neighborIndex] = e;
+                neighborIndex++;
             }
         }
+        neighborStart[ni.nodeCount] = neighborIndex;
     }
     
-    /////////////////////////////////////////////////////////////////////////////////////////////////////
-    // Class NeighborComparator
-    
-    // SUPPRESS CHECKSTYLE NEXT 1 Javadoc
-    private final class NeighborComparator implements Comparator<Pair<LNode, LEdge>> {
-        /**
-         * {@inheritDoc}
-         */
-        public int compare(final Pair<LNode, LEdge> o1, final Pair<LNode, LEdge> o2) {
-            int cmp = nodeIndex[o1.getFirst().id] - nodeIndex[o2.getFirst().id];
-            return (int) Math.signum(cmp);
-        }
-    }
 }
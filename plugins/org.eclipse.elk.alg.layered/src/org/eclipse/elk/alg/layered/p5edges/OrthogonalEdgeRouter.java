@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p5edges;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.elk.alg.layered.ILayoutPhase;
 import org.eclipse.elk.alg.layered.IntermediateProcessingConfiguration;
@@ -21,6 +25,7 @@ import org.eclipse.elk.alg.layered.graph.LGraphUtil;
 import org.eclipse.elk.alg.layered.graph.LNode;
 import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
+import org.eclipse.elk.alg.layered.p5edges.OrthogonalRoutingGenerator.HyperNode;
 import org.eclipse.elk.alg.layered.properties.GraphProperties;
 import org.eclipse.elk.alg.layered.properties.InternalProperties;
 import org.eclipse.elk.alg.layered.properties.LayeredOptions;
@@ -28,6 +33,7 @@ import org.eclipse.elk.alg.layered.properties.Spacings;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 
 /**
  * Edge routing implementation that creates orthogonal bend points. Inspired by
@@ -220,14 +226,17 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase {
         OrthogonalRoutingGenerator routingGenerator = new OrthogonalRoutingGenerator(
                 OrthogonalRoutingGenerator.RoutingDirection.WEST_TO_EAST,
                 spacings.edgeEdgeSpacing, debug ? "phase5" : null);
+        
+        // Assign routing slots to the hypernodes of all gaps between layers up front; this does not
+        // depend on any horizontal coordinates
+        Iterator<List<HyperNode>> slotIter = computeSlots(layeredGraph, routingGenerator).iterator();
+        
         float xpos = 0.0f;
         ListIterator<Layer> layerIter = layeredGraph.getLayers().listIterator();
         Layer leftLayer = null;
         Layer rightLayer = null;
         List<LNode> leftLayerNodes = null;
         List<LNode> rightLayerNodes = null;
-        int leftLayerIndex = -1;
-        int rightLayerIndex = -1;
         
         // Iterate!
         do {
@@ -236,7 +245,6 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase {
             // Fetch the next layer, if any
             rightLayer = layerIter.hasNext() ? layerIter.next() : null;
             rightLayerNodes = rightLayer == null ? null : rightLayer.getNodes();
-            rightLayerIndex = layerIter.previousIndex();
             
             // Place the left layer's nodes, if any
             if (leftLayer != null) {
@@ -246,8 +254,7 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase {
             
             // Route edges between the two layers
             double startPos = leftLayer == null ? xpos : xpos + spacings.edgeNodeSpacing;
-            slotsCount = routingGenerator.routeEdges(layeredGraph, leftLayerNodes, leftLayerIndex,
-                    rightLayerNodes, startPos);
+            slotsCount = routingGenerator.assignCoordinates(slotIter.next(), startPos);
             
             boolean isLeftLayerExternal = leftLayer == null || Iterables.all(leftLayerNodes,
                     PolylineEdgeRouter.PRED_EXTERNAL_WEST_OR_EAST_PORT);
@@ -274,7 +281,6 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase {
             
             leftLayer = rightLayer;
             leftLayerNodes = rightLayerNodes;
-            leftLayerIndex = rightLayerIndex;
         } while (rightLayer != null);
         
         layeredGraph.getSize().x = xpos;
@@ -282,4 +288,77 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase {
         monitor.done();
     }
     
+    /**
+     * Computes the ranked hypernodes for each gap between two consecutive layers, including the
+     * gaps before the first and after the last layer. If
+     * {@link LayeredOptions#EDGE_ROUTING_PARALLEL} is set, the gaps are processed concurrently,
+     * each with its own randomizer seeded from the graph's randomizer in gap order.
+     * 
+     * @param layeredGraph the layered graph.
+     * @param routingGenerator the routing generator to compute the slots with.
+     * @return one list of ranked hypernodes per gap, from left to right.
+     */
+    private List<List<HyperNode>> computeSlots(final LGraph layeredGraph,
+            final OrthogonalRoutingGenerator routingGenerator) {
+        
+        final List<Layer> layers = layeredGraph.getLayers();
+        int gapCount = layers.size() + 1;
+        List<List<HyperNode>> slots = Lists.newArrayListWithCapacity(gapCount);
+        Random random = layeredGraph.getProperty(InternalProperties.RANDOM);
+        
+        if (gapCount > 1 && layeredGraph.getProperty(LayeredOptions.EDGE_ROUTING_PARALLEL)) {
+            List<ForkJoinTask<List<HyperNode>>> tasks = Lists.newArrayListWithCapacity(gapCount);
+            for (int gap = 0; gap < gapCount; gap++) {
+                final int gapIndex = gap;
+                final Random gapRandom = new Random(random.nextLong());
+                tasks.add(ForkJoinPool.commonPool().submit(
+                        () -> computeSlots(layeredGraph, routingGenerator, layers, gapIndex, gapRandom)));
+            }
+            
+            // Wait for all gaps before rethrowing the first failure, if any; joining only throws
+            // unchecked exceptions and errors
+            Throwable failure = null;
+            for (ForkJoinTask<List<HyperNode>> task : tasks) {
+                try {
+                    slots.add(task.join());
+                } catch (Throwable exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    }
+                }
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        } else {
+            for (int gap = 0; gap < gapCount; gap++) {
+                slots.add(computeSlots(layeredGraph, routingGenerator, layers, gap, random));
+            }
+        }
+        
+        return slots;
+    }
+    
+    /**
+     * Computes the ranked hypernodes for the gap between the layers {@code gap - 1} and {@code gap}.
+     * 
+     * @param layeredGraph the layered graph.
+     * @param routingGenerator the routing generator to compute the slots with.
+     * @param layers the graph's layers.
+     * @param gap index of the gap, ranging from zero to the number of layers.
+     * @param random randomizer used to break cycles.
+     * @return the ranked hypernodes of the gap.
+     */
+    private List<HyperNode> computeSlots(final LGraph layeredGraph,
+            final OrthogonalRoutingGenerator routingGenerator, final List<Layer> layers,
+            final int gap, final Random random) {
+        
+        List<LNode> leftLayerNodes = gap > 0 ? layers.get(gap - 1).getNodes() : null;
+        List<LNode> rightLayerNodes = gap < layers.size() ? layers.get(gap).getNodes() : null;
+        return routingGenerator.computeSlots(layeredGraph, leftLayerNodes, gap - 1, rightLayerNodes,
+                random);
+    }
+    
 }
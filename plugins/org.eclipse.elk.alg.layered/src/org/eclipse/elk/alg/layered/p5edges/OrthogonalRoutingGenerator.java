@@ -11,6 +11,7 @@
 package org.eclipse.elk.alg.layered.p5edges;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -311,9 +312,9 @@ public final class OrthogonalRoutingGenerator {
         /** vertical ending position of this hypernode. */
         private double end = Double.NaN;
         /** positions of line segments going to the preceding layer. */
-        private LinkedList<Double> sourcePosis = Lists.newLinkedList();
+        private SortedPositions sourcePosis = new SortedPositions();
         /** positions of line segments going to the next layer. */
-        private LinkedList<Double> targetPosis = Lists.newLinkedList();
+        private SortedPositions targetPosis = new SortedPositions();
         /** list of outgoing dependencies. */
         private List<Dependency> outgoing = Lists.newArrayList();
         /** sum of the weights of outgoing dependencies. */
@@ -350,9 +351,9 @@ public final class OrthogonalRoutingGenerator {
             
             // add the new port position to the respective list
             if (port.getSide() == routingStrategy.getSourcePortSide()) {
-                insertSorted(sourcePosis, pos);
+                sourcePosis.insert(pos);
             } else {
-                insertSorted(targetPosis, pos);
+                targetPosis.insert(pos);
             }
             
             // add connected ports
@@ -490,6 +491,69 @@ public final class OrthogonalRoutingGenerator {
     }
     
     
+    /**
+     * A sorted set of positions of horizontal line segments, stored in a primitive array.
+     */
+    private static final class SortedPositions {
+        
+        /** the initial capacity of the array. */
+        private static final int INITIAL_CAPACITY = 4;
+        
+        /** the positions in ascending order; only the first {@code size} entries are valid. */
+        private double[] values = new double[INITIAL_CAPACITY];
+        /** the number of positions. */
+        private int size;
+        
+        /**
+         * Inserts the given position, unless it is already present.
+         * 
+         * @param value the position to insert
+         */
+        void insert(final double value) {
+            int index = 0;
+            while (index < size) {
+                // the comparison is done with float precision for consistency with earlier versions
+                double next = (float) values[index];
+                if (next == value) {
+                    // an exactly equal value is already present
+                    return;
+                } else if (next > value) {
+                    break;
+                }
+                index++;
+            }
+            
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+        
+        /**
+         * @return whether there are no positions
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        /**
+         * @return the first position; only valid if there are positions
+         */
+        double first() {
+            return values[0];
+        }
+        
+        /**
+         * @return the last position; only valid if there are positions
+         */
+        double last() {
+            return values[size - 1];
+        }
+    }
+    
+    
     ///////////////////////////////////////////////////////////////////////////////
     // Constants and Variables
 
@@ -550,7 +614,9 @@ public final class OrthogonalRoutingGenerator {
     // Edge Routing
     
     /**
-     * Route edges between the given layers.
+     * Route edges between the given layers. This is equivalent to calling
+     * {@link #computeSlots(LGraph, Iterable, int, Iterable, Random)} with the graph's random number
+     * generator, followed by {@link #assignCoordinates(List, double)}.
      * 
      * @param layeredGraph the layered graph.
      * @param sourceLayerNodes the left layer. May be {@code null}.
@@ -562,6 +628,29 @@ public final class OrthogonalRoutingGenerator {
     public int routeEdges(final LGraph layeredGraph, final Iterable<LNode> sourceLayerNodes,
             final int sourceLayerIndex, final Iterable<LNode> targetLayerNodes, final double startPos) {
         
+        List<HyperNode> hyperNodes = computeSlots(layeredGraph, sourceLayerNodes, sourceLayerIndex,
+                targetLayerNodes, layeredGraph.getProperty(InternalProperties.RANDOM));
+        return assignCoordinates(hyperNodes, startPos);
+    }
+    
+    /**
+     * Computes the hypernodes between the given layers and assigns each of them a routing slot. No
+     * coordinates are computed yet, which is why the result does not depend on the horizontal
+     * position of the layers. This method does not modify the generator's state and may thus be
+     * called concurrently for different pairs of layers, provided that each call is given its own
+     * random number generator.
+     * 
+     * @param layeredGraph the layered graph.
+     * @param sourceLayerNodes the left layer. May be {@code null}.
+     * @param sourceLayerIndex the source layer's index. Ignored if there is no source layer.
+     * @param targetLayerNodes the right layer. May be {@code null}.
+     * @param random random number generator used to break cycles in the dependency graph.
+     * @return the ranked hypernodes, to be passed to {@link #assignCoordinates(List, double)}.
+     */
+    public List<HyperNode> computeSlots(final LGraph layeredGraph,
+            final Iterable<LNode> sourceLayerNodes, final int sourceLayerIndex,
+            final Iterable<LNode> targetLayerNodes, final Random random) {
+        
         Map<LPort, HyperNode> portToHyperNodeMap = Maps.newHashMap();
         List<HyperNode> hyperNodes = Lists.newArrayList();
         
@@ -573,15 +662,7 @@ public final class OrthogonalRoutingGenerator {
                 portToHyperNodeMap);
         
         // create dependencies for the hypernode ordering graph
-        ListIterator<HyperNode> iter1 = hyperNodes.listIterator();
-        while (iter1.hasNext()) {
-            HyperNode hyperNode1 = iter1.next();
-            ListIterator<HyperNode> iter2 = hyperNodes.listIterator(iter1.nextIndex());
-            while (iter2.hasNext()) {
-                HyperNode hyperNode2 = iter2.next();
-                createDependency(hyperNode1, hyperNode2, conflictThreshold);
-            }
-        }
+        createDependencies(hyperNodes, conflictThreshold);
         
         // write the full dependency graph to an output file
         if (debugPrefix != null) {
@@ -590,7 +671,7 @@ public final class OrthogonalRoutingGenerator {
         }
         
         // break cycles
-        breakCycles(hyperNodes, layeredGraph.getProperty(InternalProperties.RANDOM));
+        breakCycles(hyperNodes, random);
 
         // write the acyclic dependency graph to an output file
         if (debugPrefix != null) {
@@ -601,6 +682,19 @@ public final class OrthogonalRoutingGenerator {
         // assign ranks to the hypernodes
         topologicalNumbering(hyperNodes);
         
+        return hyperNodes;
+    }
+    
+    /**
+     * Computes bend points for the given ranked hypernodes, placing the first routing slot at the
+     * given position.
+     * 
+     * @param hyperNodes hypernodes as returned by
+     *          {@link #computeSlots(LGraph, Iterable, int, Iterable, Random)}.
+     * @param startPos horizontal position of the first routing slot
+     * @return the number of routing slots occupied by the hypernodes
+     */
+    public int assignCoordinates(final List<HyperNode> hyperNodes, final double startPos) {
         // set bend points with appropriate coordinates
         int rankCount = -1;
         for (HyperNode node : hyperNodes) {
@@ -649,6 +743,56 @@ public final class OrthogonalRoutingGenerator {
         }
     }
 
+    /**
+     * Creates the dependencies between all pairs of the given hypernodes that need one. Two hypernodes
+     * can only depend on each other if their vertical extents overlap or are less than
+     * {@code minDiff} apart, so only such pairs are considered. They are found by sweeping over the
+     * hypernodes in order of their start positions. The dependencies are created in the same order
+     * as if all pairs were considered in the order of the list.
+     * 
+     * @param hyperNodes the hypernodes
+     * @param minDiff the minimal difference between horizontal line segments to avoid a conflict
+     */
+    private static void createDependencies(final List<HyperNode> hyperNodes, final double minDiff) {
+        // the marks are reset during cycle breaking, so they can be used to remember the list
+        // indices; straight lines don't take up a slot and thus don't create dependencies
+        List<HyperNode> sorted = Lists.newArrayListWithCapacity(hyperNodes.size());
+        int index = 0;
+        for (HyperNode hyperNode : hyperNodes) {
+            hyperNode.mark = index++;
+            if (Math.abs(hyperNode.start - hyperNode.end) >= TOLERANCE) {
+                sorted.add(hyperNode);
+            }
+        }
+        sorted.sort((hn1, hn2) -> Double.compare(hn1.start, hn2.start));
+        
+        // a hypernode that starts after another one can only depend on it if it starts at most
+        // minDiff below the other's end (the tolerance guards against rounding errors); collect
+        // those pairs, each as the list indices of its two hypernodes with the smaller one in the
+        // upper half of a long
+        long[] pairs = new long[sorted.size()];
+        int pairCount = 0;
+        for (int k = 0; k < sorted.size(); k++) {
+            HyperNode hn1 = sorted.get(k);
+            double reach = hn1.end + minDiff + TOLERANCE;
+            for (int l = k + 1; l < sorted.size() && sorted.get(l).start <= reach; l++) {
+                HyperNode hn2 = sorted.get(l);
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, 2 * pairCount);
+                }
+                pairs[pairCount++] = ((long) Math.min(hn1.mark, hn2.mark) << Integer.SIZE)
+                        | Math.max(hn1.mark, hn2.mark);
+            }
+        }
+        
+        // create the dependencies in list order
+        Arrays.sort(pairs, 0, pairCount);
+        for (int p = 0; p < pairCount; p++) {
+            createDependency(hyperNodes.get((int) (pairs[p] >>> Integer.SIZE)),
+                    hyperNodes.get((int) pairs[p]), minDiff);
+        }
+    }
+
     /**
      * Create a dependency between the two given hypernodes, if one is needed. 
      * 
@@ -699,16 +843,18 @@ public final class OrthogonalRoutingGenerator {
      * @param minDiff minimal difference between two positions
      * @return number of positions that overlap
      */
-    private static int countConflicts(final List<Double> posis1, final List<Double> posis2,
+    private static int countConflicts(final SortedPositions posis1, final SortedPositions posis2,
             final double minDiff) {
         
         int conflicts = 0;
         
         if (!posis1.isEmpty() && !posis2.isEmpty()) {
-            Iterator<Double> iter1 = posis1.iterator();
-            Iterator<Double> iter2 = posis2.iterator();
-            double pos1 = iter1.next();
-            double pos2 = iter2.next();
+            double[] values1 = posis1.values;
+            double[] values2 = posis2.values;
+            int index1 = 0;
+            int index2 = 0;
+            double pos1 = values1[0];
+            double pos2 = values2[0];
             boolean hasMore = true;
             
             do {
@@ -716,10 +862,10 @@ public final class OrthogonalRoutingGenerator {
                     conflicts++;
                 }
                 
-                if (pos1 <= pos2 && iter1.hasNext()) {
-                    pos1 = iter1.next();
-                } else if (pos2 <= pos1 && iter2.hasNext()) {
-                    pos2 = iter2.next();
+                if (pos1 <= pos2 && index1 + 1 < posis1.size) {
+                    pos1 = values1[++index1];
+                } else if (pos2 <= pos1 && index2 + 1 < posis2.size) {
+                    pos2 = values2[++index2];
                 } else {
                     hasMore = false;
                 }
@@ -737,9 +883,10 @@ public final class OrthogonalRoutingGenerator {
      * @param end end of the critical area
      * @return number of positions in the critical area
      */
-    private static int countCrossings(final List<Double> posis, final double start, final double end) {
+    private static int countCrossings(final SortedPositions posis, final double start, final double end) {
         int crossings = 0;
-        for (double pos : posis) {
+        for (int i = 0; i < posis.size; i++) {
+            double pos = posis.values[i];
             if (pos > end) {
                 break;
             } else if (pos >= start) {
@@ -918,7 +1065,7 @@ public final class OrthogonalRoutingGenerator {
                 sources.add(node);
             }
             
-            if (node.outweight == 0 && node.sourcePosis.size() == 0) {
+            if (node.outweight == 0 && node.sourcePosis.isEmpty()) {
                 rightwardTargets.add(node);
             }
         }
@@ -960,7 +1107,7 @@ public final class OrthogonalRoutingGenerator {
                 // The node only has connections to western ports
                 for (Dependency dep : node.incoming) {
                     HyperNode source = dep.source;
-                    if (source.sourcePosis.size() > 0) {
+                    if (!source.sourcePosis.isEmpty()) {
                         continue;
                     }
                     
@@ -979,27 +1126,6 @@ public final class OrthogonalRoutingGenerator {
     ///////////////////////////////////////////////////////////////////////////////
     // Utilities
     
-    /**
-     * Inserts a given value into a sorted list.
-     * 
-     * @param list sorted list
-     * @param value value to insert
-     */
-    private static void insertSorted(final List<Double> list, final double value) {
-        ListIterator<Double> listIter = list.listIterator();
-        while (listIter.hasNext()) {
-            double next = listIter.next().floatValue();
-            if (next == value) {
-                // an exactly equal value is already present in the list
-                return;
-            } else if (next > value) {
-                listIter.previous();
-                break;
-            }
-        }
-        listIter.add(Double.valueOf(value));
-    }
-    
     /**
      * Add a junction point to the given edge if necessary. It is necessary to add a junction point if
      * the bend point is not at one of the two end positions of the hypernode.
@@ -1019,11 +1145,11 @@ public final class OrthogonalRoutingGenerator {
         if (p > hyperNode.start && p < hyperNode.end
                 || !hyperNode.sourcePosis.isEmpty() && !hyperNode.targetPosis.isEmpty()
                 // the bend point is at the start and joins another edge at the same position
-                && (Math.abs(p - hyperNode.sourcePosis.getFirst()) < TOLERANCE
-                    && Math.abs(p - hyperNode.targetPosis.getFirst()) < TOLERANCE
+                && (Math.abs(p - hyperNode.sourcePosis.first()) < TOLERANCE
+                    && Math.abs(p - hyperNode.targetPosis.first()) < TOLERANCE
                 // the bend point is at the end and joins another edge at the same position
-                    || Math.abs(p - hyperNode.sourcePosis.getLast()) < TOLERANCE
-                    && Math.abs(p - hyperNode.targetPosis.getLast()) < TOLERANCE)) {
+                    || Math.abs(p - hyperNode.sourcePosis.last()) < TOLERANCE
+                    && Math.abs(p - hyperNode.targetPosis.last()) < TOLERANCE)) {
             
             // check whether there is already a junction point at the same position
             if (!createdJunctionPoints.contains(pos)) {
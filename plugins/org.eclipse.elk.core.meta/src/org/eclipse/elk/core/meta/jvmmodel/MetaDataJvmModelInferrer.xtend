@@ -155,7 +155,8 @@ class MetaDataJvmModelInferrer extends AbstractModelInferrer {
                         «option.qualifiedName.toCodeString»«IF option.hasDefaultOrBounds»,
                         «IF option.defaultValue !== null»«option.defaultConstantName»«ELSE»null«ENDIF»,
                         «IF option.lowerBound !== null»«option.lowerBoundConstantName»«ELSE»null«ENDIF»,
-                        «IF option.upperBound !== null»«option.upperBoundConstantName»«ELSE»null«ENDIF»«ENDIF»)'''
+                        «IF option.upperBound !== null»«option.upperBoundConstantName»«ELSE»null«ENDIF»«ENDIF»«IF option.defaultCopier !== null»,
+                        «option.defaultCopier»«ENDIF»)'''
             documentation = option.description.trimLines
         ]
     }
@@ -164,6 +165,31 @@ class MetaDataJvmModelInferrer extends AbstractModelInferrer {
         return option.defaultValue !== null || option.lowerBound !== null || option.upperBound !== null
     }
     
+    /**
+     * Returns a typed copy function for the option's default value, or {@code null} if the default value
+     * is immutable or can only be cloned reflectively.
+     */
+    private def StringConcatenationClient getDefaultCopier(MdOption option) {
+        val jvmType = option.type?.type
+        if (option.defaultValue !== null && jvmType instanceof JvmGenericType) {
+            val genericType = jvmType as JvmGenericType
+            if (genericType.identifier == EnumSet.canonicalName) {
+                return '''«EnumSet»::copyOf'''
+            } else if (genericType.hasSupertype(Cloneable) && genericType.hasCopyConstructor) {
+                return '''«option.type.cloneWithProxies»::new'''
+            }
+        }
+        return null
+    }
+    
+    private def boolean hasCopyConstructor(JvmGenericType type) {
+        return type.declaredConstructors.exists[ c |
+            c.visibility == JvmVisibility.PUBLIC
+                && c.parameters.size == 1
+                && c.parameters.head.parameterType.type == type
+        ]
+    }
+    
     private def toOptionDefault(MdOption option) {
         val optionType = option.type.cloneWithProxies ?: typeRef(Object)
         return option.toField(option.defaultConstantName, optionType) [
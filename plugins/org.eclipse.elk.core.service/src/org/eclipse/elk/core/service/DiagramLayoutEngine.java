@@ -29,8 +29,6 @@ import org.eclipse.elk.core.GraphValidationException;
 import org.eclipse.elk.core.IGraphLayoutEngine;
 import org.eclipse.elk.core.LayoutConfigurator;
 import org.eclipse.elk.core.LayoutOptionValidator;
-import org.eclipse.elk.core.data.LayoutMetaDataService;
-import org.eclipse.elk.core.data.LayoutOptionData;
 import org.eclipse.elk.core.klayoutdata.KShapeLayout;
 import org.eclipse.elk.core.options.CoreOptions;
 import org.eclipse.elk.core.options.PortConstraints;
@@ -44,11 +42,8 @@ import org.eclipse.elk.core.util.IGraphElementVisitor;
 import org.eclipse.elk.core.util.IValidatingGraphElementVisitor;
 import org.eclipse.elk.core.util.Maybe;
 import org.eclipse.elk.core.util.Pair;
-import org.eclipse.elk.graph.KEdge;
 import org.eclipse.elk.graph.KGraphElement;
-import org.eclipse.elk.graph.KLabel;
 import org.eclipse.elk.graph.KNode;
-import org.eclipse.elk.graph.KPort;
 import org.eclipse.elk.graph.properties.IProperty;
 import org.eclipse.elk.graph.properties.IPropertyHolder;
 import org.eclipse.elk.graph.properties.MapPropertyHolder;
@@ -168,30 +163,11 @@ public class DiagramLayoutEngine {
     /**
      * Filter for {@link LayoutConfigurator} that checks for each option whether its configured targets
      * match the input element.
+     * 
+     * @see LayoutConfigurator#OPTION_TARGET_FILTER
      */
     public static final Predicate<Pair<KGraphElement, IProperty<?>>> OPTION_TARGET_FILTER =
-        (Pair<KGraphElement, IProperty<?>> input) -> {
-            LayoutOptionData optionData = LayoutMetaDataService.getInstance().getOptionData(input.getSecond().getId());
-            if (optionData != null) {
-                KGraphElement e = input.getFirst();
-                Set<LayoutOptionData.Target> targets = optionData.getTargets();
-                if (e instanceof KNode) {
-                    if (((KNode) e).getChildren().isEmpty()) {
-                        return targets.contains(LayoutOptionData.Target.NODES);
-                    } else {
-                        return targets.contains(LayoutOptionData.Target.NODES)
-                                || targets.contains(LayoutOptionData.Target.PARENTS);
-                    }
-                } else if (e instanceof KEdge) {
-                    return targets.contains(LayoutOptionData.Target.EDGES);
-                } else if (e instanceof KPort) {
-                    return targets.contains(LayoutOptionData.Target.PORTS);
-                } else if (e instanceof KLabel) {
-                    return targets.contains(LayoutOptionData.Target.LABELS);
-                }
-            }
-            return true;
-        };
+            LayoutConfigurator.OPTION_TARGET_FILTER;
     
     /**
      * Property for the diagram layout connector used for automatic layout. This property is
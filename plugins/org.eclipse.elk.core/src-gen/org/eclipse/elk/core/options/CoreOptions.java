@@ -176,6 +176,22 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             null,
             null);
   
+  /**
+   * Default value for {@link #PARALLEL_CHILDREN}.
+   */
+  private final static boolean PARALLEL_CHILDREN_DEFAULT = false;
+  
+  /**
+   * Whether the children of a parent node whose content is laid out separately are laid out
+   * concurrently. Only children that have content of their own are handed to a fork-join pool.
+   * The layout of the parent node itself starts once all of its children are done.
+   */
+  public final static IProperty<Boolean> PARALLEL_CHILDREN = new Property<Boolean>(
+            "org.eclipse.elk.parallelChildren",
+            PARALLEL_CHILDREN_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #LAYOUT_HIERARCHY}.
    */
@@ -295,7 +311,8 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             "org.eclipse.elk.margins",
             MARGINS_DEFAULT,
             null,
-            null);
+            null,
+            Spacing.Margins::new);
   
   /**
    * Default value for {@link #NO_LAYOUT}.
@@ -591,7 +608,8 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             "org.eclipse.elk.nodeLabels.insets",
             NODE_LABELS_INSETS_DEFAULT,
             null,
-            null);
+            null,
+            Spacing.Insets::new);
   
   /**
    * Default value for {@link #NODE_LABELS_PLACEMENT}.
@@ -606,7 +624,8 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             "org.eclipse.elk.nodeLabels.placement",
             NODE_LABELS_PLACEMENT_DEFAULT,
             null,
-            null);
+            null,
+            EnumSet::copyOf);
   
   /**
    * Default value for {@link #PORT_ALIGNMENT_BASIC}.
@@ -692,7 +711,8 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             "org.eclipse.elk.nodeSize.constraints",
             NODE_SIZE_CONSTRAINTS_DEFAULT,
             null,
-            null);
+            null,
+            EnumSet::copyOf);
   
   /**
    * Default value for {@link #NODE_SIZE_OPTIONS}.
@@ -708,7 +728,8 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             "org.eclipse.elk.nodeSize.options",
             NODE_SIZE_OPTIONS_DEFAULT,
             null,
-            null);
+            null,
+            EnumSet::copyOf);
   
   /**
    * The minimal size to which a node can be reduced.
@@ -748,6 +769,22 @@ public class CoreOptions implements ILayoutMetaDataProvider {
             NODE_SIZE_MIN_HEIGHT_LOWER_BOUND,
             null);
   
+  /**
+   * Default value for {@link #NODE_SIZE_PARALLEL}.
+   */
+  private final static boolean NODE_SIZE_PARALLEL_DEFAULT = false;
+  
+  /**
+   * Whether node sizes, port positions, and node and port labels are computed for several
+   * nodes concurrently. Each node is processed by a single thread, so the result is the same
+   * as with sequential computation.
+   */
+  public final static IProperty<Boolean> NODE_SIZE_PARALLEL = new Property<Boolean>(
+            "org.eclipse.elk.nodeSize.parallel",
+            NODE_SIZE_PARALLEL_DEFAULT,
+            null,
+            null);
+  
   /**
    * Default value for {@link #EDGE_LABELS_PLACEMENT}.
    */
@@ -1051,6 +1088,19 @@ public class CoreOptions implements ILayoutMetaDataProvider {
         EnumSet.of(LayoutOptionData.Target.PARENTS),
         LayoutOptionData.Visibility.ADVANCED
     ));
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.parallelChildren",
+        "",
+        "Parallel Child Layout",
+        "Whether the children of a parent node whose content is laid out separately are laid out concurrently. Only children that have content of their own are handed to a fork-join pool. The layout of the parent node itself starts once all of its children are done.",
+        PARALLEL_CHILDREN_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.layoutHierarchy",
         "",
@@ -1607,6 +1657,19 @@ public class CoreOptions implements ILayoutMetaDataProvider {
         EnumSet.of(LayoutOptionData.Target.NODES),
         LayoutOptionData.Visibility.ADVANCED
     ));
+    registry.register(new LayoutOptionData(
+        "org.eclipse.elk.nodeSize.parallel",
+        "nodeSize",
+        "Parallel Node Sizing",
+        "Whether node sizes, port positions, and node and port labels are computed for several nodes concurrently. Each node is processed by a single thread, so the result is the same as with sequential computation.",
+        NODE_SIZE_PARALLEL_DEFAULT,
+        null,
+        null,
+        LayoutOptionData.Type.BOOLEAN,
+        Boolean.class,
+        EnumSet.of(LayoutOptionData.Target.PARENTS),
+        LayoutOptionData.Visibility.ADVANCED
+    ));
     registry.register(new LayoutOptionData(
         "org.eclipse.elk.edgeLabels.placement",
         "edgeLabels",
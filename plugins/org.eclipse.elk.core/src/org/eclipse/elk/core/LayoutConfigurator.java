@@ -11,7 +11,10 @@
 package org.eclipse.elk.core;
 
 import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.data.LayoutOptionData;
 import org.eclipse.elk.core.klayoutdata.KEdgeLayout;
 import org.eclipse.elk.core.klayoutdata.KLayoutData;
 import org.eclipse.elk.core.klayoutdata.KShapeLayout;
@@ -37,6 +40,10 @@ import com.google.common.collect.Maps;
  * apply multiple layouts with different configurations. Create an instance and then use one of the
  * {@code configure(..)} methods to obtain a property holder that can be filled with values for
  * layout options.
+ * 
+ * <p>The options configured for element classes are resolved only once for each concrete class of
+ * visited elements. If the option filter is an {@link IElementKindFilter}, its results are also
+ * computed only once for each kind of element and option.</p>
  */
 public class LayoutConfigurator implements IGraphElementVisitor {
     
@@ -51,10 +58,50 @@ public class LayoutConfigurator implements IGraphElementVisitor {
     public static final IProperty<LayoutConfigurator> ADD_LAYOUT_CONFIG =
             new Property<LayoutConfigurator>("org.eclipse.elk.addLayoutConfig");
     
+    /**
+     * An option filter whose result depends only on the option and on the kind of the graph
+     * element, that is the element's class and, for nodes, whether they have children. Such a
+     * filter is applied only once for each kind of element and option, and the result is reused
+     * for all other elements of the same kind.
+     */
+    public interface IElementKindFilter extends Predicate<Pair<KGraphElement, IProperty<?>>> {
+    }
+    
+    /**
+     * Filter that checks for each option whether its configured targets match the input element.
+     * Options that are not registered with the {@link LayoutMetaDataService} are always accepted.
+     */
+    public static final IElementKindFilter OPTION_TARGET_FILTER =
+        (Pair<KGraphElement, IProperty<?>> input) -> {
+            LayoutOptionData optionData = LayoutMetaDataService.getInstance().getOptionData(
+                    input.getSecond().getId());
+            if (optionData != null) {
+                KGraphElement e = input.getFirst();
+                Set<LayoutOptionData.Target> targets = optionData.getTargets();
+                if (e instanceof KNode) {
+                    if (((KNode) e).getChildren().isEmpty()) {
+                        return targets.contains(LayoutOptionData.Target.NODES);
+                    } else {
+                        return targets.contains(LayoutOptionData.Target.NODES)
+                                || targets.contains(LayoutOptionData.Target.PARENTS);
+                    }
+                } else if (e instanceof KEdge) {
+                    return targets.contains(LayoutOptionData.Target.EDGES);
+                } else if (e instanceof KPort) {
+                    return targets.contains(LayoutOptionData.Target.PORTS);
+                } else if (e instanceof KLabel) {
+                    return targets.contains(LayoutOptionData.Target.LABELS);
+                }
+            }
+            return true;
+        };
+    
     private final Map<KGraphElement, MapPropertyHolder> elementOptionMap = Maps.newHashMap();
     private final Map<Class<? extends KGraphElement>, MapPropertyHolder> classOptionMap = Maps.newHashMap();
     private boolean clearLayout = false;
     private Predicate<Pair<KGraphElement, IProperty<?>>> optionFilter;
+    /** the configuration plans of the concrete element classes visited so far. */
+    private final Map<Class<?>, ClassPlan> classPlans = Maps.newHashMap();
     
     /**
      * Whether to clear the layout of each graph element before the new configuration is applied.
@@ -82,6 +129,7 @@ public class LayoutConfigurator implements IGraphElementVisitor {
      */
     public LayoutConfigurator setFilter(final Predicate<Pair<KGraphElement, IProperty<?>>> filter) {
         this.optionFilter = filter;
+        classPlans.clear();
         return this;
     }
     
@@ -118,6 +166,7 @@ public class LayoutConfigurator implements IGraphElementVisitor {
         if (result == null) {
             result = new MapPropertyHolder();
             classOptionMap.put(elementClass, result);
+            classPlans.clear();
         }
         return result;
     }
@@ -129,7 +178,6 @@ public class LayoutConfigurator implements IGraphElementVisitor {
         return classOptionMap.get(elementClass);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void visit(final KGraphElement element) {
         KLayoutData layout = element instanceof KEdge
@@ -137,26 +185,28 @@ public class LayoutConfigurator implements IGraphElementVisitor {
         if (clearLayout) {
             layout.getProperties().clear();
         }
-        MapPropertyHolder classProperties = findClassOptions(element);
-        MapPropertyHolder elementProperties = elementOptionMap.get(element);
+        ClassPlan plan = classPlans.get(element.getClass());
+        if (plan == null) {
+            plan = new ClassPlan(findClassOptions(element.getClass()));
+            classPlans.put(element.getClass(), plan);
+        }
+        MapPropertyHolder elementProperties = elementOptionMap.isEmpty()
+                ? null : elementOptionMap.get(element);
         if (optionFilter != null) {
-            if (classProperties != null) {
-                for (Map.Entry<IProperty<?>, Object> entry : classProperties.getAllProperties().entrySet()) {
-                    if (optionFilter.apply(Pair.of(element, entry.getKey()))) {
-                        layout.setProperty((IProperty<Object>) entry.getKey(), entry.getValue());
-                    }
-                }
+            Map<IProperty<?>, Boolean> filterResults = null;
+            if (optionFilter instanceof IElementKindFilter) {
+                filterResults = element instanceof KNode && !((KNode) element).getChildren().isEmpty()
+                        ? plan.parentFilterResults : plan.filterResults;
+            }
+            if (plan.classProperties != null) {
+                applyFiltered(element, layout, plan.classProperties, filterResults);
             }
             if (elementProperties != null) {
-                for (Map.Entry<IProperty<?>, Object> entry : elementProperties.getAllProperties().entrySet()) {
-                    if (optionFilter.apply(Pair.of(element, entry.getKey()))) {
-                        layout.setProperty((IProperty<Object>) entry.getKey(), entry.getValue());
-                    }
-                }
+                applyFiltered(element, layout, elementProperties, filterResults);
             }
         } else {
-            if (classProperties != null) {
-                layout.copyProperties(classProperties);
+            if (plan.classProperties != null) {
+                layout.copyProperties(plan.classProperties);
             }
             if (elementProperties != null) {
                 layout.copyProperties(elementProperties);
@@ -164,29 +214,56 @@ public class LayoutConfigurator implements IGraphElementVisitor {
         }
     }
     
+    /**
+     * Applies those of the given options to the layout data that pass the option filter.
+     * 
+     * @param filterResults cached results of the option filter for the element's kind, or
+     *          {@code null} if the filter has to be applied to the element itself
+     */
+    @SuppressWarnings("unchecked")
+    private void applyFiltered(final KGraphElement element, final KLayoutData layout,
+            final MapPropertyHolder properties, final Map<IProperty<?>, Boolean> filterResults) {
+        for (Map.Entry<IProperty<?>, Object> entry : properties.getAllProperties().entrySet()) {
+            boolean accepted;
+            if (filterResults == null) {
+                accepted = optionFilter.apply(Pair.of(element, entry.getKey()));
+            } else {
+                Boolean result = filterResults.get(entry.getKey());
+                if (result == null) {
+                    result = optionFilter.apply(Pair.of(element, entry.getKey()));
+                    filterResults.put(entry.getKey(), result);
+                }
+                accepted = result;
+            }
+            if (accepted) {
+                layout.setProperty((IProperty<Object>) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
     /**
      * To allow the configuration of layout options using interfaces and super-interfaces, we have to manually check the
      * type hierarchy when visiting a graph element. Since KGraph's type hierarchy is quite small, we do this case by
      * case. The order of the cases is important, since configurations for more specific types should override the
      * general case.
      * 
-     * @return the most specific {@link MapPropertyHolder} fitting the passed {@code element}'s type.
+     * @return the most specific {@link MapPropertyHolder} fitting the passed {@code elementClass}.
      */
-    private MapPropertyHolder findClassOptions(final KGraphElement element) {
+    private MapPropertyHolder findClassOptions(final Class<?> elementClass) {
         MapPropertyHolder needle = null;
 
         // most general
-        needle = getPropertyHolderOrDefault(element, KGraphElement.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KGraphElement.class, needle);
         
-        needle = getPropertyHolderOrDefault(element, KLabel.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KLabel.class, needle);
         
         // labeled elements
-        needle = getPropertyHolderOrDefault(element, KLabeledGraphElement.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KLabeledGraphElement.class, needle);
 
         // most specific
-        needle = getPropertyHolderOrDefault(element, KNode.class, needle);
-        needle = getPropertyHolderOrDefault(element, KPort.class, needle);
-        needle = getPropertyHolderOrDefault(element, KEdge.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KNode.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KPort.class, needle);
+        needle = getPropertyHolderOrDefault(elementClass, KEdge.class, needle);
         
         return needle;
     }
@@ -195,9 +272,9 @@ public class LayoutConfigurator implements IGraphElementVisitor {
      * Checks if the {@link #classOptionMap} contains an entry for the passed {@code clazz} 
      * and returns it. If not, it returns the {@code old} value.
      */
-    private MapPropertyHolder getPropertyHolderOrDefault(final KGraphElement element, final Class<?> clazz,
+    private MapPropertyHolder getPropertyHolderOrDefault(final Class<?> elementClass, final Class<?> clazz,
             final MapPropertyHolder old) {
-        if (clazz.isAssignableFrom(element.getClass())) {
+        if (clazz.isAssignableFrom(elementClass)) {
             MapPropertyHolder holder = classOptionMap.get(clazz);
             if (holder != null) {
                 return holder;
@@ -230,7 +307,27 @@ public class LayoutConfigurator implements IGraphElementVisitor {
         }
         this.clearLayout = other.clearLayout;
         this.optionFilter = other.optionFilter;
+        classPlans.clear();
         return this;
     }
+    
+    /**
+     * The configuration of a concrete element class: the options configured for the most specific
+     * class or interface it implements, and the cached results of an {@link IElementKindFilter}.
+     * The contents of the class options are read whenever an element is visited, so they may be
+     * modified after the plan was created.
+     */
+    private static final class ClassPlan {
+        /** the most specific class options, or {@code null} if none apply. */
+        private final MapPropertyHolder classProperties;
+        /** cached filter results for elements of the class, except for nodes with children. */
+        private final Map<IProperty<?>, Boolean> filterResults = Maps.newHashMap();
+        /** cached filter results for nodes with children. */
+        private final Map<IProperty<?>, Boolean> parentFilterResults = Maps.newHashMap();
+        
+        ClassPlan(final MapPropertyHolder classProperties) {
+            this.classProperties = classProperties;
+        }
+    }
 
 }
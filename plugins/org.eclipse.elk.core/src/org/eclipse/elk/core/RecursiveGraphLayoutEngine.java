@@ -13,6 +13,8 @@ package org.eclipse.elk.core;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.elk.core.data.LayoutAlgorithmData;
 import org.eclipse.elk.core.data.LayoutMetaDataService;
@@ -23,6 +25,7 @@ import org.eclipse.elk.core.klayoutdata.KShapeLayout;
 import org.eclipse.elk.core.options.CoreOptions;
 import org.eclipse.elk.core.options.GraphFeature;
 import org.eclipse.elk.core.options.HierarchyHandling;
+import org.eclipse.elk.core.util.ConcurrentProgressMonitor;
 import org.eclipse.elk.core.util.ElkUtil;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 import org.eclipse.elk.graph.KEdge;
@@ -153,6 +156,11 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
                     }
                 }
 
+            } else if (layoutNodeShapeLayout.getProperty(CoreOptions.PARALLEL_CHILDREN)) {
+                // layout the compound nodes contained in this node separately and concurrently
+                nodeCount = layoutNode.getChildren().size();
+                childrenInsideSelfLoops.addAll(layoutChildrenInParallel(layoutNode, progressMonitor));
+                
             } else {
                 // layout each compound node contained in this node separately
                 nodeCount = layoutNode.getChildren().size();
@@ -182,7 +190,7 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
                 // perform layout on the current hierarchy level
                 layoutProvider.layout(layoutNode, progressMonitor.subTask(nodeCount));
                 algorithmData.getInstancePool().release(layoutProvider);
-            } catch (RuntimeException exception) {
+            } catch (Throwable exception) {
                 // the layout provider has failed - destroy it slowly and painfully
                 layoutProvider.dispose();
                 throw exception;
@@ -202,6 +210,63 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
         }
     }
 
+    /**
+     * Lays out the children of the given node concurrently. Children that have content of their own
+     * or inside self loops are laid out on the common fork-join pool, all others directly. Progress
+     * is reported through a {@link ConcurrentProgressMonitor}. This method returns once all children
+     * are done, even if one of them fails, since the caller must not touch the graph while other
+     * children are still being laid out.
+     * 
+     * @param layoutNode the node whose children shall be laid out
+     * @param progressMonitor monitor used to keep track of progress
+     * @return list of self loops routed inside the children, in the order of the children.
+     */
+    private List<KEdge> layoutChildrenInParallel(final KNode layoutNode,
+            final IElkProgressMonitor progressMonitor) {
+        
+        final IElkProgressMonitor concurrentMonitor = ConcurrentProgressMonitor.of(progressMonitor);
+        List<KNode> children = layoutNode.getChildren();
+        List<ForkJoinTask<List<KEdge>>> tasks = Lists.newArrayListWithCapacity(children.size());
+        for (final KNode child : children) {
+            if (!child.getChildren().isEmpty() || child.getData(KShapeLayout.class).getProperty(
+                    CoreOptions.INSIDE_SELF_LOOPS_ACTIVATE)) {
+                tasks.add(ForkJoinPool.commonPool().submit(
+                        () -> layoutRecursively(child, concurrentMonitor)));
+            } else {
+                tasks.add(null);
+            }
+        }
+        
+        List<KEdge> childrenInsideSelfLoops = Lists.newArrayList();
+        // the tasks only throw unchecked exceptions and errors, which are kept until all children are done
+        Throwable failure = null;
+        for (int i = 0; i < children.size(); i++) {
+            KNode child = children.get(i);
+            ForkJoinTask<List<KEdge>> task = tasks.get(i);
+            try {
+                if (task == null) {
+                    childrenInsideSelfLoops.addAll(layoutRecursively(child, concurrentMonitor));
+                } else {
+                    childrenInsideSelfLoops.addAll(task.join());
+                }
+                
+                // apply the LayoutOptions.SCALE_FACTOR if present
+                ElkUtil.applyConfiguredNodeScaling(child);
+            } catch (Throwable exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return childrenInsideSelfLoops;
+    }
+
     /**
      * Returns the most appropriate layout algorithm for the given node.
      * 
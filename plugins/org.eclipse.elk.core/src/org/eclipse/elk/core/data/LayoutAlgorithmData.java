@@ -159,7 +159,8 @@ public final class LayoutAlgorithmData implements ILayoutMetaData {
 
     /**
      * Return an instance pool for layout providers. If multiple threads execute the layout
-     * algorithm in parallel, each thread should use its own instance of the algorithm.
+     * algorithm in parallel, each thread should use its own instance of the algorithm. The pool
+     * also tells how often layout provider instances were reused, created and destroyed.
      *
      * @return a layout provider instance pool
      */
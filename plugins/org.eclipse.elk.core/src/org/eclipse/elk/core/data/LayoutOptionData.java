@@ -14,9 +14,13 @@ import java.lang.reflect.Method;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.math.KVectorChain;
 import org.eclipse.elk.core.util.IDataObject;
 import org.eclipse.elk.core.util.Pair;
+import org.eclipse.elk.core.util.nodespacing.Spacing;
 import org.eclipse.elk.graph.properties.IProperty;
 import org.eclipse.elk.graph.properties.Property;
 
@@ -84,6 +88,8 @@ public final class LayoutOptionData implements ILayoutMetaData, IProperty<Object
     private final String[] legacyIds;
     /** the default value of this option. */
     private final Object defaultValue;
+    /** function used to copy the default value, or {@code null} if the default is cloned reflectively. */
+    private final UnaryOperator<Object> defaultCopier;
     /** the class that represents this option type. */
     private final Class<?> clazz;
     /** type of the layout option. */
@@ -127,6 +133,7 @@ public final class LayoutOptionData implements ILayoutMetaData, IProperty<Object
         this.name = aname;
         this.description = adescription;
         this.defaultValue = adefaultValue;
+        this.defaultCopier = adefaultValue == null ? null : createCopier(adefaultValue.getClass());
         this.lowerBound = alowerBound;
         this.upperBound = anupperBound;
         this.type = atype;
@@ -141,6 +148,38 @@ public final class LayoutOptionData implements ILayoutMetaData, IProperty<Object
         
     }
     
+    /**
+     * Creates a typed copy function for mutable values of the given class. Values of the mutable types
+     * commonly used for layout options are copied directly, vector chains including their vectors;
+     * for other classes {@code null} is returned.
+     * 
+     * @param valueClass the class of the values to copy, or {@code null}
+     * @return a function that copies values of the given class, or {@code null}
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static UnaryOperator<Object> createCopier(final Class<?> valueClass) {
+        if (valueClass == null) {
+            return null;
+        } else if (EnumSet.class.isAssignableFrom(valueClass)) {
+            return (v) -> EnumSet.copyOf((EnumSet) v);
+        } else if (KVector.class.isAssignableFrom(valueClass)) {
+            return (v) -> new KVector((KVector) v);
+        } else if (KVectorChain.class.isAssignableFrom(valueClass)) {
+            return (v) -> {
+                KVectorChain copy = new KVectorChain();
+                for (KVector vector : (KVectorChain) v) {
+                    copy.add(new KVector(vector));
+                }
+                return copy;
+            };
+        } else if (valueClass == Spacing.Margins.class) {
+            return (v) -> new Spacing.Margins((Spacing.Margins) v);
+        } else if (valueClass == Spacing.Insets.class) {
+            return (v) -> new Spacing.Insets((Spacing.Insets) v);
+        }
+        return null;
+    }
+    
     /**
      * Checks whether the enumeration class is set correctly. This method must
      * not be called for options other than of type {@code enum} and {@code enumset}.
@@ -481,11 +520,18 @@ public final class LayoutOptionData implements ILayoutMetaData, IProperty<Object
     }
     
     /**
-     * Returns the default value of this layout option.
+     * Returns the default value of this layout option. Mutable default values are returned as
+     * copies, so modifying the returned value does not affect the default. Values of the mutable
+     * types commonly used for layout options are copied by a typed copy function, all other
+     * cloneable values are cloned reflectively.
      * 
      * @return the default value.
      */
     public Object getDefault() {
+        if (defaultCopier != null) {
+            return defaultCopier.apply(defaultValue);
+        }
+        
         // Clone the default value if it's a Cloneable. We need to use reflection for this to work
         // properly (classes implementing Cloneable are not required to make their clone() method
         // public, so we need to check if they have such a method and invoke it via reflection, which
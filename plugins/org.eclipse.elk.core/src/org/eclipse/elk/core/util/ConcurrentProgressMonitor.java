@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.core.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Progress monitor that lets several threads report progress to a common parent monitor. Most
+ * monitors, such as {@link BasicProgressMonitor}, assume that only one sub-task is active at a time.
+ * Each sub-task created by this monitor instead keeps track of its own work and forwards it to the
+ * parent monitor while holding a lock, so sub-tasks may run concurrently. Sub-tasks created here are
+ * listed by {@link #getSubMonitors()} of this monitor, not by that of the parent monitor.
+ *
+ * <p>All of the methods in this class are thread-safe, as long as the parent monitor is only
+ * accessed through this monitor while it is in use.</p>
+ *
+ * @author agent
+ */
+public final class ConcurrentProgressMonitor implements IElkProgressMonitor {
+
+    /** the monitor progress is reported to. */
+    private final IElkProgressMonitor parent;
+    /** the sub-monitors created so far. */
+    private final List<IElkProgressMonitor> children =
+            Collections.synchronizedList(Lists.<IElkProgressMonitor>newArrayList());
+
+    /**
+     * Create a concurrent progress monitor that reports to the given monitor.
+     *
+     * @param parent the monitor to report progress to
+     */
+    public ConcurrentProgressMonitor(final IElkProgressMonitor parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns a monitor that may be used concurrently and reports to the given monitor. If the given
+     * monitor is already a concurrent progress monitor, it is returned as is.
+     *
+     * @param monitor a progress monitor
+     * @return a concurrent progress monitor that reports to the given monitor
+     */
+    public static ConcurrentProgressMonitor of(final IElkProgressMonitor monitor) {
+        if (monitor instanceof ConcurrentProgressMonitor) {
+            return (ConcurrentProgressMonitor) monitor;
+        }
+        return new ConcurrentProgressMonitor(monitor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isCanceled() {
+        synchronized (parent) {
+            return parent.isCanceled();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean begin(final String name, final float totalWork) {
+        synchronized (parent) {
+            return parent.begin(name, totalWork);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isRunning() {
+        synchronized (parent) {
+            return parent.isRunning();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void done() {
+        synchronized (parent) {
+            parent.done();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void worked(final float work) {
+        synchronized (parent) {
+            parent.worked(work);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IElkProgressMonitor subTask(final float work) {
+        SubMonitor subMonitor = new SubMonitor(this, work);
+        children.add(subMonitor);
+        return subMonitor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<IElkProgressMonitor> getSubMonitors() {
+        return children;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IElkProgressMonitor getParentMonitor() {
+        return parent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getTaskName() {
+        synchronized (parent) {
+            return parent.getTaskName();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getExecutionTime() {
+        synchronized (parent) {
+            return parent.getExecutionTime();
+        }
+    }
+
+    /**
+     * A sub-task of a concurrent progress monitor. It is used by a single thread and converts its
+     * own progress into progress of the concurrent monitor.
+     */
+    private static final class SubMonitor extends BasicProgressMonitor {
+
+        /** the monitor that created this sub-monitor. */
+        private final ConcurrentProgressMonitor owner;
+        /** the amount of work of the owner that is completed when this sub-task is done. */
+        private final float ownerWork;
+        /** the amount of completed work that was already reported to the owner. */
+        private float reportedWork = 0.0f;
+
+        /**
+         * Create a sub-monitor for the given owner.
+         *
+         * @param owner the concurrent monitor this sub-task belongs to
+         * @param ownerWork the amount of work of the owner that is completed with this sub-task
+         */
+        SubMonitor(final ConcurrentProgressMonitor owner, final float ownerWork) {
+            this.owner = owner;
+            this.ownerWork = ownerWork;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void doWorked(final float completedWork, final float totalWork,
+                final boolean topInstance) {
+
+            if (topInstance && ownerWork > 0) {
+                float delta = completedWork - reportedWork;
+                reportedWork = completedWork;
+                owner.worked(delta / totalWork * ownerWork);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isCanceled() {
+            return owner.isCanceled();
+        }
+    }
+
+}
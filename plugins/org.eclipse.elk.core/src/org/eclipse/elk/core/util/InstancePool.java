@@ -10,14 +10,27 @@
  *******************************************************************************/
 package org.eclipse.elk.core.util;
 
-import java.util.LinkedList;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A pool for class instances. The pool can hold a configurable number of instances of the class. Note
  * that the number of instances created can well exceed the capacity of this pool. The capacity only
  * influences how many of those instances can be kept for later reuse.
  * 
- * <p>All of the instance methods in this class are thread-safe.</p>
+ * <p>All of the instance methods in this class are thread-safe and do not block. Each thread first
+ * gets back the instance it released last, if any, so threads that repeatedly fetch and release
+ * instances usually do not touch any state shared with other threads. Further idle instances are
+ * kept in a shared stack. If neither holds an instance, idle instances are taken from the slots of
+ * other threads, and the slots of threads that are gone are discarded. The pool counts how many
+ * fetches could be served from idle instances (hits) and how many could not (misses), as well as
+ * how many instances were created and destroyed.</p>
  *
  * @param <T> the type of instances that are held by this pool
  * @author msp
@@ -31,12 +44,24 @@ public final class InstancePool<T> {
     
     /** the instance factory to use for this pool. */
     private final IFactory<T> factory;
-    /** the list of currently held instances. */
-    private final LinkedList<T> instances = new LinkedList<T>();
     /** the configured instance limit. */
-    private int limit;
-    /** lock used for synchronization. */
-    private final Object lock = new Object();
+    private final int limit;
+    /** idle instances that are not bound to a particular thread. */
+    private final ConcurrentLinkedDeque<T> sharedInstances = new ConcurrentLinkedDeque<T>();
+    /** the slot of the current thread, holding the instance it released last. */
+    private final ThreadLocal<Slot<T>> localSlot = new ThreadLocal<Slot<T>>();
+    /** all thread slots, so that their instances can be taken by other threads or cleared. */
+    private final Queue<Slot<T>> slots = new ConcurrentLinkedQueue<Slot<T>>();
+    /** the number of idle instances held in thread slots or in the shared stack. */
+    private final AtomicInteger idleCount = new AtomicInteger();
+    /** the number of fetches served from idle instances. */
+    private final LongAdder hitCount = new LongAdder();
+    /** the number of fetches that had to create a new instance. */
+    private final LongAdder missCount = new LongAdder();
+    /** the number of instances created by the factory. */
+    private final LongAdder createCount = new LongAdder();
+    /** the number of instances destroyed by the factory. */
+    private final LongAdder destroyCount = new LongAdder();
     
     /**
      * Create an instance pool with an infinite capacity. 
@@ -65,12 +90,21 @@ public final class InstancePool<T> {
      * @return a class instance
      */
     public T fetch() {
-        synchronized (lock) {
-            if (instances.isEmpty()) {
-                return factory.create();
-            }
-            return instances.removeFirst();
+        Slot<T> slot = localSlot.get();
+        T obj = slot == null ? null : slot.getAndSet(null);
+        if (obj == null) {
+            obj = sharedInstances.pollLast();
+        }
+        if (obj == null) {
+            obj = pollOtherSlots(slot);
+        }
+        if (obj != null) {
+            idleCount.decrementAndGet();
+            hitCount.increment();
+            return obj;
         }
+        missCount.increment();
+        return create();
     }
     
     /**
@@ -80,12 +114,38 @@ public final class InstancePool<T> {
      * @param obj a class instance
      */
     public void release(final T obj) {
-        synchronized (lock) {
-            if (limit < 0 || instances.size() < limit) {
-                instances.addLast(obj);
-            } else {
-                factory.destroy(obj);
-            }
+        if (!reserveIdle()) {
+            destroy(obj);
+            return;
+        }
+        
+        Slot<T> slot = localSlot.get();
+        if (slot == null) {
+            // a new thread is using the pool, which is a good moment to discard slots of threads that
+            // are gone, so the number of slots does not exceed the number of live threads
+            reclaimDeadSlots();
+            slot = new Slot<T>(Thread.currentThread());
+            localSlot.set(slot);
+            slots.add(slot);
+        }
+        if (!slot.compareAndSet(null, obj)) {
+            sharedInstances.addLast(obj);
+        }
+    }
+    
+    /**
+     * Create instances until the pool holds the given number of idle instances or its capacity is
+     * reached. This moves the cost of creating instances out of the first layout runs.
+     * 
+     * @param count the number of idle instances the pool should hold
+     */
+    public void prewarm(final int count) {
+        if (count <= 0) {
+            return;
+        }
+        int bound = limit >= 0 ? Math.min(count, limit) : count;
+        while (reserveIdle(bound)) {
+            sharedInstances.addLast(create());
         }
     }
     
@@ -93,11 +153,197 @@ public final class InstancePool<T> {
      * Clear the instance pool by disposing all instances that are currently held.
      */
     public void clear() {
-        synchronized (lock) {
-            for (T obj : instances) {
-                factory.destroy(obj);
+        Iterator<Slot<T>> slotIter = slots.iterator();
+        while (slotIter.hasNext()) {
+            Slot<T> slot = slotIter.next();
+            T obj = slot.getAndSet(null);
+            if (obj != null) {
+                idleCount.decrementAndGet();
+                destroy(obj);
+            }
+            if (slot.isOrphaned()) {
+                slotIter.remove();
             }
-            instances.clear();
+        }
+        
+        T obj = sharedInstances.pollLast();
+        while (obj != null) {
+            idleCount.decrementAndGet();
+            destroy(obj);
+            obj = sharedInstances.pollLast();
+        }
+    }
+    
+    /**
+     * Returns the number of instances currently held for reuse.
+     * 
+     * @return the number of idle instances
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+    
+    /**
+     * Returns the number of fetches that were served from an idle instance.
+     * 
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+    
+    /**
+     * Returns the number of fetches for which a new instance had to be created.
+     * 
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+    
+    /**
+     * Returns the number of instances created so far, including those created by
+     * {@link #prewarm(int)}.
+     * 
+     * @return the number of created instances
+     */
+    public long getCreateCount() {
+        return createCount.sum();
+    }
+    
+    /**
+     * Returns the number of instances destroyed so far, either because the pool's capacity was
+     * reached or because the pool was cleared.
+     * 
+     * @return the number of destroyed instances
+     */
+    public long getDestroyCount() {
+        return destroyCount.sum();
+    }
+    
+    /**
+     * Increment the number of idle instances unless the capacity is already reached.
+     * 
+     * @return {@code true} if there was room for another idle instance
+     */
+    private boolean reserveIdle() {
+        return reserveIdle(limit);
+    }
+    
+    /**
+     * Increment the number of idle instances unless the given bound is already reached.
+     * 
+     * @param bound the maximal number of idle instances, or a negative value for no bound
+     * @return {@code true} if there was room for another idle instance
+     */
+    private boolean reserveIdle(final int bound) {
+        while (true) {
+            int count = idleCount.get();
+            if (bound >= 0 && count >= bound) {
+                return false;
+            }
+            if (idleCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Take an idle instance from the slot of another thread. Slots of threads that are gone are
+     * removed on the way.
+     * 
+     * @param ownSlot the slot of the current thread, or {@code null}
+     * @return an idle instance, or {@code null} if there is none
+     */
+    private T pollOtherSlots(final Slot<T> ownSlot) {
+        Iterator<Slot<T>> slotIter = slots.iterator();
+        while (slotIter.hasNext()) {
+            Slot<T> slot = slotIter.next();
+            if (slot == ownSlot) {
+                continue;
+            }
+            T obj = slot.getAndSet(null);
+            if (slot.isOrphaned()) {
+                slotIter.remove();
+            }
+            if (obj != null) {
+                return obj;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Remove the slots of threads that are gone, moving their instances to the shared stack.
+     */
+    private void reclaimDeadSlots() {
+        Iterator<Slot<T>> slotIter = slots.iterator();
+        while (slotIter.hasNext()) {
+            Slot<T> slot = slotIter.next();
+            if (slot.isOrphaned()) {
+                slotIter.remove();
+                T obj = slot.getAndSet(null);
+                if (obj != null) {
+                    sharedInstances.addLast(obj);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Create a new instance with the factory.
+     * 
+     * @return the new instance
+     */
+    private T create() {
+        T obj = factory.create();
+        createCount.increment();
+        return obj;
+    }
+    
+    /**
+     * Destroy the given instance with the factory.
+     * 
+     * @param obj the instance to destroy
+     */
+    private void destroy(final T obj) {
+        factory.destroy(obj);
+        destroyCount.increment();
+    }
+    
+    /**
+     * Holds the instance a thread released last. Other threads only access the slot when they find no
+     * other idle instance or when the pool is cleared. Slots of threads that are gone are removed
+     * once another thread starts using the pool or takes their instance.
+     * 
+     * @param <T> the type of instances that are held by the pool
+     */
+    private static final class Slot<T> extends AtomicReference<T> {
+        
+        /** the serial version UID. */
+        private static final long serialVersionUID = 1L;
+        
+        /** the thread this slot belongs to. */
+        private final WeakReference<Thread> owner;
+        
+        /**
+         * Create a slot for the given thread.
+         * 
+         * @param thread the owning thread
+         */
+        Slot(final Thread thread) {
+            this.owner = new WeakReference<Thread>(thread);
+        }
+        
+        /**
+         * Returns whether the owning thread is gone, so nobody can release instances into this slot
+         * anymore.
+         * 
+         * @return {@code true} if the owning thread has terminated
+         */
+        boolean isOrphaned() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
         }
     }
 
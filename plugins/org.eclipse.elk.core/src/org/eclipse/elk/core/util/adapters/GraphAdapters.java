@@ -23,7 +23,11 @@ import org.eclipse.elk.graph.properties.IProperty;
  * A set of generic interfaces that provide access to graph structures. Some generic algorithms provided
  * by KIML work with these interfaces to be usable for any layout algorithm, regardless what kind of
  * specialized graph structure it uses internally.
- * 
+ *
+ * <p>Implementations may return the same adapter object for every element of an iteration, moving it
+ * from element to element as the iteration advances. Adapters of ports, labels, and edges obtained
+ * while iterating must thus not be kept beyond the current iteration step.</p>
+ *
  * @author uru
  */
 public interface GraphAdapters {
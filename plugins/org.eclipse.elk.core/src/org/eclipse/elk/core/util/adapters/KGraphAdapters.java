@@ -11,7 +11,9 @@
 package org.eclipse.elk.core.util.adapters;
 
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.eclipse.elk.core.klayoutdata.KInsets;
 import org.eclipse.elk.core.klayoutdata.KLayoutData;
@@ -45,6 +47,15 @@ import com.google.common.collect.Lists;
  * adapter for a full KGraph, simply call {@link #adapt(KGraph)}. To obtain an adapter only for a
  * single node, call {@link #adaptSingleNode(KNode)}.
  * 
+ * <p>Each node is represented by a single adapter, which the graph adapter creates lazily, but only
+ * once, even if it is queried from several threads. Ports, labels, and edges are adapted by cursors
+ * instead: every iteration over them creates a single object that serves as the iterator and is
+ * moved from element to element, so no adapter objects are kept per element. A cursor must thus not
+ * be kept beyond the current iteration step. Different nodes may be processed concurrently, as done
+ * by the parallel mode of the
+ * {@link org.eclipse.elk.core.util.nodespacing.LabelAndNodeSizeProcessor}.
+ * </p>
+ * 
  * @author uru
  */
 public final class KGraphAdapters {
@@ -102,13 +113,26 @@ public final class KGraphAdapters {
          * Creates a new adapter for the given graph element.
          * 
          * @param element
-         *            the element to be wrapped in this adapter.
+         *            the element to be wrapped in this adapter, or {@code null} if the adapter is
+         *            bound to an element later on.
          */
         protected AbstractKGraphElementAdapter(final T element) {
-            this.element = element;
+            if (element != null) {
+                bind(element);
+            }
+        }
+        
+        /**
+         * Makes this adapter adapt the given graph element.
+         * 
+         * @param theElement
+         *            the element to be wrapped in this adapter.
+         */
+        protected void bind(final T theElement) {
+            this.element = theElement;
             
             try {
-                layout = element.getData(KShapeLayout.class);
+                layout = theElement.getData(KShapeLayout.class);
             } catch (ClassCastException cce) {
                 throw new RuntimeException(
                         "Graph adapters are only supported for shape-full types.");
@@ -222,7 +246,7 @@ public final class KGraphAdapters {
             GraphAdapter<KNode> {
         
         /** cached list of child node adapters. */
-        private List<NodeAdapter<?>> childNodes = null;
+        private volatile List<NodeAdapter<?>> childNodes = null;
         
         /**
          * Creates a new adapter for the KGraph rooted at the given node.
@@ -237,30 +261,33 @@ public final class KGraphAdapters {
          * {@inheritDoc}
          */
         public Iterable<NodeAdapter<?>> getNodes() {
-            if (childNodes == null) {
-                childNodes = Lists.newArrayListWithExpectedSize(element.getChildren().size());
-                for (KNode n : element.getChildren()) {
-                    childNodes.add(new KNodeAdapter(n));
+            List<NodeAdapter<?>> adapters = childNodes;
+            if (adapters == null) {
+                synchronized (this) {
+                    adapters = childNodes;
+                    if (adapters == null) {
+                        adapters = Lists.newArrayListWithExpectedSize(element.getChildren().size());
+                        for (KNode n : element.getChildren()) {
+                            adapters.add(new KNodeAdapter(n));
+                        }
+                        childNodes = adapters;
+                    }
                 }
             }
-            return childNodes;
+            return adapters;
         }
     }
 
     /**
-     * Adapter for {@link KNode}s.
+     * Adapter for {@link KNode}s. The adapters of the node's ports, labels, and edges are cursors
+     * that are created anew for each iteration. Since a cursor does not keep any state of the
+     * elements it has passed, the volatile ids of the node's labels are kept by the node adapter.
      */
     public static final class KNodeAdapter extends AbstractKGraphElementAdapter<KNode> implements
             NodeAdapter<KNode> {
         
-        /** Cached list of label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
-        /** Cached list of port adapters. */
-        private List<PortAdapter<?>> portAdapters = null;
-        /** Cached list of edge adapters for incoming edges. */
-        private List<EdgeAdapter<?>> incomingEdgeAdapters = null;
-        /** Cached list of edge adapters for outgoing edges. */
-        private List<EdgeAdapter<?>> outgoingEdgeAdapters = null;
+        /** Volatile ids of the node's labels by label index, created on demand. */
+        private int[] labelIds = null;
         
         
         /**
@@ -277,55 +304,33 @@ public final class KGraphAdapters {
         /**
          * {@inheritDoc}
          */
-        public List<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithExpectedSize(element.getLabels().size());
-                for (KLabel l : element.getLabels()) {
-                    labelAdapters.add(new KLabelAdapter(l));
-                }
-            }
-            return labelAdapters;
+        public Iterable<LabelAdapter<?>> getLabels() {
+            final List<KLabel> labels = element.getLabels();
+            return () -> new KLabelCursor(labels, this);
         }
 
         /**
          * {@inheritDoc}
          */
-        public List<PortAdapter<?>> getPorts() {
-            if (portAdapters == null) {
-                portAdapters = Lists.newArrayListWithExpectedSize(element.getPorts().size());
-                for (KPort p : element.getPorts()) {
-                    portAdapters.add(new KPortAdapter(p));
-                }
-            }
-            return portAdapters;
+        public Iterable<PortAdapter<?>> getPorts() {
+            final List<KPort> ports = element.getPorts();
+            return () -> new KPortCursor(ports);
         }
         
         /**
          * {@inheritDoc}
          */
         public Iterable<EdgeAdapter<?>> getIncomingEdges() {
-            if (incomingEdgeAdapters == null) {
-                incomingEdgeAdapters = Lists.newArrayListWithExpectedSize(
-                        element.getIncomingEdges().size());
-                for (KEdge e : element.getIncomingEdges()) {
-                    incomingEdgeAdapters.add(new KEdgeAdapter(e));
-                }
-            }
-            return incomingEdgeAdapters;
+            final List<KEdge> edges = element.getIncomingEdges();
+            return () -> new KEdgeCursor(edges, null, false);
         }
         
         /**
          * {@inheritDoc}
          */
         public Iterable<EdgeAdapter<?>> getOutgoingEdges() {
-            if (outgoingEdgeAdapters == null) {
-                outgoingEdgeAdapters = Lists.newArrayListWithExpectedSize(
-                        element.getOutgoingEdges().size());
-                for (KEdge e : element.getOutgoingEdges()) {
-                    outgoingEdgeAdapters.add(new KEdgeAdapter(e));
-                }
-            }
-            return outgoingEdgeAdapters;
+            final List<KEdge> edges = element.getOutgoingEdges();
+            return () -> new KEdgeCursor(edges, null, false);
         }
 
         /**
@@ -353,24 +358,72 @@ public final class KGraphAdapters {
         public boolean isCompoundNode() {
             return !element.getChildren().isEmpty();
         }
+        
+        /**
+         * Returns the array of label ids, making sure that it has room for the given index.
+         * 
+         * @param index
+         *            the index of a label of the node.
+         * @return the array of label ids.
+         */
+        private int[] getLabelIds(final int index) {
+            if (labelIds == null || labelIds.length <= index) {
+                int[] newIds = new int[Math.max(index + 1, element.getLabels().size())];
+                if (labelIds != null) {
+                    System.arraycopy(labelIds, 0, newIds, 0, labelIds.length);
+                }
+                labelIds = newIds;
+            }
+            return labelIds;
+        }
     }
 
     /**
-     * Adapter for {@link KLabel}s.
+     * Cursor over a list of {@link KLabel}s that adapts the label it is positioned on. The cursor
+     * is its own iterator: each call of {@link #next()} moves it to the next label and returns it.
      */
-    private static final class KLabelAdapter extends AbstractKGraphElementAdapter<KLabel> implements
-            LabelAdapter<KLabel> {
+    private static final class KLabelCursor extends AbstractKGraphElementAdapter<KLabel> implements
+            LabelAdapter<KLabel>, Iterator<LabelAdapter<?>> {
+        
+        /** The labels to iterate over. */
+        private final List<KLabel> labels;
+        /** The node adapter that keeps the labels' volatile ids, or {@code null}. */
+        private final KNodeAdapter owner;
+        /** The index of the next label. */
+        private int nextIndex = 0;
 
         /**
-         * Creates a new adapter for the given label.
+         * Creates a new cursor positioned before the first of the given labels.
          * 
-         * @param label
-         *            the label to adapt.
+         * @param labels
+         *            the labels to iterate over.
+         * @param owner
+         *            the node adapter that keeps the labels' volatile ids, or {@code null} if the
+         *            ids are only kept until the cursor moves on.
          */
-        private KLabelAdapter(final KLabel label) {
-            super(label);
+        private KLabelCursor(final List<KLabel> labels, final KNodeAdapter owner) {
+            super(null);
+            this.labels = labels;
+            this.owner = owner;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            return nextIndex < labels.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public LabelAdapter<?> next() {
+            if (nextIndex >= labels.size()) {
+                throw new NoSuchElementException();
+            }
+            bind(labels.get(nextIndex++));
+            return this;
         }
-        
 
         /**
          * {@inheritDoc}
@@ -378,31 +431,71 @@ public final class KGraphAdapters {
         public LabelSide getSide() {
             return layout.getProperty(LabelSide.LABEL_SIDE);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getVolatileId() {
+            if (owner == null) {
+                return super.getVolatileId();
+            }
+            return owner.getLabelIds(nextIndex - 1)[nextIndex - 1];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void setVolatileId(final int volatileId) {
+            if (owner == null) {
+                super.setVolatileId(volatileId);
+            } else {
+                owner.getLabelIds(nextIndex - 1)[nextIndex - 1] = volatileId;
+            }
+        }
     }
 
     /**
-     * Adapter for {@link KPort}s.
+     * Cursor over a list of {@link KPort}s that adapts the port it is positioned on. The cursor is
+     * its own iterator: each call of {@link #next()} moves it to the next port and returns it.
      */
-    private static final class KPortAdapter extends AbstractKGraphElementAdapter<KPort>
-            implements PortAdapter<KPort> {
+    private static final class KPortCursor extends AbstractKGraphElementAdapter<KPort>
+            implements PortAdapter<KPort>, Iterator<PortAdapter<?>> {
         
-        /** Cached list of label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
-        /** Cached list of edge adapters for incoming edges. */
-        private List<EdgeAdapter<?>> incomingEdgeAdapters = null;
-        /** Cached list of edge adapters for outgoing edges. */
-        private List<EdgeAdapter<?>> outgoingEdgeAdapters = null;
+        /** The ports to iterate over. */
+        private final List<KPort> ports;
+        /** The index of the next port. */
+        private int nextIndex = 0;
 
         
         /**
-         * Creates a new adapter for the given port.
+         * Creates a new cursor positioned before the first of the given ports.
          * 
-         * @param port the port to adapt.
+         * @param ports the ports to iterate over.
+         */
+        private KPortCursor(final List<KPort> ports) {
+            super(null);
+            this.ports = ports;
+        }
+
+        /**
+         * {@inheritDoc}
          */
-        private KPortAdapter(final KPort port) {
-            super(port);
+        public boolean hasNext() {
+            return nextIndex < ports.size();
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        public PortAdapter<?> next() {
+            if (nextIndex >= ports.size()) {
+                throw new NoSuchElementException();
+            }
+            bind(ports.get(nextIndex++));
+            return this;
+        }
         
         /**
          * {@inheritDoc}
@@ -414,45 +507,27 @@ public final class KGraphAdapters {
         /**
          * {@inheritDoc}
          */
-        public List<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithExpectedSize(element.getLabels().size());
-                for (KLabel l : element.getLabels()) {
-                    labelAdapters.add(new KLabelAdapter(l));
-                }
-            }
-            return labelAdapters;
+        public Iterable<LabelAdapter<?>> getLabels() {
+            final List<KLabel> labels = element.getLabels();
+            return () -> new KLabelCursor(labels, null);
         }
 
         /**
          * {@inheritDoc}
          */
         public Iterable<EdgeAdapter<?>> getIncomingEdges() {
-            if (incomingEdgeAdapters == null) {
-                // This overestimates the required list size
-                incomingEdgeAdapters = Lists.newArrayListWithCapacity(element.getEdges().size());
-                for (KEdge e : element.getEdges()) {
-                    if (e.getTarget().equals(element)) {
-                        incomingEdgeAdapters.add(new KEdgeAdapter(e));
-                    }
-                }
-            }
-            return incomingEdgeAdapters;
+            final KPort port = element;
+            final List<KEdge> edges = port.getEdges();
+            return () -> new KEdgeCursor(edges, port, true);
         }
 
         /**
          * {@inheritDoc}
          */
         public Iterable<EdgeAdapter<?>> getOutgoingEdges() {
-            if (outgoingEdgeAdapters == null) {
-                outgoingEdgeAdapters = Lists.newArrayListWithCapacity(element.getEdges().size());
-                for (KEdge e : element.getEdges()) {
-                    if (e.getSource().equals(element)) {
-                        outgoingEdgeAdapters.add(new KEdgeAdapter(e));
-                    }
-                }
-            }
-            return outgoingEdgeAdapters;
+            final KPort port = element;
+            final List<KEdge> edges = port.getEdges();
+            return () -> new KEdgeCursor(edges, port, false);
         }
 
         /**
@@ -480,37 +555,85 @@ public final class KGraphAdapters {
     }
 
     /**
-     * Adapter for {@link KEdge}s.
+     * Cursor over a list of {@link KEdge}s that adapts the edge it is positioned on. The cursor is
+     * its own iterator: each call of {@link #next()} moves it to the next edge and returns it. For
+     * the edges of a port, only the edges the port is the target port or source port of are
+     * visited.
      */
-    private static final class KEdgeAdapter implements EdgeAdapter<KEdge> {
+    private static final class KEdgeCursor implements EdgeAdapter<KEdge>, Iterator<EdgeAdapter<?>> {
         
-        /** The wrapped edge. */
+        /** The edges to iterate over. */
+        private final List<KEdge> edges;
+        /** The port whose edges are iterated over, or {@code null} if all edges are visited. */
+        private final KPort port;
+        /** Whether to visit the edges with {@link #port} as target, or those with it as source. */
+        private final boolean incoming;
+        /** The index of the next edge to visit, or the size of the list if there is none. */
+        private int nextIndex = -1;
+        /** The edge the cursor is positioned on. */
         private KEdge element;
-        /** Cached list of label adapters. */
-        private List<LabelAdapter<?>> labelAdapters = null;
 
         
         /**
-         * Creates a new adapter for the given edge.
+         * Creates a new cursor positioned before the first of the given edges.
          * 
-         * @param edge
-         *            the edge to adapt.
+         * @param edges
+         *            the edges to iterate over.
+         * @param port
+         *            the port whose edges are iterated over, or {@code null} if all edges are to be
+         *            visited.
+         * @param incoming
+         *            whether to visit the edges whose target port is the given port, or those whose
+         *            source port is the given port.
+         */
+        private KEdgeCursor(final List<KEdge> edges, final KPort port, final boolean incoming) {
+            this.edges = edges;
+            this.port = port;
+            this.incoming = incoming;
+            advance();
+        }
+
+        /**
+         * Moves {@link #nextIndex} to the next edge that is to be visited.
+         */
+        private void advance() {
+            nextIndex++;
+            if (port != null) {
+                while (nextIndex < edges.size()) {
+                    KEdge edge = edges.get(nextIndex);
+                    if (port == (incoming ? edge.getTargetPort() : edge.getSourcePort())) {
+                        break;
+                    }
+                    nextIndex++;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
          */
-        private KEdgeAdapter(final KEdge edge) {
-            this.element = edge;
+        public boolean hasNext() {
+            return nextIndex < edges.size();
         }
 
         /**
          * {@inheritDoc}
          */
-        public Iterable<LabelAdapter<?>> getLabels() {
-            if (labelAdapters == null) {
-                labelAdapters = Lists.newArrayListWithExpectedSize(element.getLabels().size());
-                for (KLabel l : element.getLabels()) {
-                    labelAdapters.add(new KLabelAdapter(l));
-                }
+        public EdgeAdapter<?> next() {
+            if (nextIndex >= edges.size()) {
+                throw new NoSuchElementException();
             }
-            return labelAdapters;
+            element = edges.get(nextIndex);
+            advance();
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Iterable<LabelAdapter<?>> getLabels() {
+            final List<KLabel> labels = element.getLabels();
+            return () -> new KLabelCursor(labels, null);
         }
     }
     
@@ -13,8 +13,13 @@ package org.eclipse.elk.core.util.nodespacing;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.elk.core.math.KVector;
 import org.eclipse.elk.core.options.CoreOptions;
@@ -38,7 +43,7 @@ import org.eclipse.elk.core.util.nodespacing.Spacing.Margins;
 import org.eclipse.elk.graph.properties.IProperty;
 import org.eclipse.elk.graph.properties.Property;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 /**
  * Calculates node sizes, places ports, and places node and port labels.
@@ -61,97 +66,170 @@ public class LabelAndNodeSizeProcessor {
     public static final IProperty<Double> PORT_RATIO_OR_POSITION = new Property<Double>(
             "portRatioOrPosition", 0.0);
 
+    /** the number of consecutive nodes processed by a worker at a time in parallel mode. */
+    private static final int PARALLEL_CHUNK_SIZE = 16;
+
     /*
      * Entry point
      */
     /**
-     * {@inheritDoc}
+     * Calculates node sizes, places ports, and places node and port labels for all nodes of the
+     * given graph. If {@link CoreOptions#NODE_SIZE_PARALLEL} is set on the graph, several nodes are
+     * processed concurrently.
+     *
+     * @param layeredGraph
+     *            the graph whose nodes to process.
      */
     public void process(final GraphAdapter<?> layeredGraph) {
         final double labelSpacing = layeredGraph.getProperty(CoreOptions.SPACING_LABEL).doubleValue();
 
-        // Iterate over all the graph's nodes
-        for (final NodeAdapter<?> node : layeredGraph.getNodes()) {
-            /* Note that, upon Miro's request, each phase of the algorithm was given a code name. */
-
-            /*
-             * PREPARATIONS:
-             * Create new NodeData containing all relevant context information.
-             */
-            final NodeData data = new NodeData(node);
-            data.labelSpacing = labelSpacing;
-            data.portSpacing = node.getProperty(CoreOptions.SPACING_PORT).doubleValue();
-            data.nodeLabelInsets = node.getProperty(CoreOptions.NODE_LABELS_INSETS);
-
-            /*
-             * PHASE 1 (SAD DUCK):
-             * PLACE PORT LABELS Port labels are placed and port margins are calculated.
-             */
-            final PortLabelPlacement labelPlacement =
-                    node.getProperty(CoreOptions.PORT_LABELS_PLACEMENT);
-            final boolean compoundNodeMode = node.isCompoundNode();
-
-            // Place port labels and calculate the margins
-            for (final PortAdapter<?> port : node.getPorts()) {
-                placePortLabels(port, labelPlacement, compoundNodeMode, labelSpacing);
-                calculateAndSetPortMargins(port);
+        if (layeredGraph.getProperty(CoreOptions.NODE_SIZE_PARALLEL)) {
+            processInParallel(layeredGraph, labelSpacing);
+        } else {
+            // Iterate over all the graph's nodes
+            for (final NodeAdapter<?> node : layeredGraph.getNodes()) {
+                processNode(node, labelSpacing);
+            }
+        }
+    }
+
+    /**
+     * Processes the nodes of the given graph concurrently. Workers in the common fork-join pool fetch
+     * chunks of consecutive nodes from a shared counter until all nodes are done. Each node is
+     * processed by a single worker and only its own ports and labels are modified, so the result is
+     * the same as with sequential processing.
+     *
+     * @param layeredGraph
+     *            the graph whose nodes to process.
+     * @param labelSpacing
+     *            spacing between labels and other objects.
+     */
+    private void processInParallel(final GraphAdapter<?> layeredGraph, final double labelSpacing) {
+        final List<NodeAdapter<?>> nodes = Lists.newArrayList(layeredGraph.getNodes());
+        final int chunkCount = (nodes.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        final AtomicInteger nextChunk = new AtomicInteger(0);
+
+        int workerCount = Math.min(chunkCount, ForkJoinPool.getCommonPoolParallelism());
+        List<ForkJoinTask<?>> workers = Lists.newArrayListWithCapacity(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(ForkJoinPool.commonPool().submit(() -> {
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    int end = Math.min(nodes.size(), (chunk + 1) * PARALLEL_CHUNK_SIZE);
+                    for (int n = chunk * PARALLEL_CHUNK_SIZE; n < end; n++) {
+                        processNode(nodes.get(n), labelSpacing);
+                    }
+                }
+            }));
+        }
+
+        // Wait for all workers before rethrowing the first failure, if any; joining only throws
+        // unchecked exceptions and errors
+        Throwable failure = null;
+        for (ForkJoinTask<?> worker : workers) {
+            try {
+                worker.join();
+            } catch (Throwable exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
             }
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Calculates the size of the given node, places its ports, and places its node and port labels.
+     *
+     * @param node
+     *            the node to process.
+     * @param labelSpacing
+     *            spacing between labels and other objects.
+     */
+    private void processNode(final NodeAdapter<?> node, final double labelSpacing) {
+        /* Note that, upon Miro's request, each phase of the algorithm was given a code name. */
+
+        /*
+         * PREPARATIONS:
+         * Create new NodeData containing all relevant context information.
+         */
+        final NodeData data = new NodeData(node);
+        data.labelSpacing = labelSpacing;
+        data.portSpacing = node.getProperty(CoreOptions.SPACING_PORT).doubleValue();
+        data.nodeLabelInsets = node.getProperty(CoreOptions.NODE_LABELS_INSETS);
+
+        /*
+         * PHASE 1 (SAD DUCK):
+         * PLACE PORT LABELS Port labels are placed and port margins are calculated.
+         */
+        final PortLabelPlacement labelPlacement =
+                node.getProperty(CoreOptions.PORT_LABELS_PLACEMENT);
+        final boolean compoundNodeMode = node.isCompoundNode();
 
-            // Count ports on each side and calculate how much space they require
-            calculatePortInformation(data, node.getProperty(CoreOptions.NODE_SIZE_CONSTRAINTS)
-                    .contains(SizeConstraint.PORT_LABELS));
-
-            /*
-             * PHASE 2 (DYNAMIC DONALD):
-             * CALCULATE INSETS We know the sides the ports will be placed at and we know where node
-             * labels are to be placed. Calculate the node's insets accordingly. Also compute the
-             * amount of space the node labels will need if stacked vertically. Note that we don't
-             * have to know the final position of ports and of node labels to calculate all this
-             * stuff.
-             * 
-             * IMPORTANT NOTE:
-             * From this point on, the labels' ID fields are used to assign the location of the labels.
-             */
-            calculateRequiredPortLabelSpace(data);
-            calculateRequiredNodeLabelSpace(data);
-
-            /*
-             * PHASE 3 (DANGEROUS DUCKLING):
-             * RESIZE NODE If the node has labels, the node insets might have to be adjusted to
-             * reserve space for them, which is what this phase does.
-             */
-            resizeNode(data);
-
-            /*
-             * PHASE 4 (DUCK AND COVER):
-             * PLACE PORTS The node is resized, taking all node size constraints into account. The
-             * port spacing is not required for port placement since the placement will be based on
-             * the node's size (if it is not fixed anyway).
-             */
-            placePorts(data);
-
-            /*
-             * PHASE 5 (HAPPY DUCK):
-             * PLACE NODE LABELS With space reserved for the node labels, the labels are placed.
-             */
-            placeNodeLabels(data);
-
-            /*
-             * CLEANUP (THANKSGIVING):
-             * SET NODE INSETS Set the node insets to include space required for port and node
-             * labels. If the labels were not taken into account when calculating the node's size,
-             * this may result in insets that, taken together, are larger than the node's actual
-             * size.
-             */
-            final Insets nodeInsets = new Insets(node.getInsets());
-            nodeInsets.left = data.requiredNodeLabelSpace.left + data.requiredPortLabelSpace.left;
-            nodeInsets.right =
-                    data.requiredNodeLabelSpace.right + data.requiredPortLabelSpace.right;
-            nodeInsets.top = data.requiredNodeLabelSpace.top + data.requiredPortLabelSpace.top;
-            nodeInsets.bottom =
-                    data.requiredNodeLabelSpace.bottom + data.requiredPortLabelSpace.bottom;
-            node.setInsets(nodeInsets);
+        // Place port labels and calculate the margins
+        for (final PortAdapter<?> port : node.getPorts()) {
+            placePortLabels(port, labelPlacement, compoundNodeMode, labelSpacing);
+            calculateAndSetPortMargins(port);
         }
+
+        // Count ports on each side and calculate how much space they require
+        calculatePortInformation(data, node.getProperty(CoreOptions.NODE_SIZE_CONSTRAINTS)
+                .contains(SizeConstraint.PORT_LABELS));
+
+        /*
+         * PHASE 2 (DYNAMIC DONALD):
+         * CALCULATE INSETS We know the sides the ports will be placed at and we know where node
+         * labels are to be placed. Calculate the node's insets accordingly. Also compute the
+         * amount of space the node labels will need if stacked vertically. Note that we don't
+         * have to know the final position of ports and of node labels to calculate all this
+         * stuff.
+         * 
+         * IMPORTANT NOTE:
+         * From this point on, the labels' ID fields are used to assign the location of the labels.
+         */
+        calculateRequiredPortLabelSpace(data);
+        calculateRequiredNodeLabelSpace(data);
+
+        /*
+         * PHASE 3 (DANGEROUS DUCKLING):
+         * RESIZE NODE If the node has labels, the node insets might have to be adjusted to
+         * reserve space for them, which is what this phase does.
+         */
+        resizeNode(data);
+
+        /*
+         * PHASE 4 (DUCK AND COVER):
+         * PLACE PORTS The node is resized, taking all node size constraints into account. The
+         * port spacing is not required for port placement since the placement will be based on
+         * the node's size (if it is not fixed anyway).
+         */
+        placePorts(data);
+
+        /*
+         * PHASE 5 (HAPPY DUCK):
+         * PLACE NODE LABELS With space reserved for the node labels, the labels are placed.
+         */
+        placeNodeLabels(data);
+
+        /*
+         * CLEANUP (THANKSGIVING):
+         * SET NODE INSETS Set the node insets to include space required for port and node
+         * labels. If the labels were not taken into account when calculating the node's size,
+         * this may result in insets that, taken together, are larger than the node's actual
+         * size.
+         */
+        final Insets nodeInsets = new Insets(node.getInsets());
+        nodeInsets.left = data.requiredNodeLabelSpace.left + data.requiredPortLabelSpace.left;
+        nodeInsets.right =
+                data.requiredNodeLabelSpace.right + data.requiredPortLabelSpace.right;
+        nodeInsets.top = data.requiredNodeLabelSpace.top + data.requiredPortLabelSpace.top;
+        nodeInsets.bottom =
+                data.requiredNodeLabelSpace.bottom + data.requiredPortLabelSpace.bottom;
+        node.setInsets(nodeInsets);
     }
 
     // /////////////////////////////////////////////////////////////////////////////
@@ -195,8 +273,8 @@ public class LabelAndNodeSizeProcessor {
     private void placePortLabelsInside(final PortAdapter<?> port, final boolean compoundNodeMode,
             final double labelSpacing) {
 
-        ImmutableList<LabelAdapter<?>> labels = ImmutableList.copyOf(port.getLabels());
-        if (labels.isEmpty()) {
+        Iterator<LabelAdapter<?>> labelIterator = port.getLabels().iterator();
+        if (!labelIterator.hasNext()) {
             return;
         }
 
@@ -208,7 +286,7 @@ public class LabelAndNodeSizeProcessor {
             // We need the first label's size here and we know that there is at least one label
             y = compoundNodeMode && port.hasCompoundConnections()
                     ? port.getSize().y
-                    : (port .getSize().y - labels.get(0).getSize().y) / 2.0 - labelSpacing;
+                    : (port .getSize().y - labelIterator.next().getSize().y) / 2.0 - labelSpacing;
             break;
         case NORTH:
             y = port.getSize().y;
@@ -218,13 +296,6 @@ public class LabelAndNodeSizeProcessor {
             break;
         }
 
-        // In the usual case, we simply start at a given y position and place the labels downwards.
-        // For southern ports, however, we actually need to start with the last label and place them
-        // upwards. We thus first add all labels to a list that we may need to reverse
-        if (port.getSide() == PortSide.SOUTH) {
-            labels = labels.reverse();
-        }
-
         // Place da labels!
         for (final LabelAdapter<?> label : port.getLabels()) {
             final KVector position = new KVector(port.getPosition());
@@ -269,13 +340,13 @@ public class LabelAndNodeSizeProcessor {
      *            spacing between labels and other objects.
      */
     private void placePortLabelsOutside(final PortAdapter<?> port, final double labelSpacing) {
-        ImmutableList<LabelAdapter<?>> labels = ImmutableList.copyOf(port.getLabels());
-        if (labels.isEmpty()) {
+        Iterator<LabelAdapter<?>> labelIterator = port.getLabels().iterator();
+        if (!labelIterator.hasNext()) {
             return;
         }
 
         // Retrieve the first label's side
-        LabelSide labelSide = labels.get(0).getSide();
+        LabelSide labelSide = labelIterator.next().getSide();
         // Default is BELOW.
         labelSide = labelSide == LabelSide.UNKNOWN ? LabelSide.BELOW : labelSide;
 
@@ -292,74 +363,72 @@ public class LabelAndNodeSizeProcessor {
         case SOUTH:
             y = port.getSize().y;
             break;
+            
+        case NORTH:
+            break;
+            
+        default:
+            // Labels of ports without a side are left alone
+            return;
         }
 
+        // Labels are stacked upwards if they are above incident edges or belong to a northern port,
+        // except for southern ports, where "above" means the side of the edges facing away from the
+        // node. Labels are placed left of the port unless they belong to an eastern port or are
+        // placed below the edges of a northern or southern port
+        final boolean upwards = port.getSide() == PortSide.NORTH
+                || labelSide == LabelSide.ABOVE && port.getSide() != PortSide.SOUTH;
+        final boolean leftOfPort = port.getSide() == PortSide.WEST
+                || labelSide == LabelSide.ABOVE && port.getSide() != PortSide.EAST;
+
         // If labels are below incident edges, we simply start at a given y position and place the
-        // labels downwards. Of they are placed above or if we have a northern port, however, we
-        // actually need to start with the last label and place them upwards. We thus first add all
-        // labels to a list that we may need to reverse
+        // labels downwards. If they are placed above or if we have a northern port, however, we
+        // actually need to start with the last label and place them upwards. In that case, the
+        // start positions of the labels are computed from the last label to the first one before
+        // the labels are placed
+        double[] startPositions = null;
         if (port.getSide() == PortSide.NORTH || labelSide == LabelSide.ABOVE) {
-            labels = labels.reverse();
+            int labelCount = 1;
+            while (labelIterator.hasNext()) {
+                labelIterator.next();
+                labelCount++;
+            }
+            
+            if (labelCount > 1) {
+                double[] labelHeights = new double[labelCount];
+                int index = 0;
+                for (final LabelAdapter<?> label : port.getLabels()) {
+                    labelHeights[index++] = label.getSize().y;
+                }
+                
+                startPositions = new double[labelCount];
+                for (index = labelCount - 1; index >= 0; index--) {
+                    startPositions[index] = y;
+                    if (upwards) {
+                        y -= labelSpacing + labelHeights[index];
+                    } else {
+                        y += labelSpacing + labelHeights[index];
+                    }
+                }
+            }
         }
 
-        for (final LabelAdapter<?> label : labels) {
+        int index = 0;
+        for (final LabelAdapter<?> label : port.getLabels()) {
+            if (startPositions != null) {
+                y = startPositions[index++];
+            }
+            
             final KVector position = new KVector(label.getPosition());
-            if (labelSide == LabelSide.ABOVE) {
-                // Place label "above" edges
-                switch (port.getSide()) {
-                case WEST:
-                    position.x = -label.getSize().x - labelSpacing;
-                    position.y = y - labelSpacing - label.getSize().y;
-
-                    y -= labelSpacing + label.getSize().y;
-                    break;
-                case EAST:
-                    position.x = port.getSize().x + labelSpacing;
-                    position.y = y - labelSpacing - label.getSize().y;
-
-                    y -= labelSpacing + label.getSize().y;
-                    break;
-                case NORTH:
-                    position.x = -label.getSize().x - labelSpacing;
-                    position.y = y - labelSpacing - label.getSize().y;
-
-                    y -= labelSpacing + label.getSize().y;
-                    break;
-                case SOUTH:
-                    position.x = -label.getSize().x - labelSpacing;
-                    position.y = y + labelSpacing;
-
-                    y += labelSpacing + label.getSize().y;
-                    break;
-                }
+            position.x = leftOfPort
+                    ? -label.getSize().x - labelSpacing
+                    : port.getSize().x + labelSpacing;
+            if (upwards) {
+                position.y = y - labelSpacing - label.getSize().y;
+                y -= labelSpacing + label.getSize().y;
             } else {
-                // Place label "below" edges
-                switch (port.getSide()) {
-                case WEST:
-                    position.x = -label.getSize().x - labelSpacing;
-                    position.y = y + labelSpacing;
-
-                    y += labelSpacing + label.getSize().y;
-                    break;
-                case EAST:
-                    position.x = port.getSize().x + labelSpacing;
-                    position.y = y + labelSpacing;
-
-                    y += labelSpacing + label.getSize().y;
-                    break;
-                case NORTH:
-                    position.x = port.getSize().x + labelSpacing;
-                    position.y = y - labelSpacing - label.getSize().y;
-
-                    y -= labelSpacing + label.getSize().y;
-                    break;
-                case SOUTH:
-                    position.x = port.getSize().x + labelSpacing;
-                    position.y = y + labelSpacing;
-
-                    y += labelSpacing + label.getSize().y;
-                    break;
-                }
+                position.y = y + labelSpacing;
+                y += labelSpacing + label.getSize().y;
             }
             label.setPosition(position);
         }
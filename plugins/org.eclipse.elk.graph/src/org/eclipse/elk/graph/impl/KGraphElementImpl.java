@@ -47,6 +47,15 @@ public abstract class KGraphElementImpl extends EObjectImpl implements KGraphEle
      */
     protected EList<KGraphData> data;
 
+    /**
+     * Lookup cache for {@link #getData(Class)}, or {@code null} if it is empty. The cache is
+     * discarded whenever the {@link #data} list changes, so it always agrees with a linear scan.
+     * <!-- begin-user-doc -->
+     * <!-- end-user-doc -->
+     * @generated NOT
+     */
+    private DataCache dataCache;
+
     /**
      * <!-- begin-user-doc -->
      * <!-- end-user-doc -->
@@ -69,11 +78,19 @@ public abstract class KGraphElementImpl extends EObjectImpl implements KGraphEle
     /**
      * <!-- begin-user-doc -->
      * <!-- end-user-doc -->
-     * @generated
+     * @generated NOT
      */
     public EList<KGraphData> getData() {
         if (data == null) {
-            data = new EObjectContainmentEList<KGraphData>(KGraphData.class, this, KGraphPackage.KGRAPH_ELEMENT__DATA);
+            data = new EObjectContainmentEList<KGraphData>(KGraphData.class, this, KGraphPackage.KGRAPH_ELEMENT__DATA) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void didChange() {
+                    super.didChange();
+                    dataCache = null;
+                }
+            };
         }
         return data;
     }
@@ -103,15 +120,67 @@ public abstract class KGraphElementImpl extends EObjectImpl implements KGraphEle
      */
     public <T extends KGraphData> T getData(Class<T> type) {
         if (type != null) {
+            DataCache cache = dataCache;
+            if (cache != null) {
+                for (int i = 0; i < cache.types.length; i++) {
+                    if (cache.types[i] == type) {
+                        return type.cast(cache.values[i]);
+                    }
+                }
+            }
+            
+            KGraphData result = null;
             for (KGraphData graphData : getData()) {
                 if (type.isInstance(graphData)) {
-                    return type.cast(graphData);
+                    result = graphData;
+                    break;
                 }
             }
+            dataCache = new DataCache(cache, type, result);
+            return type.cast(result);
         }
         return null;
     }
 
+    /**
+     * Immutable set of the results of previous {@link KGraphElementImpl#getData(Class)} calls.
+     * Most elements are only ever asked for one or two types of data, so a short array beats
+     * a map here. Instances are replaced instead of modified, which makes them safe to read
+     * from several threads as long as the element itself is not modified.
+     * <!-- begin-user-doc -->
+     * <!-- end-user-doc -->
+     * @generated NOT
+     */
+    private static final class DataCache {
+        /** maximum number of types remembered at once. */
+        private static final int CAPACITY = 4;
+        /** the requested types. */
+        private final Class<?>[] types;
+        /** the first data instance of the corresponding type, or {@code null} if there is none. */
+        private final KGraphData[] values;
+
+        /**
+         * Creates a cache that contains the entries of the given one plus a new entry. If the
+         * old cache is full, its oldest entry is dropped.
+         * 
+         * @param old the previous cache, or {@code null}.
+         * @param type the requested type.
+         * @param value the first data instance of that type, or {@code null}.
+         */
+        DataCache(final DataCache old, final Class<?> type, final KGraphData value) {
+            int oldLength = old == null ? 0 : old.types.length;
+            int keep = Math.min(oldLength, CAPACITY - 1);
+            types = new Class<?>[keep + 1];
+            values = new KGraphData[keep + 1];
+            if (keep > 0) {
+                System.arraycopy(old.types, oldLength - keep, types, 0, keep);
+                System.arraycopy(old.values, oldLength - keep, values, 0, keep);
+            }
+            types[keep] = type;
+            values[keep] = value;
+        }
+    }
+
     /**
      * <!-- begin-user-doc -->
      * <!-- end-user-doc -->
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.graph.properties;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A holder class for properties that addresses values by the dense index of their property
+ * (see {@link Property#indexOf(IProperty)}) instead of hashing the property. Values are kept in
+ * a small open-addressing table of parallel arrays that is only allocated once the first property
+ * is set. Properties without an index, i.e. those not registered through
+ * {@link Property#registerIndices(Class...)}, are kept in a hash map instead. This is meant for graph
+ * structures that are created in large numbers and whose properties are read very frequently during
+ * layout; it behaves exactly like {@link MapPropertyHolder}.
+ *
+ * @author agent
+ */
+public class IndexedPropertyHolder implements IPropertyHolder, Serializable {
+
+    /** the serial version UID. */
+    private static final long serialVersionUID = -3586406232945224512L;
+
+    /** the initial capacity of the table; must be a power of two. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** property indices plus one for occupied slots, zero for free slots. */
+    private int[] keys;
+    /** the properties stored in each slot. */
+    private IProperty<?>[] properties;
+    /** the values stored in each slot. */
+    private Object[] values;
+    /** the number of occupied slots. */
+    private int size;
+    /** values of properties without an index; only created once such a property is set. */
+    private Map<IProperty<?>, Object> unindexedValues;
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> IndexedPropertyHolder setProperty(final IProperty<? super T> property, final T value) {
+        int index = Property.indexOf(property);
+        if (index == Property.NO_INDEX) {
+            if (value == null) {
+                if (unindexedValues != null) {
+                    unindexedValues.remove(property);
+                }
+            } else {
+                if (unindexedValues == null) {
+                    unindexedValues = new HashMap<IProperty<?>, Object>();
+                }
+                unindexedValues.put(property, value);
+            }
+        } else if (value == null) {
+            if (size > 0) {
+                int slot = find(index + 1);
+                if (slot >= 0) {
+                    removeSlot(slot);
+                }
+            }
+        } else {
+            put(property, index + 1, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getProperty(final IProperty<T> property) {
+        Object value = lookup(property);
+        if (value != null) {
+            @SuppressWarnings("unchecked")
+            T typedValue = (T) value;
+            return typedValue;
+        }
+
+        // Retrieve the default value and memorize it for our property
+        T defaultValue = property.getDefault();
+        if (defaultValue instanceof Cloneable) {
+            setProperty(property, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IndexedPropertyHolder copyProperties(final IPropertyHolder other) {
+        if (other == null) {
+            return this;
+        }
+
+        if (other instanceof IndexedPropertyHolder) {
+            // Copy directly from the other table, there is no need to look up the indices again
+            IndexedPropertyHolder otherHolder = (IndexedPropertyHolder) other;
+            if (otherHolder.size > 0) {
+                int[] otherKeys = otherHolder.keys;
+                for (int i = 0; i < otherKeys.length; i++) {
+                    if (otherKeys[i] != 0) {
+                        put(otherHolder.properties[i], otherKeys[i], otherHolder.values[i]);
+                    }
+                }
+            }
+            if (otherHolder.unindexedValues != null && !otherHolder.unindexedValues.isEmpty()) {
+                if (unindexedValues == null) {
+                    unindexedValues = new HashMap<IProperty<?>, Object>();
+                }
+                unindexedValues.putAll(otherHolder.unindexedValues);
+            }
+        } else {
+            for (Map.Entry<IProperty<?>, Object> entry : other.getAllProperties().entrySet()) {
+                @SuppressWarnings("unchecked")
+                IProperty<Object> property = (IProperty<Object>) entry.getKey();
+                setProperty(property, entry.getValue());
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Map<IProperty<?>, Object> getAllProperties() {
+        if (size == 0 && (unindexedValues == null || unindexedValues.isEmpty())) {
+            return Collections.emptyMap();
+        } else {
+            return new PropertyMap();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Table Handling
+
+    /**
+     * Returns the value stored for the given property, or {@code null} if there is none.
+     *
+     * @param property a property
+     * @return the stored value, or {@code null}
+     */
+    private Object lookup(final IProperty<?> property) {
+        int index = Property.indexOf(property);
+        if (index == Property.NO_INDEX) {
+            return unindexedValues == null ? null : unindexedValues.get(property);
+        } else if (size > 0) {
+            int slot = find(index + 1);
+            if (slot >= 0) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of values stored for properties without an index.
+     *
+     * @return the number of unindexed values
+     */
+    private int unindexedSize() {
+        return unindexedValues == null ? 0 : unindexedValues.size();
+    }
+
+    /**
+     * Returns the slot holding the given key, or {@code -1} if there is none.
+     *
+     * @param key a property index plus one
+     * @return the slot of the key, or {@code -1}
+     */
+    private int find(final int key) {
+        int mask = keys.length - 1;
+        int slot = key & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the given value for the given property, replacing any previous value.
+     *
+     * @param property the property
+     * @param key the property's index plus one
+     * @param value the value; must not be {@code null}
+     */
+    private void put(final IProperty<?> property, final int key, final Object value) {
+        if (keys == null) {
+            keys = new int[INITIAL_CAPACITY];
+            properties = new IProperty<?>[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        }
+
+        int mask = keys.length - 1;
+        int slot = key & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                properties[slot] = property;
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // The key is new; keep the table at most half full so that probe sequences remain short
+        if (2 * (size + 1) > keys.length) {
+            grow();
+            mask = keys.length - 1;
+            slot = key & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        properties[slot] = property;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts all entries.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        IProperty<?>[] oldProperties = properties;
+        Object[] oldValues = values;
+
+        int capacity = 2 * oldKeys.length;
+        int mask = capacity - 1;
+        keys = new int[capacity];
+        properties = new IProperty<?>[capacity];
+        values = new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = oldKeys[i] & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                properties[slot] = oldProperties[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in the given slot. Entries following it in the same probe sequence are
+     * shifted back so that lookups never need tombstones.
+     *
+     * @param removedSlot an occupied slot
+     */
+    private void removeSlot(final int removedSlot) {
+        int mask = keys.length - 1;
+        int free = removedSlot;
+        int slot = removedSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == 0) {
+                break;
+            }
+
+            // The entry may be moved to the free slot if its home slot does not lie cyclically
+            // between the free slot (exclusive) and its current slot (inclusive)
+            int home = keys[slot] & mask;
+            boolean stays = free <= slot
+                    ? free < home && home <= slot
+                    : free < home || home <= slot;
+            if (!stays) {
+                keys[free] = keys[slot];
+                properties[free] = properties[slot];
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+
+        keys[free] = 0;
+        properties[free] = null;
+        values[free] = null;
+        size--;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Map View
+
+    /**
+     * A read-only map view of the properties held by this holder.
+     */
+    private final class PropertyMap extends AbstractMap<IProperty<?>, Object> {
+
+        @Override
+        public int size() {
+            return size + unindexedSize();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            if (key instanceof IProperty<?>) {
+                return lookup((IProperty<?>) key);
+            }
+            return null;
+        }
+
+        @Override
+        public Set<Map.Entry<IProperty<?>, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<IProperty<?>, Object>>() {
+                @Override
+                public int size() {
+                    return size + unindexedSize();
+                }
+
+                @Override
+                public Iterator<Map.Entry<IProperty<?>, Object>> iterator() {
+                    return new EntryIterator();
+                }
+            };
+        }
+    }
+
+    /**
+     * Iterator over the occupied slots of the table, followed by the unindexed values.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<IProperty<?>, Object>> {
+
+        /** the keys of the table the iterator was created for. */
+        private final int[] iteratedKeys = keys;
+        /** the properties of the table the iterator was created for. */
+        private final IProperty<?>[] iteratedProperties = properties;
+        /** the values of the table the iterator was created for. */
+        private final Object[] iteratedValues = values;
+        /** iterator over the unindexed values, or {@code null} if there are none. */
+        private final Iterator<Map.Entry<IProperty<?>, Object>> unindexedIterator =
+                unindexedValues == null ? null : unindexedValues.entrySet().iterator();
+        /** the next slot to be checked. */
+        private int slot = 0;
+
+        /**
+         * Advances to the next occupied slot of the table.
+         *
+         * @return whether there is an occupied slot left
+         */
+        private boolean hasNextSlot() {
+            if (iteratedKeys == null) {
+                return false;
+            }
+            while (slot < iteratedKeys.length && iteratedKeys[slot] == 0) {
+                slot++;
+            }
+            return slot < iteratedKeys.length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNextSlot() || unindexedIterator != null && unindexedIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<IProperty<?>, Object> next() {
+            if (hasNextSlot()) {
+                Map.Entry<IProperty<?>, Object> entry =
+                        new AbstractMap.SimpleImmutableEntry<IProperty<?>, Object>(
+                                iteratedProperties[slot], iteratedValues[slot]);
+                slot++;
+                return entry;
+            } else if (unindexedIterator != null && unindexedIterator.hasNext()) {
+                return new AbstractMap.SimpleImmutableEntry<IProperty<?>, Object>(
+                        unindexedIterator.next());
+            }
+            throw new NoSuchElementException();
+        }
+    }
+
+}
@@ -10,7 +10,13 @@
  *******************************************************************************/
 package org.eclipse.elk.graph.properties;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 /**
  * A property that uses a string for identification.
@@ -22,10 +28,22 @@ import java.lang.reflect.Method;
  */
 public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
     
+    /** index returned for properties that were not registered by {@link #registerIndices(Class...)}. */
+    public static final int NO_INDEX = -1;
+    
+    /** dense indices assigned to the identifiers of registered properties. */
+    private static final ConcurrentMap<String, Integer> INDICES = new ConcurrentHashMap<String, Integer>();
+    /** the next index to be assigned to a property identifier. */
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    
     /** identifier of this property. */
     private final String id;
+    /** dense index of this property's identifier, or {@link #NO_INDEX} if it is not known yet. */
+    private int index = NO_INDEX;
     /** the default value of this property. */
     private T defaultValue;
+    /** function used to copy the default value, or {@code null} if the default is cloned reflectively. */
+    private UnaryOperator<T> defaultCopier;
     /** the lower bound of this property. */
     private Comparable<? super T> lowerBound = NEGATIVE_INFINITY;
     /** the upper bound of this property. */
@@ -53,13 +71,17 @@ public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
     
     /**
      * Creates a property using another property as identifier, but changing
-     * the default value.
+     * the default value. The other property's default copy function, if any, is kept.
      * 
      * @param other another property
      * @param thedefaultValue the new default value
      */
+    @SuppressWarnings("unchecked")
     public Property(final IProperty<T> other, final T thedefaultValue) {
         this(other.getId(), thedefaultValue);
+        if (other instanceof Property<?>) {
+            this.defaultCopier = ((Property<T>) other).defaultCopier;
+        }
     }
     
     /**
@@ -93,6 +115,25 @@ public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
         }
     }
     
+    /**
+     * Creates a property with given identifier, default value, lower and upper bound, and a function
+     * for copying the default value. The copy function is used by {@link #getDefault()} instead of
+     * cloning the default value reflectively. Property holders store the copy on the first read of
+     * an unset property, so each holder copies the default value at most once.
+     * 
+     * @param theid the identifier
+     * @param thedefaultValue the default value
+     * @param thelowerBound the lower bound, or {@code null} if the default lower bound shall be taken
+     * @param theupperBound the upper bound, or {@code null} if the default upper bound shall be taken
+     * @param thedefaultCopier function that returns a copy of the given default value
+     */
+    public Property(final String theid, final T thedefaultValue,
+            final Comparable<? super T> thelowerBound, final Comparable<? super T> theupperBound,
+            final UnaryOperator<T> thedefaultCopier) {
+        this(theid, thedefaultValue, thelowerBound, theupperBound);
+        this.defaultCopier = thedefaultCopier;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -119,11 +160,19 @@ public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
     }
     
     /**
-     * Returns the default value of this property.
+     * Returns the default value of this property. If a default copy function was given, the
+     * returned value is a copy made by that function; otherwise cloneable default values are
+     * cloned reflectively. Since clients may modify such copies in place, property holders store
+     * the copy when an unset property is read, so reading a mutable default allocates once per
+     * holder. Immutable default values are returned without copying.
      * 
      * @return the default value.
      */
     public T getDefault() {
+        if (defaultCopier != null && defaultValue != null) {
+            return defaultCopier.apply(defaultValue);
+        }
+        
         // Clone the default value if it's a Cloneable. We need to use reflection for this to work
         // properly (classes implementing Cloneable are not required to make their clone() method
         // public, so we need to check if they have such a method and invoke it via reflection, which
@@ -164,6 +213,64 @@ public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
         return upperBound;
     }
 
+    /**
+     * Assigns dense indices to the properties declared as public static fields of the given classes.
+     * Only registered properties have an index; this keeps the index registry bounded by the
+     * properties declared in code, while properties created at runtime don't get one.
+     * Registering a class several times has no further effect. Registration should happen before
+     * values of the registered properties are stored in indexed property holders.
+     * 
+     * @param declaringClasses classes declaring properties in public static fields
+     */
+    public static void registerIndices(final Class<?>... declaringClasses) {
+        for (Class<?> declaringClass : declaringClasses) {
+            for (Field field : declaringClass.getFields()) {
+                if (Modifier.isStatic(field.getModifiers())
+                        && IProperty.class.isAssignableFrom(field.getType())) {
+                    Object property;
+                    try {
+                        property = field.get(null);
+                    } catch (IllegalAccessException exception) {
+                        continue;
+                    }
+                    if (property instanceof IProperty<?>) {
+                        int theindex = INDICES.computeIfAbsent(((IProperty<?>) property).getId(),
+                                (key) -> NEXT_INDEX.getAndIncrement());
+                        if (property instanceof Property<?>) {
+                            ((Property<?>) property).index = theindex;
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns a dense, non-negative index for the given property if it was registered by
+     * {@link #registerIndices(Class...)}, or {@link #NO_INDEX} otherwise. Properties with the same
+     * identifier share their index, so the index can be used by property holders to address values
+     * without having to hash the property.
+     * 
+     * @param property a property
+     * @return the index of the property's identifier, or {@link #NO_INDEX}
+     */
+    public static int indexOf(final IProperty<?> property) {
+        if (property instanceof Property<?>) {
+            Property<?> theproperty = (Property<?>) property;
+            if (theproperty.index == NO_INDEX) {
+                Integer registeredIndex = INDICES.get(theproperty.id);
+                if (registeredIndex == null) {
+                    return NO_INDEX;
+                }
+                theproperty.index = registeredIndex;
+            }
+            return theproperty.index;
+        } else {
+            Integer registeredIndex = INDICES.get(property.getId());
+            return registeredIndex == null ? NO_INDEX : registeredIndex;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
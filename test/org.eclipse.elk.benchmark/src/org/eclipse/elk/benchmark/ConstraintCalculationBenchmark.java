@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.layered.compaction.oned.CGraph;
+import org.eclipse.elk.alg.layered.compaction.oned.CNode;
+import org.eclipse.elk.alg.layered.compaction.oned.OneDimensionalCompactor;
+import org.eclipse.elk.alg.layered.compaction.oned.algs.IConstraintCalculationAlgorithm;
+import org.eclipse.elk.alg.layered.compaction.oned.algs.IntervalConstraintCalculation;
+import org.eclipse.elk.alg.layered.compaction.oned.algs.QuadraticConstraintCalculation;
+import org.eclipse.elk.core.options.Direction;
+import org.eclipse.elk.core.util.nodespacing.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the constraint calculation of the one-dimensional compactor on randomly placed boxes.
+ * Comparing the pair-wise and the interval calculation for different numbers of boxes shows the
+ * crossover point that {@link QuadraticConstraintCalculation#INTERVAL_THRESHOLD} is based on.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConstraintCalculationBenchmark {
+
+    /** the random seed used to place the boxes. */
+    private static final long SEED = 0x0c0a;
+    /** the spacing between a box and its neighbors. */
+    private static final double SPACING = 10;
+    /** the minimal width and height of a box. */
+    private static final int MIN_SIZE = 20;
+    /** the maximal difference between the width or height of a box and the minimum. */
+    private static final int SIZE_RANGE = 30;
+    /** the side length of the area available to each box. */
+    private static final double CELL_SIZE = 60;
+
+    /**
+     * The available constraint calculations.
+     */
+    public enum Calculation {
+        /** compares all pairs of boxes. */
+        PAIRWISE,
+        /** compares boxes whose vertical extents are close to each other. */
+        INTERVAL,
+        /** chooses between the other two by the number of boxes. */
+        AUTOMATIC;
+    }
+
+    /** the number of boxes. */
+    @Param({ "8", "16", "32", "64", "256", "1024", "4096" })
+    private int nodeCount;
+
+    /** the constraint calculation to benchmark. */
+    @Param({ "PAIRWISE", "INTERVAL", "AUTOMATIC" })
+    private Calculation calculation;
+
+    /** the compactor holding the boxes. */
+    private OneDimensionalCompactor compactor;
+    /** the benchmarked constraint calculation. */
+    private IConstraintCalculationAlgorithm algorithm;
+
+
+    /**
+     * Places the boxes randomly in a square area whose size grows with the number of boxes.
+     */
+    @Setup(Level.Trial)
+    public void createGraph() {
+        Random random = new Random(SEED);
+        double side = Math.ceil(Math.sqrt(nodeCount)) * CELL_SIZE;
+        CGraph graph = new CGraph(EnumSet.allOf(Direction.class));
+        for (int i = 0; i < nodeCount; i++) {
+            graph.cNodes.add(new Box(new Rectangle(random.nextDouble() * side,
+                    random.nextDouble() * side, MIN_SIZE + random.nextInt(SIZE_RANGE),
+                    MIN_SIZE + random.nextInt(SIZE_RANGE))));
+        }
+        compactor = new OneDimensionalCompactor(graph);
+        compactor.direction = Direction.LEFT;
+
+        switch (calculation) {
+        case PAIRWISE:
+            algorithm = new QuadraticConstraintCalculation(Integer.MAX_VALUE);
+            break;
+        case INTERVAL:
+            algorithm = new IntervalConstraintCalculation();
+            break;
+        default:
+            algorithm = new QuadraticConstraintCalculation();
+        }
+    }
+
+    /**
+     * Calculates the constraints between the boxes.
+     *
+     * @return the number of constraints of the first box
+     */
+    @Benchmark
+    public int calculateConstraints() {
+        algorithm.calculateConstraints(compactor);
+        return compactor.cGraph.cNodes.get(0).constraints.size();
+    }
+
+    /**
+     * A box with fixed spacing that does not represent any graph element.
+     */
+    private static final class Box extends CNode {
+
+        /**
+         * Create a box.
+         *
+         * @param theHitbox the box's bounds
+         */
+        Box(final Rectangle theHitbox) {
+            this.hitbox = theHitbox;
+        }
+
+        @Override
+        public double getHorizontalSpacing() {
+            return SPACING;
+        }
+
+        @Override
+        public double getVerticalSpacing() {
+            return SPACING;
+        }
+
+        @Override
+        public void applyElementPosition() {
+        }
+
+        @Override
+        public double getElementPosition() {
+            return hitbox.x;
+        }
+    }
+
+}
@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import org.eclipse.elk.core.klayoutdata.KShapeLayout;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.options.PortConstraints;
+import org.eclipse.elk.core.options.PortSide;
+import org.eclipse.elk.core.util.ElkUtil;
+import org.eclipse.elk.graph.KEdge;
+import org.eclipse.elk.graph.KLabel;
+import org.eclipse.elk.graph.KLabeledGraphElement;
+import org.eclipse.elk.graph.KNode;
+import org.eclipse.elk.graph.KPort;
+
+/**
+ * Generates synthetic graphs for benchmarking. All graphs are completely determined by their type,
+ * their size and the random seed, which makes measurements comparable between runs and commits.
+ *
+ * @author agent
+ */
+public final class GraphGenerator {
+
+    /**
+     * The kinds of graphs the generator can produce.
+     */
+    public enum GraphType {
+        /** A connected random directed acyclic graph. */
+        RANDOM_DAG,
+        /** A connected random directed graph that contains cycles. */
+        RANDOM_CYCLIC,
+        /** A random tree with edges pointing away from the root. */
+        TREE,
+        /** A hierarchy of compound nodes, with a random acyclic graph inside each compound node. */
+        COMPOUND,
+        /** A random acyclic graph with fixed-side ports, labels and hyperedges. */
+        PORTS;
+    }
+
+    /** the number of edges per node generated by default. */
+    public static final double DEFAULT_EDGES_PER_NODE = 1.5;
+    /** the number of children of each compound node generated by default. */
+    public static final int DEFAULT_COMPOUND_CHILDREN = 8;
+    /** the number of ports of each node generated by default. */
+    public static final int DEFAULT_PORTS_PER_NODE = 6;
+    /** the maximum number of targets of a hyperedge generated by default. */
+    public static final int DEFAULT_HYPEREDGE_FANOUT = 4;
+
+    /** the maximum distance in creation order between the source and the targets of a hyperedge. */
+    private static final int HYPEREDGE_SPAN = 20;
+    /** the probability of a node or edge to receive a label. */
+    private static final double LABEL_PROBABILITY = 0.3;
+    /** the probability of a random edge to point backwards in cyclic graphs. */
+    private static final double BACK_EDGE_PROBABILITY = 0.2;
+    /** the minimum width and height of generated nodes. */
+    private static final int MIN_NODE_SIZE = 20;
+    /** the random variation added to the size of generated nodes. */
+    private static final int NODE_SIZE_VARIATION = 40;
+    /** the size of generated ports. */
+    private static final float PORT_SIZE = 5;
+    /** the width of a label character. */
+    private static final float CHAR_WIDTH = 6;
+    /** the height of labels. */
+    private static final float LABEL_HEIGHT = 12;
+
+    /** the random number generator. */
+    private final Random random;
+
+
+    /**
+     * Creates a graph generator.
+     *
+     * @param seed the seed of the random number generator
+     */
+    public GraphGenerator(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a graph of the given type with default parameters.
+     *
+     * @param type the type of graph
+     * @param nodeCount the number of nodes to generate
+     * @param seed the random seed
+     * @return the parent node of the generated graph
+     */
+    public static KNode generate(final GraphType type, final int nodeCount, final long seed) {
+        GraphGenerator generator = new GraphGenerator(seed);
+        switch (type) {
+        case RANDOM_DAG:
+            return generator.randomGraph(nodeCount, DEFAULT_EDGES_PER_NODE, false);
+        case RANDOM_CYCLIC:
+            return generator.randomGraph(nodeCount, DEFAULT_EDGES_PER_NODE, true);
+        case TREE:
+            return generator.tree(nodeCount);
+        case COMPOUND:
+            return generator.compoundGraph(nodeCount, DEFAULT_COMPOUND_CHILDREN, DEFAULT_EDGES_PER_NODE);
+        case PORTS:
+            return generator.portGraph(nodeCount, DEFAULT_PORTS_PER_NODE, DEFAULT_HYPEREDGE_FANOUT);
+        default:
+            throw new IllegalArgumentException("Unsupported graph type: " + type);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Graph Types
+
+    /**
+     * Generates a connected random graph. A random spanning tree keeps the graph connected, and the
+     * remaining edges connect random pairs of nodes.
+     *
+     * @param nodeCount the number of nodes
+     * @param edgesPerNode the average number of edges per node; at least one edge per node, save
+     *          for one, is always generated
+     * @param cyclic whether some edges may point backwards, introducing cycles
+     * @return the parent node of the generated graph
+     */
+    public KNode randomGraph(final int nodeCount, final double edgesPerNode, final boolean cyclic) {
+        KNode parent = ElkUtil.createInitializedNode();
+        List<KNode> nodes = createNodes(parent, nodeCount);
+        connectRandomly(nodes, edgesPerNode, cyclic);
+        return parent;
+    }
+
+    /**
+     * Generates a random recursive tree: each node is attached to a random node generated before it.
+     *
+     * @param nodeCount the number of nodes
+     * @return the parent node of the generated graph
+     */
+    public KNode tree(final int nodeCount) {
+        KNode parent = ElkUtil.createInitializedNode();
+        List<KNode> nodes = createNodes(parent, nodeCount);
+        for (int i = 1; i < nodeCount; i++) {
+            createEdge(nodes.get(random.nextInt(i)), nodes.get(i));
+        }
+        return parent;
+    }
+
+    /**
+     * Generates a hierarchical graph. Nodes are created breadth-first, each compound node receiving
+     * the given number of children until the node count is reached. The children of each compound
+     * node are connected by a random acyclic graph.
+     *
+     * @param nodeCount the total number of nodes, including compound nodes
+     * @param childrenPerCompound the number of children of each compound node
+     * @param edgesPerNode the average number of edges per node inside each compound node
+     * @return the parent node of the generated graph
+     */
+    public KNode compoundGraph(final int nodeCount, final int childrenPerCompound,
+            final double edgesPerNode) {
+
+        KNode root = ElkUtil.createInitializedNode();
+        List<KNode> compounds = new ArrayList<KNode>();
+        Queue<KNode> parents = new LinkedList<KNode>();
+        parents.add(root);
+
+        int created = 0;
+        while (created < nodeCount) {
+            KNode parent = parents.remove();
+            int children = Math.min(childrenPerCompound, nodeCount - created);
+            for (KNode child : createNodes(parent, children)) {
+                parents.add(child);
+            }
+            compounds.add(parent);
+            created += children;
+        }
+
+        for (KNode compound : compounds) {
+            connectRandomly(compound.getChildren(), edgesPerNode, false);
+        }
+        return root;
+    }
+
+    /**
+     * Generates a random acyclic graph whose edges connect fixed-side ports. Nodes, ports and edges
+     * are labeled randomly, and each output port is the source of a hyperedge with up to the given
+     * number of targets. Targets are chosen among the nodes created shortly after the source, which
+     * keeps the number of long edges realistic.
+     *
+     * @param nodeCount the number of nodes
+     * @param portsPerNode the number of ports of each node; half of them are inputs on the west
+     *          side, the other half are outputs on the east side
+     * @param fanout the maximum number of targets of each hyperedge
+     * @return the parent node of the generated graph
+     */
+    public KNode portGraph(final int nodeCount, final int portsPerNode, final int fanout) {
+        KNode parent = ElkUtil.createInitializedNode();
+        List<KNode> nodes = createNodes(parent, nodeCount);
+
+        int inputCount = Math.max(1, portsPerNode / 2);
+        int outputCount = Math.max(1, portsPerNode - inputCount);
+        List<List<KPort>> inputs = new ArrayList<List<KPort>>(nodeCount);
+        for (KNode node : nodes) {
+            node.getData(KShapeLayout.class).setProperty(CoreOptions.PORT_CONSTRAINTS,
+                    PortConstraints.FIXED_SIDE);
+
+            List<KPort> nodeInputs = new ArrayList<KPort>(inputCount);
+            for (int i = 0; i < inputCount; i++) {
+                nodeInputs.add(createPort(node, PortSide.WEST));
+            }
+            inputs.add(nodeInputs);
+        }
+
+        // Each output port feeds a hyperedge into input ports of nodes a bit further down the order
+        for (int n = 0; n < nodeCount - 1; n++) {
+            KNode source = nodes.get(n);
+            for (int o = 0; o < outputCount; o++) {
+                KPort output = createPort(source, PortSide.EAST);
+                int targets = 1 + random.nextInt(fanout);
+                int span = Math.min(HYPEREDGE_SPAN, nodeCount - n - 1);
+                for (int t = 0; t < targets; t++) {
+                    int target = n + 1 + random.nextInt(span);
+                    List<KPort> targetInputs = inputs.get(target);
+                    KEdge edge = createEdge(source, nodes.get(target));
+                    edge.setSourcePort(output);
+                    edge.setTargetPort(targetInputs.get(random.nextInt(targetInputs.size())));
+                }
+            }
+        }
+        return parent;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Graph Elements
+
+    /**
+     * Creates the given number of nodes of random size in the given parent node.
+     *
+     * @param parent the parent node
+     * @param count the number of nodes to create
+     * @return the created nodes
+     */
+    private List<KNode> createNodes(final KNode parent, final int count) {
+        List<KNode> nodes = new ArrayList<KNode>(count);
+        for (int i = 0; i < count; i++) {
+            KNode node = ElkUtil.createInitializedNode();
+            node.getData(KShapeLayout.class).setSize(
+                    MIN_NODE_SIZE + random.nextInt(NODE_SIZE_VARIATION),
+                    MIN_NODE_SIZE + random.nextInt(NODE_SIZE_VARIATION));
+            node.setParent(parent);
+            maybeCreateLabel(node, "n" + i);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Connects the given nodes by a random spanning tree plus random further edges. Edges point from
+     * earlier to later nodes in the list unless backward edges are allowed.
+     *
+     * @param nodes the nodes to connect
+     * @param edgesPerNode the average number of edges per node
+     * @param cyclic whether some of the further edges may point backwards
+     */
+    private void connectRandomly(final List<KNode> nodes, final double edgesPerNode,
+            final boolean cyclic) {
+
+        int nodeCount = nodes.size();
+        if (nodeCount < 2) {
+            return;
+        }
+
+        for (int i = 1; i < nodeCount; i++) {
+            createEdge(nodes.get(random.nextInt(i)), nodes.get(i));
+        }
+
+        int furtherEdges = (int) Math.round(edgesPerNode * nodeCount) - (nodeCount - 1);
+        for (int e = 0; e < furtherEdges; e++) {
+            int a = random.nextInt(nodeCount);
+            int b = random.nextInt(nodeCount);
+            if (a == b) {
+                continue;
+            }
+            boolean forward = a < b;
+            if (cyclic && random.nextDouble() < BACK_EDGE_PROBABILITY) {
+                forward = !forward;
+            }
+            if (forward) {
+                createEdge(nodes.get(Math.min(a, b)), nodes.get(Math.max(a, b)));
+            } else {
+                createEdge(nodes.get(Math.max(a, b)), nodes.get(Math.min(a, b)));
+            }
+        }
+    }
+
+    /**
+     * Creates an edge between the given nodes, possibly with a label.
+     *
+     * @param source the source node
+     * @param target the target node
+     * @return the created edge
+     */
+    private KEdge createEdge(final KNode source, final KNode target) {
+        KEdge edge = ElkUtil.createInitializedEdge();
+        edge.setSource(source);
+        edge.setTarget(target);
+        maybeCreateLabel(edge, "e");
+        return edge;
+    }
+
+    /**
+     * Creates a port on the given side of the given node, possibly with a label.
+     *
+     * @param node the node
+     * @param side the side of the port
+     * @return the created port
+     */
+    private KPort createPort(final KNode node, final PortSide side) {
+        KPort port = ElkUtil.createInitializedPort();
+        KShapeLayout portLayout = port.getData(KShapeLayout.class);
+        portLayout.setSize(PORT_SIZE, PORT_SIZE);
+        portLayout.setProperty(CoreOptions.PORT_SIDE, side);
+        port.setNode(node);
+        maybeCreateLabel(port, "p");
+        return port;
+    }
+
+    /**
+     * Labels the given element with the configured probability.
+     *
+     * @param element the element to label
+     * @param text the label text
+     */
+    private void maybeCreateLabel(final KLabeledGraphElement element, final String text) {
+        if (random.nextDouble() < LABEL_PROBABILITY) {
+            KLabel label = ElkUtil.createInitializedLabel(element);
+            label.setText(text);
+            label.getData(KShapeLayout.class).setSize(CHAR_WIDTH * text.length(), LABEL_HEIGHT);
+        }
+    }
+
+}
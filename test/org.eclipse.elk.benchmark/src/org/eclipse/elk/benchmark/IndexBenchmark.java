@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.LPort;
+import org.eclipse.elk.alg.layered.graph.Layer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks index queries on the elements of a single wide layer, the access pattern of crossing
+ * minimization and node placement. The benchmarks query the index of every node or port, either on
+ * an unmodified layer or after two nodes of the layer were swapped, which invalidates cached indices.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    /** the random seed used to choose swapped nodes. */
+    private static final long SEED = 0x1e1c;
+
+    /** the number of nodes in the layer. */
+    @Param({ "100", "1000", "10000" })
+    private int layerWidth;
+
+    /** the number of ports of each node. */
+    @Param({ "8" })
+    private int portsPerNode;
+
+    /** the layer's nodes. */
+    private List<LNode> nodes;
+    /** the ports of all nodes. */
+    private LPort[] ports;
+    /** the random number generator used to choose swapped nodes. */
+    private Random random;
+
+
+    /**
+     * Creates a graph with a single layer.
+     */
+    @Setup(Level.Trial)
+    public void createLayer() {
+        LGraph graph = new LGraph();
+        Layer layer = new Layer(graph);
+        graph.getLayers().add(layer);
+
+        ports = new LPort[layerWidth * portsPerNode];
+        int portIndex = 0;
+        for (int n = 0; n < layerWidth; n++) {
+            LNode node = new LNode(graph);
+            node.setLayer(layer);
+            for (int p = 0; p < portsPerNode; p++) {
+                LPort port = new LPort();
+                port.setNode(node);
+                ports[portIndex++] = port;
+            }
+        }
+        nodes = layer.getNodes();
+        random = new Random(SEED);
+    }
+
+    /**
+     * Queries the index of each node of the layer.
+     *
+     * @return the sum of the indices
+     */
+    @Benchmark
+    public long nodeIndices() {
+        long sum = 0;
+        for (LNode node : nodes) {
+            sum += node.getIndex();
+        }
+        return sum;
+    }
+
+    /**
+     * Swaps two random nodes of the layer and queries the index of each node.
+     *
+     * @return the sum of the indices
+     */
+    @Benchmark
+    public long nodeIndicesAfterSwap() {
+        Collections.swap(nodes, random.nextInt(layerWidth), random.nextInt(layerWidth));
+        return nodeIndices();
+    }
+
+    /**
+     * Queries the index of each port of the layer.
+     *
+     * @return the sum of the indices
+     */
+    @Benchmark
+    public long portIndices() {
+        long sum = 0;
+        for (LPort port : ports) {
+            sum += port.getIndex();
+        }
+        return sum;
+    }
+
+}
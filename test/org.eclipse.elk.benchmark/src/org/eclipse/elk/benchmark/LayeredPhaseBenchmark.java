@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.layered.ILayoutProcessor;
+import org.eclipse.elk.alg.layered.KlayLayered;
+import org.eclipse.elk.alg.layered.KlayLayered.TestExecutionState;
+import org.eclipse.elk.alg.layered.graph.transform.KGraphTransformer;
+import org.eclipse.elk.benchmark.GraphGenerator.GraphType;
+import org.eclipse.elk.graph.KNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks single phases and intermediate processors of the layered algorithm in isolation. Before
+ * each invocation, a fresh copy of the graph is imported and the algorithm is run up to, but
+ * excluding, the benchmarked processor; only that processor's execution is measured.
+ *
+ * <p>Processors are identified by their simple class name. Which processors are available depends
+ * on the graph and its configuration; asking for one that is not part of the algorithm fails with
+ * a message listing the available ones. Since the preparation is repeated for each invocation, this
+ * benchmark is only meaningful for processors that take at least about a millisecond.</p>
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class LayeredPhaseBenchmark {
+
+    /** the random seed used to generate the graph. */
+    private static final long SEED = 0x1e1c;
+
+    /** the type of graph to lay out. */
+    @Param({ "RANDOM_DAG", "RANDOM_CYCLIC", "PORTS" })
+    private GraphType graphType;
+
+    /** the number of nodes of the graph. */
+    @Param({ "200", "1000" })
+    private int nodeCount;
+
+    /** the simple class name of the benchmarked processor. */
+    @Param({ "GreedyCycleBreaker", "NetworkSimplexLayerer", "LayerSweepCrossingMinimizer",
+        "BKNodePlacer", "OrthogonalEdgeRouter", "LongEdgeSplitter", "LabelAndNodeSizeProcessor" })
+    private String processor;
+
+    /** the generated graph. */
+    private KNode graph;
+    /** the algorithm whose processors are benchmarked. */
+    private KlayLayered klayLayered;
+    /** the benchmarked processor's class, resolved lazily from the algorithm's configuration. */
+    private Class<? extends ILayoutProcessor> processorClass;
+    /** the state of the test run prepared for the next invocation. */
+    private TestExecutionState state;
+
+
+    /**
+     * Generates the graph.
+     */
+    @Setup(Level.Trial)
+    public void generateGraph() {
+        graph = GraphGenerator.generate(graphType, nodeCount, SEED);
+        klayLayered = new KlayLayered();
+    }
+
+    /**
+     * Imports the graph and runs the algorithm up to the benchmarked processor.
+     */
+    @Setup(Level.Invocation)
+    public void prepareLayoutTest() {
+        state = klayLayered.prepareLayoutTest(new KGraphTransformer().importGraph(graph));
+        if (processorClass == null) {
+            processorClass = findProcessor(klayLayered.getLayoutTestConfiguration(state));
+        }
+        klayLayered.runLayoutTestUntil(processorClass, false, state);
+    }
+
+    /**
+     * Runs the benchmarked processor.
+     *
+     * @return the test execution state, to keep the result alive
+     */
+    @Benchmark
+    public TestExecutionState runProcessor() {
+        klayLayered.runLayoutTestStep(state);
+        return state;
+    }
+
+    /**
+     * Looks up the benchmarked processor in the given algorithm configuration.
+     *
+     * @param configuration the processors the algorithm consists of
+     * @return the class of the benchmarked processor
+     * @throws IllegalArgumentException if the processor is not part of the configuration
+     */
+    private Class<? extends ILayoutProcessor> findProcessor(final List<ILayoutProcessor> configuration) {
+        StringBuilder available = new StringBuilder();
+        for (ILayoutProcessor candidate : configuration) {
+            if (candidate.getClass().getSimpleName().equals(processor)) {
+                return candidate.getClass();
+            }
+            available.append(' ').append(candidate.getClass().getSimpleName());
+        }
+        throw new IllegalArgumentException("Processor " + processor
+                + " is not part of the algorithm; available processors:" + available);
+    }
+
+}
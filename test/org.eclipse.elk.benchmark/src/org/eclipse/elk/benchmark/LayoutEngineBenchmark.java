@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.force.properties.ForceMetaDataProvider;
+import org.eclipse.elk.alg.layered.properties.LayeredMetaDataProvider;
+import org.eclipse.elk.alg.mrtree.properties.MrTreeMetaDataProvider;
+import org.eclipse.elk.benchmark.GraphGenerator.GraphType;
+import org.eclipse.elk.core.RecursiveGraphLayoutEngine;
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.klayoutdata.KShapeLayout;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.KNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks complete layout runs through the {@link RecursiveGraphLayoutEngine}, including graph
+ * import and export and the recursive layout of compound nodes. Since layout modifies the graph,
+ * a fresh graph is generated before each invocation.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class LayoutEngineBenchmark {
+
+    /** the random seed used to generate the graph. */
+    private static final long SEED = 0x1e1c;
+
+    static {
+        // Outside of Eclipse, the algorithms have to be registered manually
+        LayoutMetaDataService service = LayoutMetaDataService.getInstance();
+        service.registerLayoutMetaDataProvider(new LayeredMetaDataProvider());
+        service.registerLayoutMetaDataProvider(new ForceMetaDataProvider());
+        service.registerLayoutMetaDataProvider(new MrTreeMetaDataProvider());
+    }
+
+    /** the identifier of the layout algorithm to apply to each hierarchy level. */
+    @Param({ "org.eclipse.elk.layered" })
+    private String algorithm;
+
+    /** the type of graph to lay out. */
+    @Param({ "RANDOM_DAG", "TREE", "COMPOUND", "PORTS" })
+    private GraphType graphType;
+
+    /** the number of nodes of the graph. */
+    @Param({ "200", "1000" })
+    private int nodeCount;
+
+    /** the graph to be laid out by the next invocation. */
+    private KNode graph;
+    /** the layout engine. */
+    private RecursiveGraphLayoutEngine engine;
+
+
+    /**
+     * Creates the layout engine.
+     */
+    @Setup(Level.Trial)
+    public void createEngine() {
+        engine = new RecursiveGraphLayoutEngine();
+    }
+
+    /**
+     * Generates a fresh graph.
+     */
+    @Setup(Level.Invocation)
+    public void generateGraph() {
+        graph = GraphGenerator.generate(graphType, nodeCount, SEED);
+        graph.getData(KShapeLayout.class).setProperty(CoreOptions.ALGORITHM, algorithm);
+        for (KNode child : graph.getChildren()) {
+            setAlgorithm(child);
+        }
+    }
+
+    /**
+     * Sets the configured algorithm on the given node and all of its descendants that have children.
+     *
+     * @param node a node
+     */
+    private void setAlgorithm(final KNode node) {
+        if (!node.getChildren().isEmpty()) {
+            node.getData(KShapeLayout.class).setProperty(CoreOptions.ALGORITHM, algorithm);
+            for (KNode child : node.getChildren()) {
+                setAlgorithm(child);
+            }
+        }
+    }
+
+    /**
+     * Lays out the graph.
+     *
+     * @return the laid out graph
+     */
+    @Benchmark
+    public KNode layout() {
+        engine.layout(graph, new BasicProgressMonitor());
+        return graph;
+    }
+
+}
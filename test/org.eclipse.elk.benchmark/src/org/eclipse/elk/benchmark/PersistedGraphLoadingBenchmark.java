@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.benchmark.GraphGenerator.GraphType;
+import org.eclipse.elk.core.klayoutdata.KEdgeLayout;
+import org.eclipse.elk.core.klayoutdata.KLayoutData;
+import org.eclipse.elk.core.klayoutdata.KShapeLayout;
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.math.KVectorChain;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.options.EdgeLabelPlacement;
+import org.eclipse.elk.core.options.NodeLabelPlacement;
+import org.eclipse.elk.core.options.SizeConstraint;
+import org.eclipse.elk.core.util.GraphDataUtil;
+import org.eclipse.elk.graph.KEdge;
+import org.eclipse.elk.graph.KGraphElement;
+import org.eclipse.elk.graph.KLabel;
+import org.eclipse.elk.graph.KNode;
+import org.eclipse.emf.ecore.EObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading the layout options of a persisted graph, which parses the serialized value of
+ * every persistent entry through the layout option data. The graph's elements carry the kinds of
+ * options usually found in persisted graphs: enumerations, enumeration sets, numbers, and vectors,
+ * most of which repeat a few values, as well as bend points, which are different for each edge. With
+ * the default number of nodes, the graph has about 100,000 elements.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PersistedGraphLoadingBenchmark {
+
+    /** the random seed used to generate the graph and its option values. */
+    private static final long SEED = 0x10ad;
+    /** the number of distinct priorities assigned to nodes. */
+    private static final int PRIORITIES = 10;
+    /** the number of distinct port border offsets. */
+    private static final int BORDER_OFFSETS = 4;
+    /** the extent of the area in which bend points are placed. */
+    private static final double BEND_POINT_RANGE = 1000;
+
+    /** the number of nodes of the graph. */
+    @Param({ "7000" })
+    private int nodeCount;
+
+    /** the graph whose persistent entries are loaded. */
+    private KNode graph;
+
+
+    /**
+     * Generates a graph with ports, labels and hyperedges, configures typical layout options on
+     * its elements and turns them into persistent entries.
+     */
+    @Setup(Level.Trial)
+    public void createGraph() {
+        graph = GraphGenerator.generate(GraphType.PORTS, nodeCount, SEED);
+        Random random = new Random(SEED);
+
+        Iterator<EObject> contents = graph.eAllContents();
+        while (contents.hasNext()) {
+            EObject object = contents.next();
+            if (object instanceof KNode) {
+                KShapeLayout layout = ((KNode) object).getData(KShapeLayout.class);
+                layout.setProperty(CoreOptions.NODE_SIZE_CONSTRAINTS,
+                        EnumSet.of(SizeConstraint.PORTS, SizeConstraint.MINIMUM_SIZE));
+                layout.setProperty(CoreOptions.NODE_LABELS_PLACEMENT,
+                        NodeLabelPlacement.insideCenter());
+                layout.setProperty(CoreOptions.NODE_SIZE_MINIMUM, new KVector(20, 20));
+                layout.setProperty(CoreOptions.PRIORITY, random.nextInt(PRIORITIES));
+            } else if (object instanceof KEdge) {
+                KEdgeLayout layout = ((KEdge) object).getData(KEdgeLayout.class);
+                layout.setProperty(CoreOptions.EDGE_THICKNESS, 1.0f);
+                double x = random.nextDouble() * BEND_POINT_RANGE;
+                layout.setProperty(CoreOptions.BEND_POINTS, new KVectorChain(
+                        new KVector(x, random.nextDouble() * BEND_POINT_RANGE),
+                        new KVector(x, random.nextDouble() * BEND_POINT_RANGE)));
+            } else if (object instanceof KLabel) {
+                KShapeLayout layout = ((KLabel) object).getData(KShapeLayout.class);
+                layout.setProperty(CoreOptions.EDGE_LABELS_PLACEMENT, EdgeLabelPlacement.CENTER);
+            } else if (object instanceof KGraphElement) {
+                KShapeLayout layout = ((KGraphElement) object).getData(KShapeLayout.class);
+                layout.setProperty(CoreOptions.PORT_BORDER_OFFSET,
+                        (float) random.nextInt(BORDER_OFFSETS));
+            }
+        }
+
+        contents = graph.eAllContents();
+        while (contents.hasNext()) {
+            EObject object = contents.next();
+            if (object instanceof KLayoutData) {
+                ((KLayoutData) object).makePersistent();
+            }
+        }
+    }
+
+    /**
+     * Replaces the properties of all layout data by the values parsed from their persistent
+     * entries.
+     *
+     * @return the loaded graph
+     */
+    @Benchmark
+    public KNode loadDataElements() {
+        GraphDataUtil.loadDataElements(graph, true);
+        return graph;
+    }
+
+}
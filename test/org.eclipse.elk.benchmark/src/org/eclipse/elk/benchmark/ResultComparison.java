@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Kiel University and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Kiel University - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.elk.benchmark;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares two JMH result files written with {@code -rf json}, for example the results of two
+ * commits. For each benchmark and parameter combination present in both files, the relative change
+ * of the score is printed. A change is reported as a regression if it is worse than the threshold
+ * and larger than the combined error margins of both measurements.
+ *
+ * <p>Usage: {@code ResultComparison <baseline.json> <current.json> [threshold percent]}. The
+ * process exits with status 1 if there is at least one regression, which allows the comparison
+ * to be used in automated builds.</p>
+ *
+ * @author agent
+ */
+public final class ResultComparison {
+
+    /** the regression threshold in percent used if none is given. */
+    private static final double DEFAULT_THRESHOLD = 5.0;
+    /** the factor converting ratios into percentages. */
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Hidden default constructor.
+     */
+    private ResultComparison() {
+    }
+
+    /**
+     * Compares two result files.
+     *
+     * @param args the baseline result file, the current result file and optionally the threshold
+     * @throws IOException if a result file cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultComparison <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        Map<String, JsonObject> baseline = readResults(args[0]);
+        Map<String, JsonObject> current = readResults(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonObject> entry : current.entrySet()) {
+            JsonObject before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-100s %12s%n", entry.getKey(), "new");
+                continue;
+            }
+            JsonObject after = entry.getValue();
+
+            JsonObject beforeMetric = before.getAsJsonObject("primaryMetric");
+            JsonObject afterMetric = after.getAsJsonObject("primaryMetric");
+            double beforeScore = beforeMetric.get("score").getAsDouble();
+            double afterScore = afterMetric.get("score").getAsDouble();
+            double error = errorOf(beforeMetric) + errorOf(afterMetric);
+            double change = (afterScore - beforeScore) / beforeScore * PERCENT;
+
+            // In throughput mode, higher scores are better; in all other modes, lower scores are
+            boolean higherIsBetter = "thrpt".equals(after.get("mode").getAsString());
+            double worsening = higherIsBetter ? -change : change;
+            boolean regression = worsening > threshold && Math.abs(afterScore - beforeScore) > error;
+            if (regression) {
+                regressions++;
+            }
+
+            System.out.printf("%-100s %12.3f %12.3f %-8s %+8.1f%% %s%n", entry.getKey(), beforeScore,
+                    afterScore, afterMetric.get("scoreUnit").getAsString(), change,
+                    regression ? "REGRESSION" : "");
+        }
+
+        System.out.println(regressions + " regression(s) above " + threshold + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads the given result file and maps the key of each result to the result.
+     *
+     * @param file the name of a JMH result file in JSON format
+     * @return map of result keys to results, sorted by key
+     * @throws IOException if the file cannot be read
+     */
+    private static Map<String, JsonObject> readResults(final String file) throws IOException {
+        Map<String, JsonObject> results = new TreeMap<String, JsonObject>();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            for (JsonElement element : new JsonParser().parse(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                results.put(keyOf(result), result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Computes a key that identifies the benchmark, mode and parameters of the given result.
+     *
+     * @param result a result
+     * @return the result's key
+     */
+    private static String keyOf(final JsonObject result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+        key.append(" (").append(result.get("mode").getAsString());
+
+        JsonObject params = result.getAsJsonObject("params");
+        if (params != null) {
+            Map<String, String> sortedParams = new TreeMap<String, String>();
+            for (Map.Entry<String, JsonElement> param : params.entrySet()) {
+                sortedParams.put(param.getKey(), param.getValue().getAsString());
+            }
+            for (Map.Entry<String, String> param : sortedParams.entrySet()) {
+                key.append(", ").append(param.getKey()).append('=').append(param.getValue());
+            }
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * Returns the error margin of the given metric, or zero if it is unknown. JMH writes "NaN" if
+     * there were too few measurements to compute an error.
+     *
+     * @param metric a metric
+     * @return the error margin
+     */
+    private static double errorOf(final JsonObject metric) {
+        JsonElement error = metric.get("scoreError");
+        if (error == null || error.isJsonNull()) {
+            return 0;
+        }
+        try {
+            double value = error.getAsDouble();
+            return Double.isNaN(value) ? 0 : value;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}